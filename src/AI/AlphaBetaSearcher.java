@@ -0,0 +1,380 @@
+/**
+ * This class represents the alpha-beta search that is shared by the
+ * search algorithms of my program. White is always the maximizing player
+ * and black is always the minimizing player, like in the MiniMax class.
+ * A mate is scored by its distance in plies from the root, so a closer mate is
+ * better. The table keeps a mate by its distance from the stored board instead,
+ * because the same board is found again at other distances from the root.
+ */
+
+package AI;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import Board.Board;
+import Board.Move;
+import Player.MoveTransition;
+import Tablebase.Tablebases;
+
+class AlphaBetaSearcher {
+
+	// the handle is checked once in this amount of nodes
+	private static final int NODES_PER_CHECK = 256;
+
+	private final BoardEvaluator boardEvaluator;
+	private final TranspositionTable transpositionTable;
+	private final SearchHandle searchHandle;
+	private final SearchStatistics statistics;
+	private boolean isStopped;
+	private int rootValue;
+
+	/**
+	 * Constructor for a search without a transposition table.
+	 * @param boardEvaluator is the evaluator of the leaves.
+	 * @param searchHandle is the handle that cancels the search.
+	 */
+	AlphaBetaSearcher(final BoardEvaluator boardEvaluator, final SearchHandle searchHandle) {
+		this(boardEvaluator, null, searchHandle);
+	}
+
+	/**
+	 * Constructor
+	 * @param boardEvaluator is the evaluator of the leaves.
+	 * @param transpositionTable is the table of the searched boards, or null.
+	 * @param searchHandle is the handle that cancels the search.
+	 */
+	AlphaBetaSearcher(final BoardEvaluator boardEvaluator,
+					  final TranspositionTable transpositionTable,
+					  final SearchHandle searchHandle) {
+		this.boardEvaluator = boardEvaluator;
+		this.transpositionTable = transpositionTable;
+		this.searchHandle = searchHandle;
+		this.statistics = new SearchStatistics();
+		this.isStopped = false;
+	}
+
+	/**
+	 * Returns true if the search was cancelled. The values that were found
+	 * after the cancel are meaningless, and they are never stored.
+	 * @return true or false.
+	 */
+	boolean isStopped() { return this.isStopped; }
+
+	/**
+	 * Returns the statistics of this searcher.
+	 * @return the statistics.
+	 */
+	SearchStatistics getStatistics() { return this.statistics; }
+
+	/**
+	 * Counts a node, and checks the handle once in NODES_PER_CHECK nodes.
+	 * @param ply is the ply of the node.
+	 * @return true if the search was cancelled, o.w false.
+	 */
+	private boolean countNode(final int ply) {
+		this.statistics.reachedPly(ply);
+		if (++this.statistics.nodes % NODES_PER_CHECK == 0) {
+			this.searchHandle.addNodes(NODES_PER_CHECK);
+			if (this.searchHandle.isCancelled()) {
+				this.isStopped = true;
+			}
+		}
+		return this.isStopped;
+	}
+
+	/**
+	 * Returns the value of the best move that searchRoot found.
+	 * @return the value.
+	 */
+	int getRootValue() { return this.rootValue; }
+
+	/**
+	 * Searches all the moves of the root and returns the best one.
+	 * @param board is the given board.
+	 * @param depth is the depth of the search.
+	 * @return the best move, or null if there is no legal move or the search was stopped.
+	 */
+	Move searchRoot(final Board board, final int depth) {
+		return searchRoot(board, depth, Collections.<Move>emptySet());
+	}
+
+	/**
+	 * Searches the moves of the root that are not excluded and returns the best one.
+	 * The root is stored in the table only when no move is excluded, because the
+	 * best of the other moves is not the best move of the board.
+	 * @param board is the given board.
+	 * @param depth is the depth of the search.
+	 * @param excludedMoves are the moves that are not searched.
+	 * @return the best move, or null if there is no legal move or the search was stopped.
+	 */
+	Move searchRoot(final Board board, final int depth, final Set<Move> excludedMoves) {
+		if (this.searchHandle.isCancelled()) {
+			this.isStopped = true;
+			return null;
+		}
+		final boolean isMaximizing = board.currentPlayer().getColor().isWhite();
+		int alpha = Integer.MIN_VALUE;
+		int beta = Integer.MAX_VALUE;
+		Move bestMove = null;
+		int bestValue = isMaximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+		for (final Move move : orderMoves(board, probeHashMove(board))) {
+			if (excludedMoves.contains(move)) {
+				continue;
+			}
+			final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+			if (!moveTransition.getMoveStatus().isDone()) {
+				continue;
+			}
+			final int currentValue = searchMove(moveTransition, depth, 0, alpha, beta,
+					SearchExtensions.getBudget(depth), SearchExtensions.NO_SQUARE, false);
+			if (isStopped()) { return null; }
+			if (bestMove == null || (isMaximizing ? currentValue > bestValue : currentValue < bestValue)) {
+				bestValue = currentValue;
+				bestMove = move;
+				if (isMaximizing) {
+					alpha = bestValue;
+				} else {
+					beta = bestValue;
+				}
+			}
+		}
+		if (bestMove != null) {
+			this.rootValue = bestValue;
+			if (excludedMoves.isEmpty()) {
+				store(board, bestValue, depth, 0, TranspositionTable.EXACT, bestMove);
+			}
+		}
+		return bestMove;
+	}
+
+	/**
+	 * Searches the board after the given move and returns its value. A forcing move
+	 * is searched one ply deeper, if the budget of the path allows it.
+	 * @param moveTransition is the transition of the move.
+	 * @param depth is the remaining depth of the board before the move.
+	 * @param ply is the distance of the board before the move from the root.
+	 * @param alpha is the value that white is already guaranteed.
+	 * @param beta is the value that black is already guaranteed.
+	 * @param extensionsLeft is the extension budget that is left for the path.
+	 * @param recaptureSquare is the recapture square of the board before the move.
+	 * @param isSingleReply is true if the move is the only legal move.
+	 * @return the value of the board after the move.
+	 */
+	int searchMove(final MoveTransition moveTransition, final int depth, final int ply, final int alpha, final int beta,
+				   final int extensionsLeft, final int recaptureSquare, final boolean isSingleReply) {
+		final int extension = SearchExtensions.extend(moveTransition, recaptureSquare, isSingleReply,
+				extensionsLeft, this.statistics);
+		return search(moveTransition.getTransitionBoard(), depth - 1 + extension, ply + 1, alpha, beta,
+				extensionsLeft - extension, SearchExtensions.getRecaptureSquare(moveTransition.getMove()));
+	}
+
+	/**
+	 * Searches the given board and returns its value.
+	 * The search stops looking at the moves of a node as soon as alpha >= beta,
+	 * because the other player will never let the game get to this node.
+	 * @param board is the given board.
+	 * @param depth is the remaining depth.
+	 * @param ply is the distance of the board from the root.
+	 * @param alpha is the value that white is already guaranteed.
+	 * @param beta is the value that black is already guaranteed.
+	 * @param extensionsLeft is the extension budget that is left for the path.
+	 * @param recaptureSquare is the destination of the last move if it was a capture, o.w NO_SQUARE.
+	 * @return the value of the board.
+	 */
+	int search(final Board board, final int depth, final int ply, int alpha, int beta,
+			   final int extensionsLeft, final int recaptureSquare) {
+		if (countNode(ply)) { return 0; }
+		final int tablebaseScore = Tablebases.get().probe(board);
+		if (tablebaseScore != Tablebases.NO_SCORE) {
+			// a mate that is closer to the root is better
+			return tablebaseScore > 0 ? tablebaseScore - ply : tablebaseScore < 0 ? tablebaseScore + ply : 0;
+		}
+		if (depth <= 0) { return toSearchScore(this.boardEvaluator.evaluate(board, 0, alpha, beta), ply); }
+		int hashMove = TranspositionTable.NO_MOVE;
+		if (this.transpositionTable != null) {
+			final long entry = this.transpositionTable.probe(board.getZobristHash());
+			if (entry != 0) {
+				++this.statistics.hashHits;
+				hashMove = TranspositionTable.getMove(entry);
+				if (TranspositionTable.getDepth(entry) >= depth) {
+					final int value = fromTableScore(TranspositionTable.getValue(entry), ply);
+					final int bound = TranspositionTable.getBound(entry);
+					if (bound == TranspositionTable.EXACT ||
+							(bound == TranspositionTable.LOWER_BOUND && value >= beta) ||
+							(bound == TranspositionTable.UPPER_BOUND && value <= alpha)) {
+						return value;
+					}
+				}
+			}
+		}
+		final int originalAlpha = alpha;
+		final int originalBeta = beta;
+		final boolean isMaximizing = board.currentPlayer().getColor().isWhite();
+		int bestValue = isMaximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+		Move bestMove = null;
+		final List<Move> orderedMoves = orderMoves(board, hashMove);
+		final boolean isSingleReply = extensionsLeft > 0 && SearchExtensions.hasSingleReply(board);
+		int moveNumber = 0;
+		for (int i = 0; i < orderedMoves.size(); ++i) {
+			final Move move = orderedMoves.get(i);
+			final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+			if (!moveTransition.getMoveStatus().isDone()) {
+				continue;
+			}
+			++moveNumber;
+			final int currentValue = searchMove(moveTransition, depth, ply, alpha, beta,
+					extensionsLeft, recaptureSquare, isSingleReply);
+			if (isStopped()) { return 0; }
+			if (bestMove == null || (isMaximizing ? currentValue > bestValue : currentValue < bestValue)) {
+				bestValue = currentValue;
+				bestMove = move;
+			}
+			if (isMaximizing) {
+				alpha = Math.max(alpha, bestValue);
+			} else {
+				beta = Math.min(beta, bestValue);
+			}
+			if (alpha >= beta) {
+				this.statistics.cutoff(moveNumber, orderedMoves.size() - i - 1);
+				break;
+			}
+		}
+		// check mate or stale mate - the game ended in this node
+		if (bestMove == null) {
+			bestValue = toSearchScore(this.boardEvaluator.evaluate(board, depth), ply);
+			store(board, bestValue, depth, ply, TranspositionTable.EXACT, null);
+			return bestValue;
+		}
+		final int bound = bestValue <= originalAlpha ? TranspositionTable.UPPER_BOUND :
+						  bestValue >= originalBeta ? TranspositionTable.LOWER_BOUND :
+						  TranspositionTable.EXACT;
+		store(board, bestValue, depth, ply, bound, bestMove);
+		return bestValue;
+	}
+
+	/**
+	 * Returns the principal variation of the given board, by following the best
+	 * moves in the table, starting with the given best move.
+	 * @param board is the given board.
+	 * @param bestMove is the best move of the board.
+	 * @param maxLength is the maximal length of the variation.
+	 * @return the principal variation.
+	 */
+	List<Move> getPrincipalVariation(final Board board, final Move bestMove, final int maxLength) {
+		final List<Move> principalVariation = new ArrayList<>();
+		final Set<Long> visitedBoards = new HashSet<>();
+		Board currentBoard = board;
+		Move currentMove = bestMove;
+		while (currentMove != null && principalVariation.size() < maxLength &&
+				visitedBoards.add(currentBoard.getZobristHash())) {
+			principalVariation.add(currentMove);
+			currentBoard = currentBoard.currentPlayer().makeMove(currentMove).getTransitionBoard();
+			currentMove = findMove(currentBoard, probeHashMove(currentBoard));
+		}
+		return principalVariation;
+	}
+
+	/**
+	 * Returns the legal move of the given board that matches the encoded move.
+	 * @param board is the given board.
+	 * @param encodedMove is the encoded move.
+	 * @return the move, or null if there is no such legal move.
+	 */
+	static Move findMove(final Board board, final int encodedMove) {
+		if (encodedMove == TranspositionTable.NO_MOVE) { return null; }
+		for (final Move move : board.currentPlayer().getPossibleMoves()) {
+			if (TranspositionTable.encodeMove(move) == encodedMove &&
+					board.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+				return move;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the encoded best move of the given board from the table.
+	 * @param board is the given board.
+	 * @return the encoded move, or NO_MOVE.
+	 */
+	private int probeHashMove(final Board board) {
+		if (this.transpositionTable == null) { return TranspositionTable.NO_MOVE; }
+		return TranspositionTable.getMove(this.transpositionTable.probe(board.getZobristHash()));
+	}
+
+	/**
+	 * Stores the result of a board in the table, if there is a table.
+	 * @param board is the given board.
+	 * @param value is the value of the board.
+	 * @param depth is the depth of the search.
+	 * @param ply is the distance of the board from the root.
+	 * @param bound is the type of the value.
+	 * @param bestMove is the best move, or null.
+	 */
+	private void store(final Board board, final int value, final int depth, final int ply, final int bound,
+					   final Move bestMove) {
+		if (this.transpositionTable != null) {
+			this.transpositionTable.store(board.getZobristHash(), toTableScore(value, ply), depth, bound,
+					bestMove == null ? TranspositionTable.NO_MOVE : TranspositionTable.encodeMove(bestMove));
+		}
+	}
+
+	/**
+	 * Converts a score of the evaluator to a score of the search. The check mate
+	 * term scores a mate by the remaining depth, and the search scores it by the
+	 * distance from the root.
+	 * @param score is the score of the evaluator.
+	 * @param ply is the distance of the board from the root.
+	 * @return the score of the search.
+	 */
+	private static int toSearchScore(final int score, final int ply) {
+		if (!EvaluationTerms.isMateScore(score)) { return score; }
+		return score > 0 ? EvaluationTerms.mateInPlies(ply) : -EvaluationTerms.mateInPlies(ply);
+	}
+
+	/**
+	 * Converts a score of the search to a score of the table, where a mate is
+	 * counted from the stored board and not from the root.
+	 * @param score is the score of the search.
+	 * @param ply is the distance of the board from the root.
+	 * @return the score of the table.
+	 */
+	private static int toTableScore(final int score, final int ply) {
+		if (!EvaluationTerms.isMateInPlies(score)) { return score; }
+		return score > 0 ? score + ply : score - ply;
+	}
+
+	/**
+	 * Converts a score of the table back to a score of the search.
+	 * @param score is the score of the table.
+	 * @param ply is the distance of the board from the root.
+	 * @return the score of the search.
+	 */
+	private static int fromTableScore(final int score, final int ply) {
+		if (!EvaluationTerms.isMateInPlies(score)) { return score; }
+		return score > 0 ? score - ply : score + ply;
+	}
+
+	/**
+	 * Returns the possible moves of the given board, when the best move from
+	 * the table is the first one, because it usually cuts off the others.
+	 * @param board is the given board.
+	 * @param hashMove is the encoded best move from the table.
+	 * @return the ordered moves.
+	 */
+	private static List<Move> orderMoves(final Board board, final int hashMove) {
+		final List<Move> orderedMoves = new ArrayList<>(board.currentPlayer().getPossibleMoves());
+		if (hashMove != TranspositionTable.NO_MOVE) {
+			for (int i = 0; i < orderedMoves.size(); ++i) {
+				if (TranspositionTable.encodeMove(orderedMoves.get(i)) == hashMove) {
+					orderedMoves.add(0, orderedMoves.remove(i));
+					break;
+				}
+			}
+		}
+		return orderedMoves;
+	}
+}
@@ -11,4 +11,18 @@ public interface BoardEvaluator {
 
 	int evaluate(Board board, int depth);
 	
+	/**
+	 * Evaluates the given board for a search with the given window. A score that
+	 * is not above alpha or not below beta is only a bound, so an evaluator may skip
+	 * its expensive terms when the board is far outside the window.
+	 * @param board is the given board.
+	 * @param depth is the remaining depth.
+	 * @param alpha is the value that white is already guaranteed.
+	 * @param beta is the value that black is already guaranteed.
+	 * @return the score, which is exact if it is inside the window.
+	 */
+	default int evaluate(final Board board, final int depth, final int alpha, final int beta) {
+		return evaluate(board, depth);
+	}
+	
 }
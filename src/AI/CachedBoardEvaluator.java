@@ -0,0 +1,91 @@
+/**
+ * This class decorates a board evaluator with a cache of the scores of the
+ * boards it evaluated, so a board that is reached again by another order of
+ * moves is not evaluated again. The cache is direct-mapped by the zobrist hash
+ * of the board, and an entry is a single long: the high 48 bits of the hash
+ * check the board, and the low 16 bits keep the score.
+ * An entry is written and read as one long, so the threads of a parallel search
+ * share the cache without locks, and a board whose entry was replaced by another
+ * board is just evaluated again.
+ */
+
+package AI;
+
+import Board.Board;
+
+public class CachedBoardEvaluator implements BoardEvaluator {
+
+	public static final int DEFAULT_CACHE_SIZE = 1;
+
+	private static final int BYTES_PER_ENTRY = 8;
+	private static final long KEY_MASK = ~0xFFFFL;
+
+	private final BoardEvaluator boardEvaluator;
+	private final long[] entries;
+	private final int mask;
+
+	/**
+	 * Constructor, with a cache of the default size.
+	 * @param boardEvaluator is the decorated evaluator.
+	 */
+	public CachedBoardEvaluator(final BoardEvaluator boardEvaluator) {
+		this(boardEvaluator, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * @param boardEvaluator is the decorated evaluator.
+	 * @param sizeInMegabytes is the size of the cache.
+	 */
+	public CachedBoardEvaluator(final BoardEvaluator boardEvaluator, final int sizeInMegabytes) {
+		final long entryCount = Math.max(1L, (long) sizeInMegabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+		final int capacity = Integer.highestOneBit((int) Math.min(entryCount, 1 << 30));
+		this.boardEvaluator = boardEvaluator;
+		this.entries = new long[capacity];
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Evaluates the given board, or returns its score from the cache.
+	 * Only the score of a mate depends on the depth, so the boards in check are
+	 * never cached, and neither are scores that do not fit in 16 bits.
+	 * @param board is the given board.
+	 * @return the score.
+	 */
+	@Override
+	public int evaluate(final Board board, final int depth) {
+		final long key = board.getZobristHash();
+		final int index = (int) key & this.mask;
+		final long entry = this.entries[index];
+		if ((entry & KEY_MASK) == (key & KEY_MASK)) {
+			return (short) entry;
+		}
+		final int score = this.boardEvaluator.evaluate(board, depth);
+		if (!board.currentPlayer().isInCheck() && score == (short) score) {
+			this.entries[index] = (key & KEY_MASK) | (score & 0xFFFFL);
+		}
+		return score;
+	}
+
+	/**
+	 * Evaluates the given board for a search with the given window, or returns its
+	 * score from the cache. The decorated evaluator may return only a bound for a
+	 * board outside the window, so only the scores inside the window are cached.
+	 * @param board is the given board.
+	 * @return the score, which is exact if it is inside the window.
+	 */
+	@Override
+	public int evaluate(final Board board, final int depth, final int alpha, final int beta) {
+		final long key = board.getZobristHash();
+		final int index = (int) key & this.mask;
+		final long entry = this.entries[index];
+		if ((entry & KEY_MASK) == (key & KEY_MASK)) {
+			return (short) entry;
+		}
+		final int score = this.boardEvaluator.evaluate(board, depth, alpha, beta);
+		if (score > alpha && score < beta && !board.currentPlayer().isInCheck() && score == (short) score) {
+			this.entries[index] = (key & KEY_MASK) | (score & 0xFFFFL);
+		}
+		return score;
+	}
+}
@@ -0,0 +1,28 @@
+/**
+ * This interface is the interface of a term of the evaluation whose score depends
+ * on the depth that was left when the board was reached, like the check mate,
+ * which is worth more the sooner it is found. Its score is not tapered by the
+ * phase of the board, because it does not fit in a packed score.
+ */
+
+package AI;
+
+import Board.Board;
+
+public interface DepthEvaluationTerm {
+
+	/**
+	 * Returns the name of the term.
+	 * @return the name.
+	 */
+	String getName();
+
+	/**
+	 * Scores the given board by this term.
+	 * @param board is the given board.
+	 * @param depth is the depth that was left.
+	 * @return the score, positive for white.
+	 */
+	int score(Board board, int depth);
+
+}
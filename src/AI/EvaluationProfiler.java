@@ -0,0 +1,36 @@
+/**
+ * This class profiles the terms of the standard evaluation: it searches the
+ * initial board with an evaluator in the profiling mode, and reports how many
+ * times every term was called and how much time it took.
+ */
+
+package AI;
+
+import Board.Board;
+
+public class EvaluationProfiler {
+
+	private static final int DEFAULT_DEPTH = 4;
+
+	/**
+	 * Make this class a container for useful functions
+	 */
+	private EvaluationProfiler() { throw new RuntimeException("Cant initiate this object!"); }
+
+	/**
+	 * Profiles the evaluation from the command line:
+	 * EvaluationProfiler [depth]
+	 * @param args are the arguments.
+	 */
+	public static void main(final String[] args) {
+		final int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+		final StandardBoardEvaluator boardEvaluator = new StandardBoardEvaluator.Builder()
+				.addStandardTerms(StandardBoardEvaluator.DEFAULT_PAWN_TABLE_SIZE)
+				.setProfiled(true)
+				.build();
+		final SearchResult result = new MiniMax(depth, boardEvaluator).search(Board.initStandardBoard(),
+				new SearchHandle(), null);
+		System.out.println(result);
+		System.out.print(boardEvaluator.getProfileReport());
+	}
+}
@@ -0,0 +1,26 @@
+/**
+ * This interface is the interface of a single term of the evaluation, like the
+ * material or the mobility. StandardBoardEvaluator is built from registered
+ * terms, so a term can be added, removed or profiled without changing it.
+ */
+
+package AI;
+
+import Board.Board;
+
+public interface EvaluationTerm {
+
+	/**
+	 * Returns the name of the term.
+	 * @return the name.
+	 */
+	String getName();
+
+	/**
+	 * Scores the given board by this term.
+	 * @param board is the given board.
+	 * @return the packed middlegame and endgame score, positive for white.
+	 */
+	int score(Board board);
+
+}
@@ -0,0 +1,264 @@
+/**
+ * This class creates the terms of the standard evaluation. Every weight is a
+ * packed middlegame and endgame score, which EvaluationTuner tunes.
+ */
+
+package AI;
+
+import Board.BitBoards;
+import Board.Board;
+import Board.Helper;
+import Board.TaperedScore;
+import Pieces.Piece;
+import Player.Player;
+
+public class EvaluationTerms {
+
+	static final int CHECK_BONUS = TaperedScore.of(50, 30);
+	static final int CASTLED_BONUS = TaperedScore.of(60, 0);
+	static final int MOBILITY_WEIGHT = TaperedScore.of(1, 2);
+	static final int BLOCKED_PASSED_PAWN_PENALTY = TaperedScore.of(10, 20);
+	// the deepest search of the program, where a check mate gets its highest score
+	public static final int MAX_DEPTH = 64;
+	private static final int CHECK_MATE_BONUS = 10000;
+	private static final int DEPTH_BONUES = 100;
+	// the highest score of a check mate, which the proven wins of the program start from
+	public static final int MAX_MATE_SCORE = mateScore(MAX_DEPTH);
+	// the searches score a mate by its distance in plies, below MAX_MATE_SCORE
+	public static final int MAX_MATE_PLY = 1000;
+	public static final int MATE_IN_MAX_PLY = MAX_MATE_SCORE - MAX_MATE_PLY;
+
+	/**
+	 * Make this class a container for useful functions
+	 */
+	private EvaluationTerms() { throw new RuntimeException("Cant initiate this object!"); }
+
+	/**
+	 * Returns the term of the material and the squares of the pieces, which
+	 * the board keeps by itself.
+	 * @return the term.
+	 */
+	public static EvaluationTerm material() {
+		return new EvaluationTerm() {
+
+			@Override
+			public String getName() { return "Material"; }
+
+			@Override
+			public int score(final Board board) { return board.getMaterialScore(); }
+		};
+	}
+
+	/**
+	 * Returns the term of the pawn structure. The pawn structure comes from a pawn
+	 * hash table of the term, and only the passed pawns that are blocked by a piece
+	 * are checked on the board itself.
+	 * @param pawnTableSizeInMegabytes is the size of the pawn hash table.
+	 * @return the term.
+	 */
+	public static EvaluationTerm pawnStructure(final int pawnTableSizeInMegabytes) {
+		// the pawn structures are shared by all the boards with the same pawns
+		final PawnHashTable pawnHashTable = new PawnHashTable(pawnTableSizeInMegabytes);
+		return new EvaluationTerm() {
+
+			@Override
+			public String getName() { return "Pawn structure"; }
+
+			@Override
+			public int score(final Board board) {
+				final PawnStructure pawnStructure = pawnHashTable.get(board);
+				return pawnStructure.getScore() -
+					   blockedPassedPawns(board, pawnStructure) * BLOCKED_PASSED_PAWN_PENALTY;
+			}
+		};
+	}
+
+	/**
+	 * Returns the term of the mobility.
+	 * @return the term.
+	 */
+	public static EvaluationTerm mobility() {
+		return new EvaluationTerm() {
+
+			@Override
+			public String getName() { return "Mobility"; }
+
+			@Override
+			public int score(final Board board) { return mobility(board) * MOBILITY_WEIGHT; }
+		};
+	}
+
+	/**
+	 * Returns the term of the check situation, a bonus for the player that gives check.
+	 * @return the term.
+	 */
+	public static EvaluationTerm check() {
+		return new EvaluationTerm() {
+
+			@Override
+			public String getName() { return "Check"; }
+
+			@Override
+			public int score(final Board board) {
+				return check(board.whitePlayer()) - check(board.blackPlayer());
+			}
+		};
+	}
+
+	/**
+	 * Returns the term of the castled situation.
+	 * @return the term.
+	 */
+	public static EvaluationTerm castled() {
+		return new EvaluationTerm() {
+
+			@Override
+			public String getName() { return "Castled"; }
+
+			@Override
+			public int score(final Board board) {
+				return castled(board.whitePlayer()) - castled(board.blackPlayer());
+			}
+		};
+	}
+
+	/**
+	 * Returns the term of the check mate situation, which is worth more the more
+	 * depth was left when it was found, so the search prefers the shortest mate.
+	 * @return the term.
+	 */
+	public static DepthEvaluationTerm checkmate() {
+		return new DepthEvaluationTerm() {
+
+			@Override
+			public String getName() { return "Check mate"; }
+
+			@Override
+			public int score(final Board board, final int depth) {
+				return checkmate(board.whitePlayer(), depth) - checkmate(board.blackPlayer(), depth);
+			}
+		};
+	}
+
+	/**
+	 * Returns the score of a check mate that was found with the given depth left.
+	 * @param depth is the depth that was left.
+	 * @return the score.
+	 */
+	public static int mateScore(final int depth) {
+		return depth == 0 ? CHECK_MATE_BONUS : CHECK_MATE_BONUS * DEPTH_BONUES * depth;
+	}
+
+	/**
+	 * Returns the score of a mate the given amount of plies away.
+	 * @param plies is the distance of the mate in plies.
+	 * @return the score.
+	 */
+	public static int mateInPlies(final int plies) { return MAX_MATE_SCORE - plies; }
+
+	/**
+	 * Checks whether a score is the score of a mate, either of the check mate term
+	 * or of a mate that is counted in plies.
+	 * @param score is the given score.
+	 * @return true if it is a mate, o.w false.
+	 */
+	public static boolean isMateScore(final int score) { return Math.abs(score) >= mateScore(0); }
+
+	/**
+	 * Checks whether a score is the score of a mate that is counted in plies.
+	 * @param score is the given score.
+	 * @return true if it is a mate that is counted in plies, o.w false.
+	 */
+	public static boolean isMateInPlies(final int score) { return Math.abs(score) >= MATE_IN_MAX_PLY; }
+
+	/**
+	 * Returns the score for check mate situation.
+	 * @param player is the current player.
+	 * @param depth is the deepest depth.
+	 * @return the score.
+	 */
+	private static int checkmate(final Player player, final int depth) {
+		return player.getOpponent().isInCheckMate() ? mateScore(depth) : 0;
+	}
+
+	/**
+	 * Returns the bonus for the check situation.
+	 * @param player is the current player.
+	 * @return the packed bonus.
+	 */
+	private static int check(final Player player) {
+		return player.getOpponent().isInCheck() ? CHECK_BONUS : 0;
+	}
+
+	/**
+	 * Returns the score for castled situation.
+	 * @param player is the current player.
+	 * @return the packed score.
+	 */
+	private static int castled(final Player player) {
+		return player.isCastled() ? CASTLED_BONUS : 0;
+	}
+
+	/**
+	 * Counts the passed pawns that are blocked by a piece.
+	 * @param board is the given board.
+	 * @param pawnStructure is the pawn structure of the board.
+	 * @return the blocked passed pawns of white minus those of black.
+	 */
+	static int blockedPassedPawns(final Board board, final PawnStructure pawnStructure) {
+		int blocked = 0;
+		for (long pawns = pawnStructure.getWhitePassedPawns(); pawns != 0; pawns &= pawns - 1) {
+			if (isBlocked(board, Long.numberOfTrailingZeros(pawns) - Helper.NUM_TILES_PER_ROW)) {
+				++blocked;
+			}
+		}
+		for (long pawns = pawnStructure.getBlackPassedPawns(); pawns != 0; pawns &= pawns - 1) {
+			if (isBlocked(board, Long.numberOfTrailingZeros(pawns) + Helper.NUM_TILES_PER_ROW)) {
+				--blocked;
+			}
+		}
+		return blocked;
+	}
+
+	/**
+	 * Checks if the square in front of a pawn is occupied.
+	 * @param board is the given board.
+	 * @param position is the position in front of the pawn.
+	 * @return true if the position is on the board and occupied, o.w false.
+	 */
+	private static boolean isBlocked(final Board board, final int position) {
+		return position >= 0 && position < Helper.NUM_TILES && board.getTile((short) position).isTileOccupied();
+	}
+
+	/**
+	 * Returns the mobility, which is the amount of squares that the knights, bishops,
+	 * rooks and queens of a player attack, without the squares of its own pieces.
+	 * The squares come from the attack masks of the pieces, so no moves are created.
+	 * @param board is the given board.
+	 * @return the mobility, positive for white.
+	 */
+	static int mobility(final Board board) {
+		final long whiteOccupied = BitBoards.occupancy(board.getWhitePieces());
+		final long blackOccupied = BitBoards.occupancy(board.getBlackPieces());
+		final long occupied = whiteOccupied | blackOccupied;
+		return mobility(board.getWhitePieces(), occupied, whiteOccupied) -
+			   mobility(board.getBlackPieces(), occupied, blackOccupied);
+	}
+
+	/**
+	 * Returns the mobility of the pieces of one player.
+	 * @param pieces are the pieces of the player.
+	 * @param occupied are the occupied positions of the board.
+	 * @param ownOccupied are the positions of the pieces of the player.
+	 * @return the mobility.
+	 */
+	private static int mobility(final Iterable<Piece> pieces, final long occupied, final long ownOccupied) {
+		int mobility = 0;
+		for (final Piece piece : pieces) {
+			if (piece.getPieceType() != Piece.Type.PAWN && !piece.getPieceType().isKing()) {
+				mobility += Long.bitCount(BitBoards.attacks(piece, occupied) & ~ownOccupied);
+			}
+		}
+		return mobility;
+	}
+}
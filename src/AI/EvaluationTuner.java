@@ -0,0 +1,509 @@
+/**
+ * This class tunes the weights of the standard evaluation by the method of Texel:
+ * the score of a position is turned into an expected result by a sigmoid, and the
+ * weights are changed one at a time while the mean squared error against the
+ * results of the games goes down.
+ * The positions are read from lines of a FEN and a result ("1-0", "0-1", "1/2-1/2",
+ * or "[1.0]", "[0.5]", "[0.0]"). Every position is evaluated once when it is read:
+ * the terms of the tuned weights are kept as counts, and all the other terms as a
+ * fixed score, in arrays of primitives. So a pass over the positions is a few
+ * multiplications for each of them, without boards and without allocations, and
+ * the passes are split between the threads.
+ */
+
+package AI;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import Board.Board;
+import Board.Fen;
+import Board.PieceSquareTable;
+import Board.TaperedScore;
+import Pieces.Piece;
+
+public class EvaluationTuner {
+
+	// the tuned terms: the material of the pieces without the king, then the weights of the evaluator
+	private static final String[] TERM_NAMES = { "PAWN_VALUE", "KNIGHT_VALUE", "BISHOP_VALUE", "ROOK_VALUE", "QUEEN_VALUE",
+										 "CHECK_BONUS", "CASTLED_BONUS", "MOBILITY_WEIGHT",
+										 "BLOCKED_PASSED_PAWN_PENALTY" };
+	private static final int TERM_COUNT = TERM_NAMES.length;
+	private static final int CHECK_TERM = 5;
+	private static final int CASTLED_TERM = 6;
+	private static final int MOBILITY_TERM = 7;
+	private static final int BLOCKED_PASSED_PAWN_TERM = 8;
+	// the results are kept in halves of a point, from the side of white
+	private static final int WIN = 2;
+	private static final int DRAW = 1;
+	private static final int LOSS = 0;
+	private static final int NO_RESULT = -1;
+	// the lines that are read and evaluated by the threads together
+	private static final int BATCH_SIZE = 1 << 14;
+	private static final int INITIAL_CAPACITY = 1 << 16;
+	private static final int INITIAL_STEP = 16;
+
+	private final int threadCount;
+	private final ExecutorService executor;
+	// the middlegame weights of the terms, then the endgame weights
+	private final int[] weights;
+	// the counts of the terms of every position, positive for white
+	private short[] counts;
+	private short[] fixedMiddlegames;
+	private short[] fixedEndgames;
+	private byte[] phases;
+	private byte[] results;
+	private int positionCount;
+	private double scalingFactor;
+
+	/**
+	 * Constructor, with the weights of the evaluator.
+	 * @param threadCount is the number of threads.
+	 */
+	public EvaluationTuner(final int threadCount) {
+		this.threadCount = threadCount;
+		this.executor = Executors.newFixedThreadPool(threadCount);
+		this.weights = new int[2 * TERM_COUNT];
+		final int[] initialWeights = {
+			PieceSquareTable.getMaterial(Piece.Type.PAWN),
+			PieceSquareTable.getMaterial(Piece.Type.KNIGHT),
+			PieceSquareTable.getMaterial(Piece.Type.BISHOP),
+			PieceSquareTable.getMaterial(Piece.Type.ROOK),
+			PieceSquareTable.getMaterial(Piece.Type.QUEEN),
+			EvaluationTerms.CHECK_BONUS,
+			EvaluationTerms.CASTLED_BONUS,
+			EvaluationTerms.MOBILITY_WEIGHT,
+			EvaluationTerms.BLOCKED_PASSED_PAWN_PENALTY
+		};
+		for (int term = 0; term < TERM_COUNT; ++term) {
+			this.weights[term] = TaperedScore.getMiddlegame(initialWeights[term]);
+			this.weights[TERM_COUNT + term] = TaperedScore.getEndgame(initialWeights[term]);
+		}
+		this.counts = new short[INITIAL_CAPACITY * TERM_COUNT];
+		this.fixedMiddlegames = new short[INITIAL_CAPACITY];
+		this.fixedEndgames = new short[INITIAL_CAPACITY];
+		this.phases = new byte[INITIAL_CAPACITY];
+		this.results = new byte[INITIAL_CAPACITY];
+		this.scalingFactor = 1.0;
+	}
+
+	/**
+	 * Returns the number of positions that were loaded.
+	 * @return the number of positions.
+	 */
+	public int getPositionCount() { return this.positionCount; }
+
+	/**
+	 * Returns the scaling factor of the sigmoid.
+	 * @return the scaling factor.
+	 */
+	public double getScalingFactor() { return this.scalingFactor; }
+
+	/**
+	 * Reads the positions of the given file. The lines are read in batches, and
+	 * the positions of a batch are evaluated by the threads.
+	 * @param file is the given file.
+	 * @return the number of lines that were skipped.
+	 * @throws IOException if the file cannot be read.
+	 * @throws InterruptedException if the thread was interrupted.
+	 */
+	public int load(final Path file) throws IOException, InterruptedException {
+		int skipped = 0;
+		try (final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			final String[] lines = new String[BATCH_SIZE];
+			int lineCount;
+			do {
+				lineCount = 0;
+				String line;
+				while (lineCount < BATCH_SIZE && (line = reader.readLine()) != null) {
+					if (!line.trim().isEmpty()) {
+						lines[lineCount++] = line;
+					}
+				}
+				skipped += loadBatch(lines, lineCount);
+			} while (lineCount == BATCH_SIZE);
+		}
+		return skipped;
+	}
+
+	/**
+	 * Evaluates a batch of lines into the arrays of the positions.
+	 * @param lines are the lines of the batch.
+	 * @param lineCount is the number of lines.
+	 * @return the number of lines that were skipped.
+	 * @throws InterruptedException if the thread was interrupted.
+	 */
+	private int loadBatch(final String[] lines, final int lineCount) throws InterruptedException {
+		ensureCapacity(this.positionCount + lineCount);
+		final int first = this.positionCount;
+		runInParallel(lineCount, new Chunk() {
+
+			@Override
+			public double run(final int from, final int to) {
+				for (int i = from; i < to; ++i) {
+					loadPosition(lines[i], first + i);
+				}
+				return 0;
+			}
+		});
+		// the positions of the lines that could not be read are removed
+		int skipped = 0;
+		for (int i = first; i < first + lineCount; ++i) {
+			if (this.results[i] == NO_RESULT) {
+				++skipped;
+			} else {
+				copyPosition(i, this.positionCount++);
+			}
+		}
+		return skipped;
+	}
+
+	/**
+	 * Reads a line and keeps its position at the given index.
+	 * @param line is the given line.
+	 * @param index is the index of the position.
+	 */
+	private void loadPosition(final String line, final int index) {
+		this.results[index] = NO_RESULT;
+		final int result = parseResult(line);
+		if (result == NO_RESULT) {
+			return;
+		}
+		final Board board;
+		try {
+			board = Fen.parse(line);
+		} catch (RuntimeException e) {
+			return;
+		}
+		final int offset = index * TERM_COUNT;
+		final PawnStructure pawnStructure = PawnStructure.calculate(board);
+		// the score of the terms that are not tuned: the squares of the pieces and the pawn structure
+		int fixedScore = board.getMaterialScore() + pawnStructure.getScore();
+		Arrays.fill(this.counts, offset, offset + TERM_COUNT, (short) 0);
+		for (final Piece piece : board.getWhitePieces()) {
+			if (!piece.getPieceType().isKing()) {
+				++this.counts[offset + piece.getPieceType().ordinal()];
+				fixedScore -= PieceSquareTable.getMaterial(piece.getPieceType());
+			}
+		}
+		for (final Piece piece : board.getBlackPieces()) {
+			if (!piece.getPieceType().isKing()) {
+				--this.counts[offset + piece.getPieceType().ordinal()];
+				fixedScore += PieceSquareTable.getMaterial(piece.getPieceType());
+			}
+		}
+		this.counts[offset + CHECK_TERM] = (short) (count(board.blackPlayer().isInCheck()) -
+													count(board.whitePlayer().isInCheck()));
+		this.counts[offset + CASTLED_TERM] = (short) (count(board.whitePlayer().isCastled()) -
+													  count(board.blackPlayer().isCastled()));
+		this.counts[offset + MOBILITY_TERM] = (short) EvaluationTerms.mobility(board);
+		this.counts[offset + BLOCKED_PASSED_PAWN_TERM] =
+				(short) -EvaluationTerms.blockedPassedPawns(board, pawnStructure);
+		this.fixedMiddlegames[index] = (short) TaperedScore.getMiddlegame(fixedScore);
+		this.fixedEndgames[index] = (short) TaperedScore.getEndgame(fixedScore);
+		this.phases[index] = (byte) Math.min(board.getPhase(), TaperedScore.MAX_PHASE);
+		this.results[index] = (byte) result;
+	}
+
+	/**
+	 * Returns the count of a condition.
+	 * @param condition is the given condition.
+	 * @return 1 if the condition holds, o.w 0.
+	 */
+	private static int count(final boolean condition) { return condition ? 1 : 0; }
+
+	/**
+	 * Reads the result of a line.
+	 * @param line is the given line.
+	 * @return the result in halves of a point for white, or NO_RESULT.
+	 */
+	private static int parseResult(final String line) {
+		if (line.contains("1/2-1/2") || line.contains("[0.5]")) {
+			return DRAW;
+		}
+		if (line.contains("1-0") || line.contains("[1.0]")) {
+			return WIN;
+		}
+		if (line.contains("0-1") || line.contains("[0.0]")) {
+			return LOSS;
+		}
+		return NO_RESULT;
+	}
+
+	/**
+	 * Makes room in the arrays of the positions.
+	 * @param capacity is the needed number of positions.
+	 */
+	private void ensureCapacity(final int capacity) {
+		if (capacity <= this.results.length) {
+			return;
+		}
+		final int newCapacity = Math.max(capacity, this.results.length * 2);
+		this.counts = Arrays.copyOf(this.counts, newCapacity * TERM_COUNT);
+		this.fixedMiddlegames = Arrays.copyOf(this.fixedMiddlegames, newCapacity);
+		this.fixedEndgames = Arrays.copyOf(this.fixedEndgames, newCapacity);
+		this.phases = Arrays.copyOf(this.phases, newCapacity);
+		this.results = Arrays.copyOf(this.results, newCapacity);
+	}
+
+	/**
+	 * Copies a position to another index.
+	 * @param from is the index of the position.
+	 * @param to is the new index.
+	 */
+	private void copyPosition(final int from, final int to) {
+		if (from == to) {
+			return;
+		}
+		System.arraycopy(this.counts, from * TERM_COUNT, this.counts, to * TERM_COUNT, TERM_COUNT);
+		this.fixedMiddlegames[to] = this.fixedMiddlegames[from];
+		this.fixedEndgames[to] = this.fixedEndgames[from];
+		this.phases[to] = this.phases[from];
+		this.results[to] = this.results[from];
+	}
+
+	/**
+	 * Tunes the weights: first the scaling factor of the sigmoid is fitted to the
+	 * weights of the evaluator, then every weight is moved by a step while that
+	 * lowers the error, and the step is halved when no weight moves anymore.
+	 * @return the error of the tuned weights.
+	 * @throws InterruptedException if the thread was interrupted.
+	 */
+	public double tune() throws InterruptedException {
+		return tune(null);
+	}
+
+	/**
+	 * Tunes the weights, and tells the listener about the progress.
+	 * @param tuningListener is the listener, or null.
+	 * @return the error of the tuned weights.
+	 * @throws InterruptedException if the thread was interrupted.
+	 */
+	public double tune(final TuningListener tuningListener) throws InterruptedException {
+		this.scalingFactor = findScalingFactor();
+		double bestError = error();
+		if (tuningListener != null) {
+			tuningListener.scalingFactorFound(this.scalingFactor, bestError);
+		}
+		for (int step = INITIAL_STEP; step > 0; step /= 2) {
+			boolean isImproved = true;
+			while (isImproved) {
+				isImproved = false;
+				for (int i = 0; i < this.weights.length; ++i) {
+					this.weights[i] += step;
+					double error = error();
+					if (error < bestError) {
+						bestError = error;
+						isImproved = true;
+						continue;
+					}
+					this.weights[i] -= 2 * step;
+					error = error();
+					if (error < bestError) {
+						bestError = error;
+						isImproved = true;
+						continue;
+					}
+					this.weights[i] += step;
+				}
+				if (tuningListener != null) {
+					tuningListener.passCompleted(step, bestError);
+				}
+			}
+		}
+		return bestError;
+	}
+
+	/**
+	 * Finds the scaling factor of the sigmoid with the lowest error, by narrowing
+	 * a range around the best factor.
+	 * @return the scaling factor.
+	 * @throws InterruptedException if the thread was interrupted.
+	 */
+	private double findScalingFactor() throws InterruptedException {
+		double best = this.scalingFactor;
+		double bestError = error();
+		for (double step = 0.1; step >= 0.001; step /= 10) {
+			final double center = best;
+			for (int i = -10; i <= 10; ++i) {
+				this.scalingFactor = center + i * step;
+				if (this.scalingFactor <= 0) {
+					continue;
+				}
+				final double error = error();
+				if (error < bestError) {
+					bestError = error;
+					best = this.scalingFactor;
+				}
+			}
+		}
+		this.scalingFactor = best;
+		return best;
+	}
+
+	/**
+	 * Calculates the mean squared error of the expected results of the positions
+	 * against the results of their games.
+	 * @return the error.
+	 * @throws InterruptedException if the thread was interrupted.
+	 */
+	public double error() throws InterruptedException {
+		final double sum = runInParallel(this.positionCount, new Chunk() {
+
+			@Override
+			public double run(final int from, final int to) {
+				return squaredError(from, to);
+			}
+		});
+		return this.positionCount == 0 ? 0 : sum / this.positionCount;
+	}
+
+	/**
+	 * Calculates the sum of the squared errors of a range of positions.
+	 * @param from is the first position.
+	 * @param to is the end of the range.
+	 * @return the sum of the squared errors.
+	 */
+	private double squaredError(final int from, final int to) {
+		final int[] weights = this.weights;
+		final double scale = -this.scalingFactor / 400;
+		double sum = 0;
+		for (int i = from; i < to; ++i) {
+			final int offset = i * TERM_COUNT;
+			int middlegame = this.fixedMiddlegames[i];
+			int endgame = this.fixedEndgames[i];
+			for (int term = 0; term < TERM_COUNT; ++term) {
+				final int count = this.counts[offset + term];
+				middlegame += count * weights[term];
+				endgame += count * weights[TERM_COUNT + term];
+			}
+			final int phase = this.phases[i];
+			final double score = (double) (middlegame * phase + endgame * (TaperedScore.MAX_PHASE - phase)) /
+								 TaperedScore.MAX_PHASE;
+			final double error = this.results[i] / 2.0 - 1 / (1 + Math.pow(10, scale * score));
+			sum += error * error;
+		}
+		return sum;
+	}
+
+	/**
+	 * Runs a chunk of work over a range, split between the threads.
+	 * @param count is the size of the range.
+	 * @param chunk is the work of a part of the range.
+	 * @return the sum of the results of the parts.
+	 * @throws InterruptedException if the thread was interrupted.
+	 */
+	private double runInParallel(final int count, final Chunk chunk) throws InterruptedException {
+		final List<Callable<Double>> tasks = new ArrayList<>();
+		final int chunkSize = Math.max(1, (count + this.threadCount - 1) / this.threadCount);
+		for (int start = 0; start < count; start += chunkSize) {
+			final int from = start;
+			final int to = Math.min(count, start + chunkSize);
+			tasks.add(new Callable<Double>() {
+
+				@Override
+				public Double call() {
+					return chunk.run(from, to);
+				}
+			});
+		}
+		double sum = 0;
+		try {
+			for (final Future<Double> future : this.executor.invokeAll(tasks)) {
+				sum += future.get();
+			}
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+		return sum;
+	}
+
+	/**
+	 * Writes the tuned weights, a line of a name, a middlegame and an endgame weight
+	 * for every term.
+	 * @param file is the path of the file.
+	 * @param error is the error of the weights.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public void write(final Path file, final double error) throws IOException {
+		try (final BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write("# " + this.positionCount + " positions, scaling factor " + this.scalingFactor +
+						 ", error " + error);
+			writer.newLine();
+			for (int term = 0; term < TERM_COUNT; ++term) {
+				writer.write(TERM_NAMES[term] + " " + this.weights[term] + " " + this.weights[TERM_COUNT + term]);
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Stops the threads of the tuner.
+	 */
+	public void shutdown() { this.executor.shutdown(); }
+
+	/**
+	 * This interface represents the work on a part of the positions.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private interface Chunk {
+
+		/**
+		 * Runs the work on a range.
+		 * @param from is the first index.
+		 * @param to is the end of the range.
+		 * @return the result of the range.
+		 */
+		double run(final int from, final int to);
+	}
+
+	/**
+	 * Tunes the weights from the command line:
+	 * EvaluationTuner positions-file parameter-file
+	 * @param args are the arguments.
+	 * @throws Exception if the weights cannot be tuned.
+	 */
+	public static void main(final String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("usage: EvaluationTuner <positions file> <parameter file>");
+			return;
+		}
+		final EvaluationTuner tuner = new EvaluationTuner(Runtime.getRuntime().availableProcessors());
+		try {
+			final long startTime = System.currentTimeMillis();
+			final int skipped = tuner.load(Paths.get(args[0]));
+			System.out.println(tuner.getPositionCount() + " positions, " + skipped + " skipped, " +
+					(System.currentTimeMillis() - startTime) + " ms");
+			final double error = tuner.tune(new TuningListener() {
+
+				@Override
+				public void scalingFactorFound(final double scalingFactor, final double error) {
+					System.out.println("scaling factor " + scalingFactor + ", error " + error);
+				}
+
+				@Override
+				public void passCompleted(final int step, final double error) {
+					System.out.println("step " + step + ", error " + error);
+				}
+			});
+			tuner.write(Paths.get(args[1]), error);
+			System.out.println("error " + error + ", " + (System.currentTimeMillis() - startTime) + " ms");
+		} finally {
+			tuner.shutdown();
+		}
+	}
+}
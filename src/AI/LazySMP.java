@@ -0,0 +1,187 @@
+/**
+ * This class represents the Lazy SMP algorithm, which is a multi-threaded search.
+ * The main thread and some helper threads run the same iterative deepening search,
+ * the helpers starting at different depths, and all of them share one
+ * transposition table. The helpers fill the table with results that the main
+ * thread finds instead of searching, and the main thread reports the best move.
+ */
+
+package AI;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import Board.Board;
+import Board.Move;
+
+public class LazySMP implements MoveStrategy {
+
+	public static final int DEFAULT_TABLE_SIZE = 16;
+
+	private final BoardEvaluator boardEvaluator;
+	private final TranspositionTable transpositionTable;
+	private final int depth;
+	private final int threadCount;
+
+	/**
+	 * Constructor that uses a thread for each core.
+	 * @param depth is the depth of the search algorithm.
+	 * @param transpositionTable is the table that is shared between the threads.
+	 */
+	public LazySMP(final int depth, final TranspositionTable transpositionTable) {
+		this(depth, Runtime.getRuntime().availableProcessors(), transpositionTable);
+	}
+
+	/**
+	 * Constructor
+	 * @param depth is the depth of the search algorithm.
+	 * @param threadCount is the number of threads, including the main thread.
+	 * @param transpositionTable is the table that is shared between the threads.
+	 */
+	public LazySMP(final int depth, final int threadCount, final TranspositionTable transpositionTable) {
+		this.boardEvaluator = new CachedBoardEvaluator(NeuralBoardEvaluator.create());
+		this.transpositionTable = transpositionTable;
+		this.depth = depth;
+		this.threadCount = Math.max(1, threadCount);
+	}
+
+	/**
+	 * to string function
+	 */
+	@Override
+	public String toString() { return "Lazy SMP"; }
+
+	/**
+	 * Executes the algorithm, which meaning find the best move the bot is able
+	 * to do, considering the depth limitation. If the search is cancelled, the best
+	 * move of the last depth that was fully searched is returned, and the results of
+	 * the search stay in the table.
+	 * The listener is told about every depth that the main thread completed. The
+	 * counters of the helpers are read while they search, so they are approximate
+	 * until the final result.
+	 * @return the result of the search, with the best move the algorithm found.
+	 */
+	@Override
+	public SearchResult search(final Board board, final SearchHandle searchHandle, final SearchListener searchListener) {
+		final long startTime = System.currentTimeMillis();
+		this.transpositionTable.newSearch();
+		final SearchHandle helpersHandle = new SearchHandle();
+		final List<Helper> helpers = new ArrayList<>();
+		final List<Thread> helperThreads = new ArrayList<>();
+		for (int i = 1; i < this.threadCount; ++i) {
+			final Helper helper = new Helper(board, i, helpersHandle);
+			final Thread helperThread = new Thread(helper, "Lazy SMP helper " + i);
+			helperThread.setDaemon(true);
+			helpers.add(helper);
+			helperThreads.add(helperThread);
+			helperThread.start();
+		}
+		final AlphaBetaSearcher searcher = new AlphaBetaSearcher(this.boardEvaluator, this.transpositionTable,
+				searchHandle);
+		SearchResult searchResult = createResult(board, searcher, helpers, null, 0, 0, startTime);
+		for (int currentDepth = 1; currentDepth <= Math.max(1, this.depth); ++currentDepth) {
+			final Move currentMove = searcher.searchRoot(board, currentDepth);
+			// cancelled in the middle of the depth - keep the move of the last full depth
+			if (currentMove == null) {
+				break;
+			}
+			searchResult = createResult(board, searcher, helpers, currentMove, searcher.getRootValue(),
+					currentDepth, startTime);
+			if (searchListener != null) {
+				searchListener.iterationCompleted(searchResult);
+			}
+		}
+		helpersHandle.cancel();
+		for (final Thread helperThread : helperThreads) {
+			try {
+				helperThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return createResult(board, searcher, helpers, searchResult.getBestMove(), searchResult.getScore(),
+				searchResult.getDepth(), startTime);
+	}
+
+	/**
+	 * Creates the result of the search so far.
+	 * @param board is the board of the root.
+	 * @param searcher is the searcher of the main thread.
+	 * @param helpers are the helpers.
+	 * @param bestMove is the best move.
+	 * @param score is the score of the best move.
+	 * @param completedDepth is the last depth that the main thread completed.
+	 * @param startTime is the start time of the search.
+	 * @return the result.
+	 */
+	private static SearchResult createResult(final Board board,
+											 final AlphaBetaSearcher searcher,
+											 final List<Helper> helpers,
+											 final Move bestMove,
+											 final int score,
+											 final int completedDepth,
+											 final long startTime) {
+		final SearchStatistics statistics = new SearchStatistics();
+		statistics.add(searcher.getStatistics());
+		for (final Helper helper : helpers) {
+			statistics.add(helper.getStatistics());
+		}
+		return new SearchResult.Builder()
+				.setBestMove(bestMove, score)
+				.setDepth(completedDepth)
+				.setPrincipalVariation(searcher.getPrincipalVariation(board, bestMove, completedDepth))
+				.setTimeMillis(System.currentTimeMillis() - startTime)
+				.setStatistics(statistics)
+				.build();
+	}
+
+	/**
+	 * Predicts the move that the player of the given board will play, according
+	 * to the best move of the board in the table.
+	 * @param board is the given board.
+	 * @return the predicted move, or null if the board was not searched.
+	 */
+	public Move predictMove(final Board board) {
+		return AlphaBetaSearcher.findMove(board,
+				TranspositionTable.getMove(this.transpositionTable.probe(board.getZobristHash())));
+	}
+
+	/**
+	 * A helper thread, which searches until the main thread is done.
+	 * The odd helpers start one depth deeper than the even ones, so the
+	 * threads do not all search the same depth at the same time.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private class Helper implements Runnable {
+
+		private final Board board;
+		private final int index;
+		private final AlphaBetaSearcher searcher;
+
+		/**
+		 * Constructor
+		 * @param board is the board of the root.
+		 * @param index is the index of the helper.
+		 * @param searchHandle is cancelled when the main thread is done.
+		 */
+		Helper(final Board board, final int index, final SearchHandle searchHandle) {
+			this.board = board;
+			this.index = index;
+			this.searcher = new AlphaBetaSearcher(boardEvaluator, transpositionTable, searchHandle);
+		}
+
+		/**
+		 * Returns the statistics of this helper.
+		 * @return the statistics.
+		 */
+		SearchStatistics getStatistics() { return this.searcher.getStatistics(); }
+
+		@Override
+		public void run() {
+			for (int currentDepth = 1 + this.index % 2; currentDepth <= depth + 1 && !this.searcher.isStopped(); ++currentDepth) {
+				this.searcher.searchRoot(this.board, currentDepth);
+			}
+		}
+	}
+}
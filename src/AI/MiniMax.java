@@ -5,22 +5,41 @@
 
 package AI;
 
+import java.util.Collections;
+
 import Board.Board;
 import Board.Move;
 import Player.MoveTransition;
 
 public class MiniMax implements MoveStrategy {
 
+	// the handle is checked once in this amount of nodes
+	private static final int NODES_PER_CHECK = 256;
+	
 	private final BoardEvaluator boardEvaluator;
 	private final int depth;
+	private SearchHandle searchHandle;
+	private SearchStatistics statistics;
+	private boolean isStopped;
 	
 	/**
 	 * Constructor
 	 * @param depth is the depth of the search algorithm.
 	 */
 	public MiniMax(final int depth) {
-		this.boardEvaluator = new StandardBoardEvaluator();
+		this(depth, new CachedBoardEvaluator(NeuralBoardEvaluator.create()));
+	}
+	
+	/**
+	 * Constructor
+	 * @param depth is the depth of the search algorithm.
+	 * @param boardEvaluator is the evaluator of the leaves.
+	 */
+	public MiniMax(final int depth, final BoardEvaluator boardEvaluator) {
+		this.boardEvaluator = boardEvaluator;
 		this.depth = depth;
+		this.searchHandle = new SearchHandle();
+		this.statistics = new SearchStatistics();
 	}
 	
 	/**
@@ -31,23 +50,29 @@ public class MiniMax implements MoveStrategy {
 	
 	/**
 	 * Executes the algorithm, which meaning find the best move the bot is able
-	 * to do, considering the depth limitation.
-	 * @return the best move the algorithm found.
+	 * to do, considering the depth limitation. If the search is cancelled, only the
+	 * moves that were fully searched are considered.
+	 * @return the result of the search, with the best move the algorithm found.
 	 */
 	@Override
-	public Move execute(Board board) {
-		//final long startTime = System.currentTimeMillis();
+	public SearchResult search(final Board board, final SearchHandle searchHandle, final SearchListener searchListener) {
+		final long startTime = System.currentTimeMillis();
+		this.searchHandle = searchHandle;
+		this.statistics = new SearchStatistics();
+		this.isStopped = false;
 		Move bestMove = null;
 		int highestValue = Integer.MIN_VALUE;
 		int lowestValue = Integer.MAX_VALUE;
 		int currentValue = 0;
-		//int numMoves = board.currentPlayer().getPossibleMoves().size();
 		for (final Move move : board.currentPlayer().getPossibleMoves()) {
 			final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
 			if (moveTransition.getMoveStatus().isDone()) {
-				currentValue = board.currentPlayer().getColor().isWhite() ?
-						min(moveTransition.getTransitionBoard(), depth - 1) :
-						max(moveTransition.getTransitionBoard(), depth - 1);
+				currentValue = searchMove(moveTransition, this.depth, 0,
+						SearchExtensions.getBudget(this.depth), SearchExtensions.NO_SQUARE, false);
+				// the value of this move is not complete
+				if (this.isStopped) {
+					break;
+				}
 				if (board.currentPlayer().getColor().isWhite() && currentValue >= highestValue) {
 					highestValue = currentValue;
 					bestMove = move;
@@ -57,8 +82,31 @@ public class MiniMax implements MoveStrategy {
 				}
 			}
 		}
-		//final long executionTime = System.currentTimeMillis() - startTime;
-		return bestMove;
+		final long executionTime = System.currentTimeMillis() - startTime;
+		final SearchResult searchResult = new SearchResult.Builder()
+				.setBestMove(bestMove, board.currentPlayer().getColor().isWhite() ? highestValue : lowestValue)
+				.setDepth(this.depth)
+				.setPrincipalVariation(bestMove == null ? Collections.<Move>emptyList() : Collections.singletonList(bestMove))
+				.setTimeMillis(executionTime)
+				.setStatistics(this.statistics)
+				.build();
+		if (searchListener != null && !this.isStopped) {
+			searchListener.iterationCompleted(searchResult);
+		}
+		return searchResult;
+	}
+	
+	/**
+	 * Counts a node, and checks the handle once in NODES_PER_CHECK nodes.
+	 * @param ply is the ply of the node.
+	 * @return true if the search was cancelled, o.w false.
+	 */
+	private boolean isCancelled(final int ply) {
+		this.statistics.reachedPly(ply);
+		if (++this.statistics.nodes % NODES_PER_CHECK == 0 && this.searchHandle.isCancelled()) {
+			this.isStopped = true;
+		}
+		return this.isStopped;
 	}
 	
 	/**
@@ -70,6 +118,29 @@ public class MiniMax implements MoveStrategy {
 		return board.currentPlayer().isInCheckMate() || board.currentPlayer().isInStaleMate();
 	}
 	
+	/**
+	 * Returns the value of the board after the given move. A forcing move is searched
+	 * one ply deeper, if the budget of the path allows it.
+	 * @param moveTransition is the transition of the move.
+	 * @param depth is the remaining depth of the board before the move.
+	 * @param ply is the distance of the board before the move from the root.
+	 * @param extensionsLeft is the extension budget that is left for the path.
+	 * @param recaptureSquare is the recapture square of the board before the move.
+	 * @param isSingleReply is true if the move is the only legal move.
+	 * @return the value of the board after the move.
+	 */
+	private int searchMove(final MoveTransition moveTransition, final int depth, final int ply,
+						   final int extensionsLeft, final int recaptureSquare, final boolean isSingleReply) {
+		final int extension = SearchExtensions.extend(moveTransition, recaptureSquare, isSingleReply,
+				extensionsLeft, this.statistics);
+		final Board board = moveTransition.getTransitionBoard();
+		final int childDepth = depth - 1 + extension;
+		final int childRecaptureSquare = SearchExtensions.getRecaptureSquare(moveTransition.getMove());
+		return board.currentPlayer().getColor().isWhite() ?
+				max(board, childDepth, ply + 1, extensionsLeft - extension, childRecaptureSquare) :
+				min(board, childDepth, ply + 1, extensionsLeft - extension, childRecaptureSquare);
+	}
+	
 	/**
 	 * Returns the lowest value (with my system that gives value to each chess move).
 	 * @param board is the given board.
@@ -77,13 +148,40 @@ public class MiniMax implements MoveStrategy {
 	 * @return the lowest value.
 	 */
 	public int min(final Board board, final int depth) {
+		return min(board, depth, 0, SearchExtensions.getBudget(depth), SearchExtensions.NO_SQUARE);
+	}
+	
+	/**
+	 * Returns the highest value (with my system that gives value to each chess move).
+	 * @param board is the given board.
+	 * @param depth is the deepest depth
+	 * @return the highest value.
+	 */
+	public int max(final Board board, final int depth) {
+		return max(board, depth, 0, SearchExtensions.getBudget(depth), SearchExtensions.NO_SQUARE);
+	}
+	
+	/**
+	 * Returns the lowest value (with my system that gives value to each chess move).
+	 * @param board is the given board.
+	 * @param depth is the deepest depth
+	 * @param ply is the distance of the board from the root.
+	 * @param extensionsLeft is the extension budget that is left for the path.
+	 * @param recaptureSquare is the destination of the last move if it was a capture, o.w NO_SQUARE.
+	 * @return the lowest value.
+	 */
+	private int min(final Board board, final int depth, final int ply,
+					final int extensionsLeft, final int recaptureSquare) {
 		// or game over
-		if (depth == 0 || isEndGame(board)) { return this.boardEvaluator.evaluate(board, depth); }
+		if (isCancelled(ply)) { return 0; }
+		if (depth <= 0 || isEndGame(board)) { return this.boardEvaluator.evaluate(board, Math.max(0, depth)); }
+		final boolean isSingleReply = extensionsLeft > 0 && SearchExtensions.hasSingleReply(board);
 		int lowestValue = Integer.MAX_VALUE;
 		for (final Move move : board.currentPlayer().getPossibleMoves()) {
 			final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
 			if (moveTransition.getMoveStatus().isDone()) {
-				final int currentValue = max(moveTransition.getTransitionBoard(), depth - 1);
+				final int currentValue = searchMove(moveTransition, depth, ply, extensionsLeft, recaptureSquare,
+						isSingleReply);
 				if (currentValue <= lowestValue) {
 					lowestValue = currentValue;
 				}
@@ -96,16 +194,23 @@ public class MiniMax implements MoveStrategy {
 	 * Returns the highest value (with my system that gives value to each chess move).
 	 * @param board is the given board.
 	 * @param depth is the deepest depth
+	 * @param ply is the distance of the board from the root.
+	 * @param extensionsLeft is the extension budget that is left for the path.
+	 * @param recaptureSquare is the destination of the last move if it was a capture, o.w NO_SQUARE.
 	 * @return the highest value.
 	 */
-	public int max(final Board board, final int depth) {
+	private int max(final Board board, final int depth, final int ply,
+					final int extensionsLeft, final int recaptureSquare) {
 		// or game over
-				if (depth == 0) { return this.boardEvaluator.evaluate(board, depth); }
+				if (isCancelled(ply)) { return 0; }
+				if (depth <= 0) { return this.boardEvaluator.evaluate(board, 0); }
+				final boolean isSingleReply = extensionsLeft > 0 && SearchExtensions.hasSingleReply(board);
 				int highestValue = Integer.MIN_VALUE;
 				for (final Move move : board.currentPlayer().getPossibleMoves()) {
 					final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
 					if (moveTransition.getMoveStatus().isDone()) {
-						final int currentValue = min(moveTransition.getTransitionBoard(), depth - 1);
+						final int currentValue = searchMove(moveTransition, depth, ply, extensionsLeft,
+								recaptureSquare, isSingleReply);
 						if (currentValue >= highestValue) {
 							highestValue = currentValue;
 						}
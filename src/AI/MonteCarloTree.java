@@ -0,0 +1,133 @@
+/**
+ * This class represents the tree of the Monte Carlo tree search. The nodes live
+ * in primitive arrays that are allocated once, and a node is an index into them,
+ * so the search does not create an object for every node. The children of a node
+ * are allocated together, one after the other.
+ * The tree is kept between the searches of a game: the next search starts from
+ * the node of its board, if the board is one or two plies below the old root.
+ */
+
+package AI;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import Board.Board;
+
+public class MonteCarloTree {
+
+	public static final int DEFAULT_CAPACITY = 1 << 19;
+	static final int NO_NODE = -1;
+	// the values are kept as fixed point numbers, so they can be added atomically
+	static final long VALUE_SCALE = 1 << 16;
+	// the states of the expansion of a node
+	static final int LEAF = 0;
+	static final int EXPANDING = 1;
+	static final int EXPANDED = 2;
+
+	final long[] keys;
+	final int[] moves;
+	final int[] firstChildren;
+	final int[] childCounts;
+	final AtomicIntegerArray visits;
+	// the sum of the values, in units of 1 / VALUE_SCALE
+	final AtomicLongArray valueSums;
+	final AtomicIntegerArray states;
+	private final AtomicInteger nextFree;
+	private int root;
+
+	/**
+	 * Constructor
+	 * @param capacity is the maximal number of nodes.
+	 */
+	public MonteCarloTree(final int capacity) {
+		this.keys = new long[capacity];
+		this.moves = new int[capacity];
+		this.firstChildren = new int[capacity];
+		this.childCounts = new int[capacity];
+		this.visits = new AtomicIntegerArray(capacity);
+		this.valueSums = new AtomicLongArray(capacity);
+		this.states = new AtomicIntegerArray(capacity);
+		this.nextFree = new AtomicInteger();
+		this.root = NO_NODE;
+	}
+
+	/**
+	 * Removes all the nodes.
+	 */
+	public void clear() {
+		for (int node = 0; node < Math.min(this.nextFree.get(), this.keys.length); ++node) {
+			this.visits.set(node, 0);
+			this.valueSums.set(node, 0);
+			this.states.set(node, LEAF);
+		}
+		this.nextFree.set(0);
+		this.root = NO_NODE;
+	}
+
+	/**
+	 * Returns the number of nodes in use.
+	 * @return the number of nodes.
+	 */
+	public int size() { return Math.min(this.nextFree.get(), this.keys.length); }
+
+	/**
+	 * Returns the root for a search of the given board. The node of the board is
+	 * reused with its subtree if it is the old root, a child or a grandchild of it.
+	 * O.w, or if most of the tree is in use, the tree is cleared and a new root is created.
+	 * The nodes of the old tree that are not under the new root are not used again
+	 * until the tree is cleared.
+	 * @param board is the board of the search.
+	 * @return the root.
+	 */
+	int setRoot(final Board board) {
+		final long key = board.getZobristHash();
+		int newRoot = NO_NODE;
+		if (this.root != NO_NODE && 4 * size() < 3 * this.keys.length) {
+			newRoot = findNode(this.root, key, 2);
+		}
+		if (newRoot == NO_NODE) {
+			clear();
+			newRoot = allocate(1);
+			this.keys[newRoot] = key;
+			this.moves[newRoot] = TranspositionTable.NO_MOVE;
+		}
+		this.root = newRoot;
+		return newRoot;
+	}
+
+	/**
+	 * Looks for the node of the given key under the given node.
+	 * @param node is the given node.
+	 * @param key is the given key.
+	 * @param maxPlies is the number of plies to look under the node.
+	 * @return the node, or NO_NODE if it was not found.
+	 */
+	private int findNode(final int node, final long key, final int maxPlies) {
+		if (this.keys[node] == key) { return node; }
+		if (maxPlies == 0 || this.states.get(node) != EXPANDED) { return NO_NODE; }
+		for (int child = this.firstChildren[node]; child < this.firstChildren[node] + this.childCounts[node]; ++child) {
+			final int found = findNode(child, key, maxPlies - 1);
+			if (found != NO_NODE) { return found; }
+		}
+		return NO_NODE;
+	}
+
+	/**
+	 * Allocates nodes that follow each other.
+	 * @param count is the number of nodes.
+	 * @return the first node, or NO_NODE if the tree is full.
+	 */
+	int allocate(final int count) {
+		if (this.nextFree.get() + count > this.keys.length) {
+			return NO_NODE;
+		}
+		final int first = this.nextFree.getAndAdd(count);
+		// another thread took the last nodes first
+		if (first + count > this.keys.length) {
+			return NO_NODE;
+		}
+		return first;
+	}
+}
@@ -0,0 +1,357 @@
+/**
+ * This class represents the Monte Carlo tree search, an alternative to the MiniMax
+ * algorithm. Every playout walks down the tree from the root, choosing the children
+ * by the UCT formula, which balances the children that won the most with the children
+ * that were tried the least. The board at the end of the walk is added to the tree
+ * and evaluated, and its value is added to all the boards of the walk.
+ * The values are the chances to win of the player that moved to the board, and they
+ * come from the board evaluator: the score of the evaluator is turned into a chance
+ * by a logistic curve, instead of playing the game to its end.
+ * Several threads walk the same tree. A thread that passes a board counts as a lost
+ * playout until it is done (virtual loss), so the other threads choose other paths.
+ */
+
+package AI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Board.Board;
+import Board.Move;
+import Player.MoveTransition;
+
+public class MonteCarloTreeSearch implements MoveStrategy {
+
+	// the playouts of a search, for each depth that the player chose
+	public static final int PLAYOUTS_PER_DEPTH = 1000;
+	// the weight of the trying of new children in the UCT formula
+	private static final double EXPLORATION = 1.4;
+	// the number of lost playouts that a thread adds to the boards it passes
+	private static final int VIRTUAL_LOSS = 1;
+	// the difference of scores that makes a win 10 times as likely as a loss
+	private static final double SCORE_SCALE = 400;
+	// the longest walk down the tree
+	private static final int MAX_PLIES = 256;
+	// the chances are kept away from 0 and 1 when they are turned back into scores
+	private static final double MIN_CHANCE = 0.001;
+
+	private final BoardEvaluator boardEvaluator;
+	private final MonteCarloTree tree;
+	private final int playouts;
+	private final int threadCount;
+
+	/**
+	 * Constructor that uses a thread for each core.
+	 * @param playouts is the number of playouts of a search.
+	 * @param tree is the tree that is kept from one search to the next.
+	 */
+	public MonteCarloTreeSearch(final int playouts, final MonteCarloTree tree) {
+		this(playouts, Runtime.getRuntime().availableProcessors(), tree);
+	}
+
+	/**
+	 * Constructor
+	 * @param playouts is the number of playouts of a search.
+	 * @param threadCount is the number of threads, including the main thread.
+	 * @param tree is the tree that is kept from one search to the next.
+	 */
+	public MonteCarloTreeSearch(final int playouts, final int threadCount, final MonteCarloTree tree) {
+		this.boardEvaluator = new CachedBoardEvaluator(NeuralBoardEvaluator.create());
+		this.tree = tree;
+		this.playouts = Math.max(1, playouts);
+		this.threadCount = Math.max(1, threadCount);
+	}
+
+	/**
+	 * to string function
+	 */
+	@Override
+	public String toString() { return "Monte Carlo"; }
+
+	/**
+	 * Executes the playouts and returns the move of the root that was tried the
+	 * most. If the board is in the tree of the last search, its subtree is kept.
+	 * The score of the result is the chance to win of the move turned back into a
+	 * score, and the principal variation follows the most tried children.
+	 * If the search is cancelled, the result is built from the playouts so far.
+	 * Only one search can run at a time, because the searches share the tree.
+	 * @return the result of the search.
+	 */
+	@Override
+	public SearchResult search(final Board board, final SearchHandle searchHandle, final SearchListener searchListener) {
+		final long startTime = System.currentTimeMillis();
+		final int root = this.tree.setRoot(board);
+		if (this.tree.states.get(root) == MonteCarloTree.LEAF) {
+			this.tree.states.set(root, MonteCarloTree.EXPANDING);
+			expand(board, root);
+		}
+		final AtomicInteger playoutCounter = new AtomicInteger();
+		final List<Walker> walkers = new ArrayList<>();
+		final List<Thread> walkerThreads = new ArrayList<>();
+		for (int i = 1; i < this.threadCount; ++i) {
+			final Walker walker = new Walker(board, root, playoutCounter, searchHandle);
+			final Thread walkerThread = new Thread(walker, "Monte Carlo walker " + i);
+			walkerThread.setDaemon(true);
+			walkers.add(walker);
+			walkerThreads.add(walkerThread);
+			walkerThread.start();
+		}
+		final Walker mainWalker = new Walker(board, root, playoutCounter, searchHandle);
+		mainWalker.run();
+		for (final Thread walkerThread : walkerThreads) {
+			try {
+				walkerThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		final SearchStatistics statistics = new SearchStatistics();
+		statistics.add(mainWalker.statistics);
+		for (final Walker walker : walkers) {
+			statistics.add(walker.statistics);
+		}
+		final List<Move> principalVariation = getPrincipalVariation(board, root);
+		final Move bestMove = principalVariation.isEmpty() ? null : principalVariation.get(0);
+		final SearchResult searchResult = new SearchResult.Builder()
+				.setBestMove(bestMove, bestMove == null ? 0 : getScore(board, getMostTriedChild(root)))
+				.setDepth(principalVariation.size())
+				.setPrincipalVariation(principalVariation)
+				.setTimeMillis(System.currentTimeMillis() - startTime)
+				.setStatistics(statistics)
+				.build();
+		if (searchListener != null && !searchHandle.isCancelled()) {
+			searchListener.iterationCompleted(searchResult);
+		}
+		return searchResult;
+	}
+
+	/**
+	 * Adds the children of the given node, one for each legal move of its board.
+	 * The caller must change the state of the node to EXPANDING first, so only one
+	 * thread expands it. If the tree is full, the node stays a leaf.
+	 * @param board is the board of the node.
+	 * @param node is the given node.
+	 */
+	private void expand(final Board board, final int node) {
+		final List<MoveTransition> moveTransitions = new ArrayList<>();
+		for (final Move move : board.currentPlayer().getPossibleMoves()) {
+			final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+			if (moveTransition.getMoveStatus().isDone()) {
+				moveTransitions.add(moveTransition);
+			}
+		}
+		final int first = moveTransitions.isEmpty() ? 0 : this.tree.allocate(moveTransitions.size());
+		if (first == MonteCarloTree.NO_NODE) {
+			this.tree.states.set(node, MonteCarloTree.LEAF);
+			return;
+		}
+		for (int i = 0; i < moveTransitions.size(); ++i) {
+			final MoveTransition moveTransition = moveTransitions.get(i);
+			this.tree.keys[first + i] = moveTransition.getTransitionBoard().getZobristHash();
+			this.tree.moves[first + i] = TranspositionTable.encodeMove(moveTransition.getMove());
+			this.tree.visits.set(first + i, 0);
+			this.tree.valueSums.set(first + i, 0);
+			this.tree.states.set(first + i, MonteCarloTree.LEAF);
+		}
+		this.tree.firstChildren[node] = first;
+		this.tree.childCounts[node] = moveTransitions.size();
+		// publishes the children to the other threads
+		this.tree.states.set(node, MonteCarloTree.EXPANDED);
+	}
+
+	/**
+	 * Returns the value of the board of a node, which is the chance to win of the
+	 * player that moved to the board. A mate is a sure win and a stale mate is a draw.
+	 * @param board is the board of the node.
+	 * @param node is the given node.
+	 * @return the value, between 0 and 1.
+	 */
+	private double evaluate(final Board board, final int node) {
+		if (this.tree.states.get(node) == MonteCarloTree.EXPANDED && this.tree.childCounts[node] == 0) {
+			return board.currentPlayer().isInCheck() ? 1 : 0.5;
+		}
+		final double whiteChance = 1 / (1 + Math.pow(10, -this.boardEvaluator.evaluate(board, 0) / SCORE_SCALE));
+		return board.currentPlayer().getColor().isWhite() ? 1 - whiteChance : whiteChance;
+	}
+
+	/**
+	 * Returns the child of the given node with the best UCT value. A child that was
+	 * never tried is chosen first.
+	 * @param node is the given node, which has children.
+	 * @return the child.
+	 */
+	private int selectChild(final int node) {
+		final double logVisits = Math.log(Math.max(1, this.tree.visits.get(node)));
+		final int first = this.tree.firstChildren[node];
+		int bestChild = first;
+		double bestPriority = Double.NEGATIVE_INFINITY;
+		for (int child = first; child < first + this.tree.childCounts[node]; ++child) {
+			final int childVisits = this.tree.visits.get(child);
+			if (childVisits == 0) {
+				return child;
+			}
+			final double priority = getAverageValue(child) + EXPLORATION * Math.sqrt(logVisits / childVisits);
+			if (priority > bestPriority) {
+				bestPriority = priority;
+				bestChild = child;
+			}
+		}
+		return bestChild;
+	}
+
+	/**
+	 * Returns the average value of the given node.
+	 * @param node is the given node.
+	 * @return the average value, or 0 if the node was never tried.
+	 */
+	private double getAverageValue(final int node) {
+		final int nodeVisits = this.tree.visits.get(node);
+		if (nodeVisits == 0) { return 0; }
+		return (double) this.tree.valueSums.get(node) / ((double) nodeVisits * MonteCarloTree.VALUE_SCALE);
+	}
+
+	/**
+	 * Returns the child of the given node that was tried the most.
+	 * @param node is the given node.
+	 * @return the child, or NO_NODE if the node has no tried children.
+	 */
+	private int getMostTriedChild(final int node) {
+		if (this.tree.states.get(node) != MonteCarloTree.EXPANDED) { return MonteCarloTree.NO_NODE; }
+		final int first = this.tree.firstChildren[node];
+		int bestChild = MonteCarloTree.NO_NODE;
+		int bestVisits = 0;
+		for (int child = first; child < first + this.tree.childCounts[node]; ++child) {
+			if (this.tree.visits.get(child) > bestVisits) {
+				bestVisits = this.tree.visits.get(child);
+				bestChild = child;
+			}
+		}
+		return bestChild;
+	}
+
+	/**
+	 * Returns the score of a child of the root. Positive scores are good for white.
+	 * @param board is the board of the root.
+	 * @param child is the child.
+	 * @return the score.
+	 */
+	private int getScore(final Board board, final int child) {
+		final double chance = Math.min(1 - MIN_CHANCE, Math.max(MIN_CHANCE, getAverageValue(child)));
+		final int score = (int) Math.round(SCORE_SCALE * Math.log10(chance / (1 - chance)));
+		return board.currentPlayer().getColor().isWhite() ? score : -score;
+	}
+
+	/**
+	 * Returns the moves of the most tried children, from the root down.
+	 * @param board is the board of the root.
+	 * @param root is the root.
+	 * @return the principal variation.
+	 */
+	private List<Move> getPrincipalVariation(final Board board, final int root) {
+		final List<Move> principalVariation = new ArrayList<>();
+		Board currentBoard = board;
+		int child = getMostTriedChild(root);
+		while (child != MonteCarloTree.NO_NODE && principalVariation.size() < MAX_PLIES) {
+			final Move move = AlphaBetaSearcher.findMove(currentBoard, this.tree.moves[child]);
+			if (move == null) {
+				break;
+			}
+			principalVariation.add(move);
+			currentBoard = currentBoard.currentPlayer().makeMove(move).getTransitionBoard();
+			child = getMostTriedChild(child);
+		}
+		return principalVariation;
+	}
+
+	/**
+	 * Plays the move of a child.
+	 * @param board is the board of the parent.
+	 * @param encodedMove is the encoded move of the child.
+	 * @return the board of the child.
+	 */
+	private static Board play(final Board board, final int encodedMove) {
+		for (final Move move : board.currentPlayer().getPossibleMoves()) {
+			if (TranspositionTable.encodeMove(move) == encodedMove) {
+				final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+				if (moveTransition.getMoveStatus().isDone()) {
+					return moveTransition.getTransitionBoard();
+				}
+			}
+		}
+		throw new IllegalStateException("The move of the node is not legal!");
+	}
+
+	/**
+	 * A thread of the search, which runs playouts until all the playouts of the
+	 * search are done or the search is cancelled.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private class Walker implements Runnable {
+
+		private final Board rootBoard;
+		private final int root;
+		private final AtomicInteger playoutCounter;
+		private final SearchHandle searchHandle;
+		private final SearchStatistics statistics;
+		// the nodes of the current walk
+		private final int[] path;
+
+		/**
+		 * Constructor
+		 * @param rootBoard is the board of the root.
+		 * @param root is the root.
+		 * @param playoutCounter counts the playouts of all the threads.
+		 * @param searchHandle is the handle that cancels the search.
+		 */
+		Walker(final Board rootBoard, final int root, final AtomicInteger playoutCounter,
+			   final SearchHandle searchHandle) {
+			this.rootBoard = rootBoard;
+			this.root = root;
+			this.playoutCounter = playoutCounter;
+			this.searchHandle = searchHandle;
+			this.statistics = new SearchStatistics();
+			this.path = new int[MAX_PLIES + 1];
+		}
+
+		@Override
+		public void run() {
+			while (!this.searchHandle.isCancelled() && this.playoutCounter.getAndIncrement() < playouts) {
+				playout();
+				++this.statistics.nodes;
+			}
+		}
+
+		/**
+		 * Walks down the tree to a leaf, expands and evaluates it, and adds its value
+		 * to the nodes of the walk. The value of a node is the chance of the player that
+		 * moved to it, so the value flips on the way up.
+		 */
+		private void playout() {
+			final MonteCarloTree tree = MonteCarloTreeSearch.this.tree;
+			Board board = this.rootBoard;
+			int node = this.root;
+			int length = 0;
+			tree.visits.addAndGet(node, VIRTUAL_LOSS);
+			this.path[length++] = node;
+			while (tree.states.get(node) == MonteCarloTree.EXPANDED && tree.childCounts[node] > 0 &&
+					length <= MAX_PLIES) {
+				node = selectChild(node);
+				board = play(board, tree.moves[node]);
+				tree.visits.addAndGet(node, VIRTUAL_LOSS);
+				this.path[length++] = node;
+			}
+			this.statistics.reachedPly(length - 1);
+			if (tree.states.compareAndSet(node, MonteCarloTree.LEAF, MonteCarloTree.EXPANDING)) {
+				expand(board, node);
+			}
+			double value = evaluate(board, node);
+			for (int i = length - 1; i >= 0; --i) {
+				tree.visits.addAndGet(this.path[i], 1 - VIRTUAL_LOSS);
+				tree.valueSums.addAndGet(this.path[i], Math.round(value * MonteCarloTree.VALUE_SCALE));
+				value = 1 - value;
+			}
+		}
+	}
+}
@@ -10,6 +10,30 @@ import Board.Move;
 
 public interface MoveStrategy {
 
-	Move execute(Board board);
-	
+	/**
+	 * Finds the best move of the given board.
+	 * @param board is the given board.
+	 * @return the best move.
+	 */
+	default Move execute(Board board) { return execute(board, new SearchHandle()); }
+
+	/**
+	 * Finds the best move of the given board, until the search is done or cancelled.
+	 * @param board is the given board.
+	 * @param searchHandle is the handle that cancels the search.
+	 * @return the best move that was found before the search was cancelled.
+	 */
+	default Move execute(Board board, SearchHandle searchHandle) {
+		return search(board, searchHandle, null).getBestMove();
+	}
+
+	/**
+	 * Searches the given board, until the search is done or cancelled.
+	 * @param board is the given board.
+	 * @param searchHandle is the handle that cancels the search.
+	 * @param searchListener is told about every completed depth, or null.
+	 * @return the result of the search.
+	 */
+	SearchResult search(Board board, SearchHandle searchHandle, SearchListener searchListener);
+
 }
@@ -0,0 +1,110 @@
+/**
+ * This class represents a search for the best lines of a board, and not only
+ * for the best move. Every depth is searched once for every line: the first
+ * search finds the best move, the second search finds the best move without
+ * the first one, and so on. All the searches share one transposition table,
+ * so the later searches find most of their boards in the table.
+ */
+
+package AI;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import Board.Board;
+import Board.Move;
+
+public class MultiPV implements MoveStrategy {
+
+	public static final int DEFAULT_VARIATION_COUNT = 3;
+
+	private final BoardEvaluator boardEvaluator;
+	private final TranspositionTable transpositionTable;
+	private final int depth;
+	private final int variationCount;
+
+	/**
+	 * Constructor
+	 * @param depth is the depth of the search algorithm.
+	 * @param variationCount is the number of lines.
+	 * @param transpositionTable is the table that is shared between the searches of the lines.
+	 */
+	public MultiPV(final int depth, final int variationCount, final TranspositionTable transpositionTable) {
+		this.boardEvaluator = new CachedBoardEvaluator(NeuralBoardEvaluator.create());
+		this.transpositionTable = transpositionTable;
+		this.depth = depth;
+		this.variationCount = Math.max(1, variationCount);
+	}
+
+	/**
+	 * to string function
+	 */
+	@Override
+	public String toString() { return "MultiPV"; }
+
+	/**
+	 * Searches the best lines of the given board by iterative deepening. The
+	 * result has the lines ranked from the best one, and its best move is the move
+	 * of the first line. If the search is cancelled, the lines of the last depth
+	 * that was fully searched are returned.
+	 * The listener is told about every depth that was completed.
+	 * @return the result of the search.
+	 */
+	@Override
+	public SearchResult search(final Board board, final SearchHandle searchHandle, final SearchListener searchListener) {
+		final long startTime = System.currentTimeMillis();
+		this.transpositionTable.newSearch();
+		final AlphaBetaSearcher searcher = new AlphaBetaSearcher(this.boardEvaluator, this.transpositionTable,
+				searchHandle);
+		SearchResult searchResult = new SearchResult.Builder().build();
+		for (int currentDepth = 1; currentDepth <= Math.max(1, this.depth); ++currentDepth) {
+			final List<Variation> variations = searchVariations(board, searcher, currentDepth);
+			// cancelled in the middle of the depth - keep the lines of the last full depth
+			if (variations == null || variations.isEmpty()) {
+				break;
+			}
+			final Variation bestVariation = variations.get(0);
+			searchResult = new SearchResult.Builder()
+					.setBestMove(bestVariation.getMove(), bestVariation.getScore())
+					.setDepth(currentDepth)
+					.setPrincipalVariation(bestVariation.getPrincipalVariation())
+					.setVariations(variations)
+					.setTimeMillis(System.currentTimeMillis() - startTime)
+					.setStatistics(searcher.getStatistics())
+					.build();
+			if (searchListener != null) {
+				searchListener.iterationCompleted(searchResult);
+			}
+		}
+		return searchResult;
+	}
+
+	/**
+	 * Searches the lines of one depth. Every search excludes the moves of the lines
+	 * that were already found.
+	 * @param board is the given board.
+	 * @param searcher is the searcher.
+	 * @param currentDepth is the depth.
+	 * @return the lines from the best one, or null if the search was cancelled.
+	 */
+	private List<Variation> searchVariations(final Board board, final AlphaBetaSearcher searcher, final int currentDepth) {
+		final List<Variation> variations = new ArrayList<>();
+		final Set<Move> foundMoves = new HashSet<>();
+		while (variations.size() < this.variationCount) {
+			final Move move = searcher.searchRoot(board, currentDepth, foundMoves);
+			if (searcher.isStopped()) {
+				return null;
+			}
+			// there are less legal moves than lines
+			if (move == null) {
+				break;
+			}
+			foundMoves.add(move);
+			variations.add(new Variation(searcher.getRootValue(),
+					searcher.getPrincipalVariation(board, move, currentDepth)));
+		}
+		return variations;
+	}
+}
@@ -0,0 +1,198 @@
+/**
+ * This class evaluates a board by a neural network. The first layer of the
+ * network is kept in accumulators, which are only updated by the pieces that
+ * changed since the last evaluated board: the boards of a search differ from
+ * each other by a move or two, so a leaf costs a few additions of the hidden
+ * layer instead of one for every piece.
+ * Every thread of a search has its own accumulators. A mate is not something
+ * the network knows, so the mated boards are left to the standard evaluator.
+ */
+
+package AI;
+
+import Board.Board;
+import Board.Helper;
+import Pieces.Piece;
+
+import java.util.Arrays;
+
+public class NeuralBoardEvaluator implements BoardEvaluator {
+
+	private static final int NUM_PIECE_TYPES = Piece.Type.values().length;
+	// the code of an empty square in the pieces of an accumulator
+	private static final byte EMPTY = -1;
+	// flips a position to the side of the black player
+	private static final int FLIP = 56;
+
+	private final NeuralNetwork network;
+	private final BoardEvaluator fallback;
+	private final ThreadLocal<Accumulator> accumulators;
+
+	/**
+	 * Constructor
+	 * @param network is the network that evaluates the boards.
+	 */
+	public NeuralBoardEvaluator(final NeuralNetwork network) {
+		this.network = network;
+		this.fallback = new StandardBoardEvaluator();
+		this.accumulators = new ThreadLocal<Accumulator>() {
+			@Override
+			protected Accumulator initialValue() {
+				return new Accumulator(network);
+			}
+		};
+	}
+
+	/**
+	 * Returns the evaluator of the searches: the neural evaluator if the network
+	 * of the program was loaded, o.w the standard evaluator.
+	 * @return the evaluator.
+	 */
+	public static BoardEvaluator create() {
+		final NeuralNetwork network = NeuralNetwork.get();
+		return network != null ? new NeuralBoardEvaluator(network) : new StandardBoardEvaluator();
+	}
+
+	/**
+	 * Evaluates the given board by the network.
+	 * @param board is the given board.
+	 * @return the score.
+	 */
+	@Override
+	public int evaluate(final Board board, final int depth) {
+		if (board.currentPlayer().isInCheck() && board.currentPlayer().isInCheckMate()) {
+			return this.fallback.evaluate(board, depth);
+		}
+		final Accumulator accumulator = this.accumulators.get();
+		accumulator.update(board);
+		final boolean isWhiteTurn = board.currentPlayer().getColor().isWhite();
+		final int score = isWhiteTurn ? output(accumulator.white, accumulator.black) :
+										output(accumulator.black, accumulator.white);
+		return isWhiteTurn ? score : -score;
+	}
+
+	/**
+	 * Calculates the output of the network, from the side of the player to move.
+	 * @param us is the accumulator of the player to move.
+	 * @param them is the accumulator of the opponent.
+	 * @return the score.
+	 */
+	private int output(final int[] us, final int[] them) {
+		final short[] weights = this.network.outputWeights;
+		final int hiddenSize = this.network.hiddenSize;
+		long sum = 0;
+		for (int i = 0; i < hiddenSize; ++i) {
+			sum += clip(us[i]) * weights[i];
+		}
+		for (int i = 0; i < hiddenSize; ++i) {
+			sum += clip(them[i]) * weights[hiddenSize + i];
+		}
+		sum += this.network.outputBias;
+		return (int) (sum * NeuralNetwork.SCORE_SCALE /
+					  (NeuralNetwork.ACTIVATION_SCALE * NeuralNetwork.OUTPUT_WEIGHT_SCALE));
+	}
+
+	/**
+	 * The activation of the hidden layer.
+	 * @param value is the value of a neuron.
+	 * @return the value clipped to the range of the activation.
+	 */
+	private static int clip(final int value) {
+		return Math.min(Math.max(value, 0), NeuralNetwork.ACTIVATION_SCALE);
+	}
+
+	/**
+	 * This class keeps the first layer of the network for the last evaluated board,
+	 * from the side of each player, together with the pieces of that board.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private static class Accumulator {
+
+		private final NeuralNetwork network;
+		private final int[] white;
+		private final int[] black;
+		// the piece code of every position, or EMPTY
+		private final byte[] pieces;
+		private final byte[] nextPieces;
+
+		/**
+		 * Constructor, of the accumulators of an empty board.
+		 * @param network is the network of the accumulators.
+		 */
+		private Accumulator(final NeuralNetwork network) {
+			this.network = network;
+			this.white = new int[network.hiddenSize];
+			this.black = new int[network.hiddenSize];
+			this.pieces = new byte[Helper.NUM_TILES];
+			this.nextPieces = new byte[Helper.NUM_TILES];
+			for (int i = 0; i < network.hiddenSize; ++i) {
+				this.white[i] = network.featureBiases[i];
+				this.black[i] = network.featureBiases[i];
+			}
+			Arrays.fill(this.pieces, EMPTY);
+		}
+
+		/**
+		 * Updates the accumulators to the given board, by the positions whose
+		 * pieces are not the same as in the last board.
+		 * @param board is the given board.
+		 */
+		private void update(final Board board) {
+			Arrays.fill(this.nextPieces, EMPTY);
+			for (final Piece piece : board.getWhitePieces()) {
+				this.nextPieces[piece.getPosition()] = (byte) piece.getPieceType().ordinal();
+			}
+			for (final Piece piece : board.getBlackPieces()) {
+				this.nextPieces[piece.getPosition()] = (byte) (NUM_PIECE_TYPES + piece.getPieceType().ordinal());
+			}
+			for (int position = 0; position < Helper.NUM_TILES; ++position) {
+				final byte previous = this.pieces[position];
+				final byte next = this.nextPieces[position];
+				if (previous != next) {
+					if (previous != EMPTY) {
+						apply(previous, position, -1);
+					}
+					if (next != EMPTY) {
+						apply(next, position, 1);
+					}
+					this.pieces[position] = next;
+				}
+			}
+		}
+
+		/**
+		 * Adds or removes the weights of a piece from both accumulators. The black
+		 * player sees the board flipped, with the colors swapped.
+		 * @param code is the code of the piece.
+		 * @param position is the position of the piece.
+		 * @param sign is 1 to add the piece, or -1 to remove it.
+		 */
+		private void apply(final int code, final int position, final int sign) {
+			final int blackCode = code < NUM_PIECE_TYPES ? code + NUM_PIECE_TYPES : code - NUM_PIECE_TYPES;
+			addFeature(this.white, code * Helper.NUM_TILES + position, sign);
+			addFeature(this.black, blackCode * Helper.NUM_TILES + (position ^ FLIP), sign);
+		}
+
+		/**
+		 * Adds the weights of a feature to an accumulator.
+		 * @param accumulator is the given accumulator.
+		 * @param feature is the index of the feature.
+		 * @param sign is 1 to add the weights, or -1 to subtract them.
+		 */
+		private void addFeature(final int[] accumulator, final int feature, final int sign) {
+			final short[] weights = this.network.featureWeights;
+			final int hiddenSize = this.network.hiddenSize;
+			final int offset = feature * hiddenSize;
+			if (sign > 0) {
+				for (int i = 0; i < hiddenSize; ++i) {
+					accumulator[i] += weights[offset + i];
+				}
+			} else {
+				for (int i = 0; i < hiddenSize; ++i) {
+					accumulator[i] -= weights[offset + i];
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ * This class represents the weights of a small neural network that evaluates a
+ * board, in the layout of the efficiently updatable networks. The input layer has
+ * a feature for every color, type and position of a piece, and it is seen from the
+ * side of each player, so there are two accumulators of HIDDEN size. The output is
+ * a single neuron over the clipped accumulators, the one of the player to move first.
+ * The file is big-endian: the magic number, the number of inputs and of hidden
+ * neurons, then the 16 bit feature weights (input by input), the 16 bit feature
+ * biases, the 16 bit output weights and the 32 bit output bias.
+ * The network of the program is loaded once from the network file of the working
+ * directory, if there is such a file.
+ */
+
+package AI;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class NeuralNetwork {
+
+	public static final String DEFAULT_FILE_NAME = "nnue.bin";
+	// "NNUE"
+	static final int MAGIC = 0x4E4E5545;
+	// 2 colors * 6 types * 64 positions
+	static final int INPUT_SIZE = 768;
+	// the scale of the accumulator, which is also where its neurons are clipped
+	static final int ACTIVATION_SCALE = 255;
+	// the scale of the output weights
+	static final int OUTPUT_WEIGHT_SCALE = 64;
+	// turns the output of the network into a score
+	static final int SCORE_SCALE = 400;
+
+	final int hiddenSize;
+	final short[] featureWeights;
+	final short[] featureBiases;
+	final short[] outputWeights;
+	final int outputBias;
+
+	/**
+	 * Constructor
+	 * @param hiddenSize is the number of neurons of an accumulator.
+	 * @param featureWeights are the weights of the inputs, hiddenSize for every input.
+	 * @param featureBiases are the biases of the accumulator.
+	 * @param outputWeights are the weights of the output, for both accumulators.
+	 * @param outputBias is the bias of the output.
+	 */
+	NeuralNetwork(final int hiddenSize,
+				  final short[] featureWeights,
+				  final short[] featureBiases,
+				  final short[] outputWeights,
+				  final int outputBias) {
+		this.hiddenSize = hiddenSize;
+		this.featureWeights = featureWeights;
+		this.featureBiases = featureBiases;
+		this.outputWeights = outputWeights;
+		this.outputBias = outputBias;
+	}
+
+	/**
+	 * Returns the network of the program.
+	 * @return the network, or null if there is no network file.
+	 */
+	public static NeuralNetwork get() { return Holder.NETWORK; }
+
+	/**
+	 * Loads a network from the given file.
+	 * @param path is the path of the file.
+	 * @return the network.
+	 * @throws IOException if the file can not be read or it is not a network file.
+	 */
+	public static NeuralNetwork load(final Path path) throws IOException {
+		try (final InputStream inputStream = Files.newInputStream(path);
+			 final DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream))) {
+			if (input.readInt() != MAGIC) {
+				throw new IOException("Not a network file: " + path);
+			}
+			final int inputSize = input.readInt();
+			final int hiddenSize = input.readInt();
+			if (inputSize != INPUT_SIZE || hiddenSize <= 0) {
+				throw new IOException("Unsupported network layout: " + inputSize + "x" + hiddenSize);
+			}
+			final short[] featureWeights = readShorts(input, INPUT_SIZE * hiddenSize);
+			final short[] featureBiases = readShorts(input, hiddenSize);
+			final short[] outputWeights = readShorts(input, 2 * hiddenSize);
+			final int outputBias = input.readInt();
+			return new NeuralNetwork(hiddenSize, featureWeights, featureBiases, outputWeights, outputBias);
+		}
+	}
+
+	/**
+	 * Reads 16 bit numbers from the given input.
+	 * @param input is the given input.
+	 * @param count is the amount of numbers.
+	 * @return the numbers.
+	 * @throws IOException if the input ended.
+	 */
+	private static short[] readShorts(final DataInputStream input, final int count) throws IOException {
+		final short[] values = new short[count];
+		for (int i = 0; i < count; ++i) {
+			values[i] = input.readShort();
+		}
+		return values;
+	}
+
+	/**
+	 * Loads the network of the program on the first use.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private static class Holder {
+
+		private static final NeuralNetwork NETWORK = loadDefault();
+
+		/**
+		 * Loads the network file of the working directory.
+		 * @return the network, or null if there is no such file or it can not be read.
+		 */
+		private static NeuralNetwork loadDefault() {
+			final Path path = Paths.get(DEFAULT_FILE_NAME);
+			if (!Files.isRegularFile(path)) {
+				return null;
+			}
+			try {
+				return load(path);
+			} catch (IOException e) {
+				System.err.println("Could not load the network: " + e.getMessage());
+				return null;
+			}
+		}
+	}
+}
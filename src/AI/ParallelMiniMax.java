@@ -0,0 +1,232 @@
+/**
+ * This class represents a parallel version of the MiniMax algorithm.
+ * The moves of the root are split between the cores of the computer,
+ * and all of them share the best value that was found so far, so the
+ * later moves are cut off by the values of the earlier ones.
+ */
+
+package AI;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import Board.Board;
+import Board.Move;
+import Player.MoveTransition;
+
+public class ParallelMiniMax implements MoveStrategy {
+
+	// one pool for the whole program, with a thread for each core
+	private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+	private final BoardEvaluator boardEvaluator;
+	private final int depth;
+
+	/**
+	 * Constructor
+	 * @param depth is the depth of the search algorithm.
+	 */
+	public ParallelMiniMax(final int depth) {
+		this.boardEvaluator = new CachedBoardEvaluator(NeuralBoardEvaluator.create());
+		this.depth = depth;
+	}
+
+	/**
+	 * to string function
+	 */
+	@Override
+	public String toString() { return "Parallel MiniMax"; }
+
+	/**
+	 * Executes the algorithm on all the cores, which meaning find the best move
+	 * the bot is able to do, considering the depth limitation.
+	 * If the search is cancelled, only the root moves that were fully searched are considered.
+	 * @return the result of the search, with the best move the algorithm found.
+	 */
+	@Override
+	public SearchResult search(final Board board, final SearchHandle searchHandle, final SearchListener searchListener) {
+		final long startTime = System.currentTimeMillis();
+		final List<MoveTransition> rootTransitions = new ArrayList<>();
+		for (final Move move : board.currentPlayer().getPossibleMoves()) {
+			final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+			if (moveTransition.getMoveStatus().isDone()) {
+				rootTransitions.add(moveTransition);
+			}
+		}
+		final RootBound rootBound = new RootBound(board.currentPlayer().getColor().isWhite());
+		if (!rootTransitions.isEmpty()) {
+			POOL.invoke(new RootSplitTask(rootBound, rootTransitions, searchHandle));
+		}
+		final Move bestMove = rootBound.getBestMove();
+		final SearchResult searchResult = new SearchResult.Builder()
+				.setBestMove(bestMove, rootBound.getBestValue())
+				.setDepth(this.depth)
+				.setPrincipalVariation(bestMove == null ? Collections.<Move>emptyList() : Collections.singletonList(bestMove))
+				.setTimeMillis(System.currentTimeMillis() - startTime)
+				.setStatistics(rootBound.getStatistics())
+				.build();
+		if (searchListener != null && !searchHandle.isCancelled()) {
+			searchListener.iterationCompleted(searchResult);
+		}
+		return searchResult;
+	}
+
+	/**
+	 * The best value of the root, which is shared between all the threads.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private static class RootBound {
+
+		private final boolean isMaximizing;
+		private volatile int bestValue;
+		private Move bestMove;
+		private final SearchStatistics statistics;
+
+		/**
+		 * Constructor
+		 * @param isMaximizing is true if the player of the root is white.
+		 */
+		RootBound(final boolean isMaximizing) {
+			this.isMaximizing = isMaximizing;
+			this.bestValue = isMaximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+			this.statistics = new SearchStatistics();
+		}
+
+		/**
+		 * Returns the alpha for a new search of a root move.
+		 * @return the alpha.
+		 */
+		int alpha() { return this.isMaximizing ? this.bestValue : Integer.MIN_VALUE; }
+
+		/**
+		 * Returns the beta for a new search of a root move.
+		 * @return the beta.
+		 */
+		int beta() { return this.isMaximizing ? Integer.MAX_VALUE : this.bestValue; }
+
+		/**
+		 * Updates the bound if the given move is strictly better than the best move so far.
+		 * A move that only ties with the bound was cut off, so its real value may be worse.
+		 * @param move is the given move.
+		 * @param value is the value of the move.
+		 */
+		synchronized void update(final Move move, final int value) {
+			if (this.bestMove == null ||
+					(this.isMaximizing && value > this.bestValue) ||
+					(!this.isMaximizing && value < this.bestValue)) {
+				this.bestValue = value;
+				this.bestMove = move;
+			}
+		}
+
+		/**
+		 * Returns the best move.
+		 * @return the best move.
+		 */
+		synchronized Move getBestMove() { return this.bestMove; }
+
+		/**
+		 * Returns the value of the best move.
+		 * @return the value.
+		 */
+		int getBestValue() { return this.bestValue; }
+
+		/**
+		 * Adds the statistics of a finished task to the statistics of the search.
+		 * @param taskStatistics is the statistics of the task.
+		 */
+		synchronized void addStatistics(final SearchStatistics taskStatistics) {
+			this.statistics.add(taskStatistics);
+		}
+
+		/**
+		 * Returns the statistics of all the tasks.
+		 * @return the statistics.
+		 */
+		synchronized SearchStatistics getStatistics() { return this.statistics; }
+	}
+
+	/**
+	 * A task that searches the first move of the root alone, so there is a bound
+	 * to share, and then searches all the other moves in parallel.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private class RootSplitTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final RootBound rootBound;
+		private final List<MoveTransition> rootTransitions;
+		private final SearchHandle searchHandle;
+
+		/**
+		 * Constructor
+		 * @param rootBound is the shared bound.
+		 * @param rootTransitions are the legal moves of the root.
+		 * @param searchHandle is the handle that cancels the search.
+		 */
+		RootSplitTask(final RootBound rootBound,
+					  final List<MoveTransition> rootTransitions,
+					  final SearchHandle searchHandle) {
+			this.rootBound = rootBound;
+			this.rootTransitions = rootTransitions;
+			this.searchHandle = searchHandle;
+		}
+
+		@Override
+		protected void compute() {
+			new RootMoveTask(this.rootBound, this.rootTransitions.get(0), this.searchHandle).invoke();
+			final List<RootMoveTask> tasks = new ArrayList<>();
+			for (final MoveTransition moveTransition : this.rootTransitions.subList(1, this.rootTransitions.size())) {
+				tasks.add(new RootMoveTask(this.rootBound, moveTransition, this.searchHandle));
+			}
+			invokeAll(tasks);
+		}
+	}
+
+	/**
+	 * A task that searches a single move of the root.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private class RootMoveTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final RootBound rootBound;
+		private final MoveTransition moveTransition;
+		private final SearchHandle searchHandle;
+
+		/**
+		 * Constructor
+		 * @param rootBound is the shared bound.
+		 * @param moveTransition is the transition of the root move.
+		 * @param searchHandle is the handle that cancels the search.
+		 */
+		RootMoveTask(final RootBound rootBound, final MoveTransition moveTransition, final SearchHandle searchHandle) {
+			this.rootBound = rootBound;
+			this.moveTransition = moveTransition;
+			this.searchHandle = searchHandle;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.searchHandle.isCancelled()) {
+				return;
+			}
+			final AlphaBetaSearcher searcher = new AlphaBetaSearcher(boardEvaluator, this.searchHandle);
+			final int value = searcher.searchMove(this.moveTransition, depth, 0,
+					this.rootBound.alpha(), this.rootBound.beta(),
+					SearchExtensions.getBudget(depth), SearchExtensions.NO_SQUARE, false);
+			this.rootBound.addStatistics(searcher.getStatistics());
+			if (!searcher.isStopped()) {
+				this.rootBound.update(this.moveTransition.getMove(), value);
+			}
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/**
+ * This class represents the pawn hash table, which keeps the pawn structures
+ * of the boards by their pawn hash. It is direct-mapped, and a new structure
+ * replaces the old one in its slot.
+ * The structures are immutable and a slot is a single reference, so the threads
+ * of a parallel search share the table without locks.
+ */
+
+package AI;
+
+import Board.Board;
+
+class PawnHashTable {
+
+	// an estimate of the size of a structure and its reference
+	private static final int BYTES_PER_ENTRY = 48;
+
+	private final PawnStructure[] entries;
+	private final int mask;
+
+	/**
+	 * Constructor
+	 * @param sizeInMegabytes is the size of the table.
+	 */
+	PawnHashTable(final int sizeInMegabytes) {
+		final long entryCount = Math.max(1L, (long) sizeInMegabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+		final int capacity = Integer.highestOneBit((int) Math.min(entryCount, 1 << 30));
+		this.entries = new PawnStructure[capacity];
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Returns the pawn structure of the given board, from the table if it is there.
+	 * O.w it is calculated and stored.
+	 * @param board is the given board.
+	 * @return the pawn structure.
+	 */
+	PawnStructure get(final Board board) {
+		final long key = board.getPawnZobristHash();
+		final int index = (int) key & this.mask;
+		final PawnStructure entry = this.entries[index];
+		if (entry != null && entry.getKey() == key) {
+			return entry;
+		}
+		final PawnStructure pawnStructure = PawnStructure.calculate(board);
+		this.entries[index] = pawnStructure;
+		return pawnStructure;
+	}
+}
@@ -0,0 +1,151 @@
+/**
+ * This class represents the evaluation of the pawns of a board: the passed,
+ * isolated and doubled pawns of both players, and the passed pawns themselves.
+ * It depends only on the pawns, which move much less than the other pieces,
+ * so it is kept in the pawn hash table and found there for most of the boards.
+ * The pawns are kept as bitboards, where bit i is the position i of the board.
+ */
+
+package AI;
+
+import Board.Board;
+import Board.TaperedScore;
+import Pieces.Piece;
+
+final class PawnStructure {
+
+	// the weights are packed middlegame and endgame scores
+	private static final int DOUBLED_PAWN_PENALTY = TaperedScore.of(10, 20);
+	private static final int ISOLATED_PAWN_PENALTY = TaperedScore.of(15, 20);
+	// the bonus of a passed pawn by the number of rows it advanced
+	private static final int[] PASSED_PAWN_BONUS = {
+		TaperedScore.of(0, 0), TaperedScore.of(5, 10), TaperedScore.of(10, 20), TaperedScore.of(20, 40),
+		TaperedScore.of(35, 70), TaperedScore.of(60, 120), TaperedScore.of(100, 200)
+	};
+	private static final long FIRST_FILE = 0x0101010101010101L;
+	private static final int NUM_FILES = 8;
+
+	private final long key;
+	private final int score;
+	private final long whitePassedPawns;
+	private final long blackPassedPawns;
+
+	/**
+	 * Constructor
+	 * @param key is the pawn hash of the board.
+	 * @param score is the packed score of the pawns, positive for white.
+	 * @param whitePassedPawns are the passed pawns of white.
+	 * @param blackPassedPawns are the passed pawns of black.
+	 */
+	private PawnStructure(final long key, final int score, final long whitePassedPawns, final long blackPassedPawns) {
+		this.key = key;
+		this.score = score;
+		this.whitePassedPawns = whitePassedPawns;
+		this.blackPassedPawns = blackPassedPawns;
+	}
+
+	/**
+	 * Returns the pawn hash of the board.
+	 * @return the pawn hash.
+	 */
+	long getKey() { return this.key; }
+
+	/**
+	 * Returns the score of the pawns.
+	 * @return the packed score, positive for white.
+	 */
+	int getScore() { return this.score; }
+
+	/**
+	 * Returns the passed pawns of white.
+	 * @return the bitboard of the passed pawns.
+	 */
+	long getWhitePassedPawns() { return this.whitePassedPawns; }
+
+	/**
+	 * Returns the passed pawns of black.
+	 * @return the bitboard of the passed pawns.
+	 */
+	long getBlackPassedPawns() { return this.blackPassedPawns; }
+
+	/**
+	 * Calculates the pawn structure of the given board.
+	 * @param board is the given board.
+	 * @return the pawn structure.
+	 */
+	static PawnStructure calculate(final Board board) {
+		final long whitePawns = getPawns(board.getWhitePieces());
+		final long blackPawns = getPawns(board.getBlackPieces());
+		long whitePassedPawns = 0;
+		long blackPassedPawns = 0;
+		int score = 0;
+		for (long pawns = whitePawns; pawns != 0; pawns &= pawns - 1) {
+			final int position = Long.numberOfTrailingZeros(pawns);
+			final int row = position / NUM_FILES;
+			// the rows in front of a white pawn have lower positions
+			if ((blackPawns & getSpanFiles(position) & ((1L << (row * NUM_FILES)) - 1)) == 0) {
+				whitePassedPawns |= 1L << position;
+				score += PASSED_PAWN_BONUS[Math.max(0, Math.min(6, 6 - row))];
+			}
+		}
+		for (long pawns = blackPawns; pawns != 0; pawns &= pawns - 1) {
+			final int position = Long.numberOfTrailingZeros(pawns);
+			final int row = position / NUM_FILES;
+			final long rowsInFront = row == NUM_FILES - 1 ? 0 : -(1L << ((row + 1) * NUM_FILES));
+			if ((whitePawns & getSpanFiles(position) & rowsInFront) == 0) {
+				blackPassedPawns |= 1L << position;
+				score -= PASSED_PAWN_BONUS[Math.max(0, Math.min(6, row - 1))];
+			}
+		}
+		score += scoreFiles(whitePawns) - scoreFiles(blackPawns);
+		return new PawnStructure(board.getPawnZobristHash(), score, whitePassedPawns, blackPassedPawns);
+	}
+
+	/**
+	 * Returns the penalties of the doubled and the isolated pawns of one player.
+	 * @param pawns are the pawns of the player.
+	 * @return the penalties, as a negative packed score.
+	 */
+	private static int scoreFiles(final long pawns) {
+		int score = 0;
+		for (int file = 0; file < NUM_FILES; ++file) {
+			final int count = Long.bitCount(pawns & (FIRST_FILE << file));
+			if (count == 0) {
+				continue;
+			}
+			score -= DOUBLED_PAWN_PENALTY * (count - 1);
+			if ((pawns & getSpanFiles(file) & ~(FIRST_FILE << file)) == 0) {
+				score -= ISOLATED_PAWN_PENALTY * count;
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Returns the file of the given position and the files next to it.
+	 * @param position is the given position.
+	 * @return the bitboard of the files.
+	 */
+	private static long getSpanFiles(final int position) {
+		final int file = position % NUM_FILES;
+		long files = FIRST_FILE << file;
+		if (file > 0) { files |= FIRST_FILE << (file - 1); }
+		if (file < NUM_FILES - 1) { files |= FIRST_FILE << (file + 1); }
+		return files;
+	}
+
+	/**
+	 * Returns the pawns of the given pieces.
+	 * @param pieces are the given pieces.
+	 * @return the bitboard of the pawns.
+	 */
+	private static long getPawns(final Iterable<Piece> pieces) {
+		long pawns = 0;
+		for (final Piece piece : pieces) {
+			if (piece.getPieceType() == Piece.Type.PAWN) {
+				pawns |= 1L << piece.getPosition();
+			}
+		}
+		return pawns;
+	}
+}
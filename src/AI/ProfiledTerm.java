@@ -0,0 +1,104 @@
+/**
+ * This class decorates a term of the evaluation, or a term that depends on the
+ * depth, with counters of its calls and of the time it took. The counters are LongAdders, so the threads of a parallel
+ * search add to their own cells and do not fight over a single counter.
+ */
+
+package AI;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import Board.Board;
+
+class ProfiledTerm implements EvaluationTerm, DepthEvaluationTerm {
+
+	private final String name;
+	// the profiled term, only one of them is set
+	private final EvaluationTerm term;
+	private final DepthEvaluationTerm depthTerm;
+	private final LongAdder calls;
+	private final LongAdder nanos;
+
+	/**
+	 * Constructor
+	 * @param term is the profiled term.
+	 */
+	ProfiledTerm(final EvaluationTerm term) {
+		this(term.getName(), term, null);
+	}
+
+	/**
+	 * Constructor
+	 * @param depthTerm is the profiled term that depends on the depth.
+	 */
+	ProfiledTerm(final DepthEvaluationTerm depthTerm) {
+		this(depthTerm.getName(), null, depthTerm);
+	}
+
+	/**
+	 * Constructor
+	 * @param name is the name of the profiled term.
+	 * @param term is the profiled term, or null.
+	 * @param depthTerm is the profiled term that depends on the depth, or null.
+	 */
+	private ProfiledTerm(final String name, final EvaluationTerm term, final DepthEvaluationTerm depthTerm) {
+		this.name = name;
+		this.term = term;
+		this.depthTerm = depthTerm;
+		this.calls = new LongAdder();
+		this.nanos = new LongAdder();
+	}
+
+	@Override
+	public String getName() { return this.name; }
+
+	/**
+	 * Scores the given board by the profiled term, and counts the call and its time.
+	 * @param board is the given board.
+	 * @return the score of the term.
+	 */
+	@Override
+	public int score(final Board board) {
+		final long startTime = System.nanoTime();
+		final int score = this.term.score(board);
+		this.nanos.add(System.nanoTime() - startTime);
+		this.calls.increment();
+		return score;
+	}
+
+	/**
+	 * Scores the given board by the profiled term that depends on the depth, and
+	 * counts the call and its time.
+	 * @param board is the given board.
+	 * @param depth is the depth that was left.
+	 * @return the score of the term.
+	 */
+	@Override
+	public int score(final Board board, final int depth) {
+		final long startTime = System.nanoTime();
+		final int score = this.depthTerm.score(board, depth);
+		this.nanos.add(System.nanoTime() - startTime);
+		this.calls.increment();
+		return score;
+	}
+
+	/**
+	 * Returns the number of calls.
+	 * @return the number of calls.
+	 */
+	long getCalls() { return this.calls.sum(); }
+
+	/**
+	 * Returns the time of all the calls.
+	 * @return the time in nanoseconds.
+	 */
+	long getNanos() { return this.nanos.sum(); }
+
+	/**
+	 * Resets the counters.
+	 */
+	void reset() {
+		this.calls.reset();
+		this.nanos.reset();
+	}
+}
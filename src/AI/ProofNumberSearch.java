@@ -0,0 +1,317 @@
+/**
+ * This class represents the proof number search, which looks for a forced mate
+ * of the player to move instead of the best move. Every board has a proof number,
+ * which is the number of boards that still need to be proven to prove the mate,
+ * and a disproof number, which is the same for disproving it. The search always
+ * expands the board that proves or disproves the root with the least work, so it
+ * goes deep into the forcing lines and ignores the rest of the tree.
+ * This is the depth-first version of the search: the numbers of the boards are
+ * kept in a table, so a board that is reached by different move orders is
+ * searched once, and the table has a fixed size.
+ * The mates are searched from 1 move up to the given number of moves, so the
+ * first mate that is proven is the shortest one.
+ */
+
+package AI;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import Board.Board;
+import Board.Move;
+import Board.PlayerColor;
+import Player.MoveTransition;
+
+public class ProofNumberSearch implements MoveStrategy {
+
+	public static final int DEFAULT_TABLE_SIZE = 64;
+	// the score of a mate in 0 plies, on the scale of the check mate scores of the evaluator and above them
+	public static final int MATE_SCORE = EvaluationTerms.MAX_MATE_SCORE;
+	// bigger than any real proof or disproof number
+	private static final int INFINITY = 100000000;
+	// the handle is checked once in this amount of nodes
+	private static final int NODES_PER_CHECK = 256;
+	// mixed with the key of a board, so the same board with a different number of plies left is another node
+	private static final long PLIES_KEY = 0x9E3779B97F4A7C15L;
+
+	private final int maxMoves;
+	private final ProofNumberTable table;
+
+	/**
+	 * Constructor, with a table of the default size.
+	 * @param maxMoves is the longest mate that is searched, in moves of the player to move.
+	 */
+	public ProofNumberSearch(final int maxMoves) {
+		this(maxMoves, DEFAULT_TABLE_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * @param maxMoves is the longest mate that is searched, in moves of the player to move.
+	 * @param tableSizeInMegabytes is the size of the table of the boards.
+	 */
+	public ProofNumberSearch(final int maxMoves, final int tableSizeInMegabytes) {
+		this.maxMoves = Math.max(1, maxMoves);
+		this.table = new ProofNumberTable(tableSizeInMegabytes);
+	}
+
+	/**
+	 * to string function
+	 */
+	@Override
+	public String toString() { return "Proof Number"; }
+
+	/**
+	 * Searches a mate of the player to move. The result has the mating line as its
+	 * principal variation and the number of moves of the mate as its depth.
+	 * If no mate was proven, the result has no best move and a score of 0.
+	 * The listener is told about every length of mate that was searched.
+	 * Only one search can run at a time, because the searches share the table.
+	 * @return the result of the search.
+	 */
+	@Override
+	public SearchResult search(final Board board, final SearchHandle searchHandle, final SearchListener searchListener) {
+		final long startTime = System.currentTimeMillis();
+		final Prover prover = new Prover(board.currentPlayer().getColor(), searchHandle);
+		SearchResult searchResult = new SearchResult.Builder().build();
+		for (int moves = 1; moves <= this.maxMoves; ++moves) {
+			final int plies = 2 * moves - 1;
+			prover.rootPlies = plies;
+			prover.search(board, plies, INFINITY, INFINITY);
+			if (prover.isStopped) {
+				break;
+			}
+			final boolean isProven = ProofNumberTable.getProofNumber(this.table.probe(prover.key(board, plies))) == 0;
+			final List<Move> matingLine = isProven ? prover.getMatingLine(board, plies) :
+				Collections.<Move>emptyList();
+			final int mateScore = MATE_SCORE - matingLine.size();
+			searchResult = new SearchResult.Builder()
+					.setBestMove(isProven ? matingLine.get(0) : null,
+							!isProven ? 0 : board.currentPlayer().getColor().isWhite() ? mateScore : -mateScore)
+					.setDepth(moves)
+					.setPrincipalVariation(matingLine)
+					.setTimeMillis(System.currentTimeMillis() - startTime)
+					.setStatistics(prover.statistics)
+					.build();
+			if (searchListener != null) {
+				searchListener.iterationCompleted(searchResult);
+			}
+			if (isProven) {
+				break;
+			}
+		}
+		return searchResult;
+	}
+
+	/**
+	 * This class proves the mate of one search.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private class Prover {
+
+		private final PlayerColor attacker;
+		private final SearchHandle searchHandle;
+		private final SearchStatistics statistics;
+		private boolean isStopped;
+		// the number of plies of the mate that is searched now
+		private int rootPlies;
+
+		/**
+		 * Constructor
+		 * @param attacker is the color of the player that mates.
+		 * @param searchHandle is the handle that cancels the search.
+		 */
+		Prover(final PlayerColor attacker, final SearchHandle searchHandle) {
+			this.attacker = attacker;
+			this.searchHandle = searchHandle;
+			this.statistics = new SearchStatistics();
+			this.isStopped = false;
+		}
+
+		/**
+		 * Returns the key of a board in the table.
+		 * @param board is the given board.
+		 * @param plies is the number of plies that are left.
+		 * @return the key.
+		 */
+		long key(final Board board, final int plies) {
+			return board.getZobristHash() ^ (plies * PLIES_KEY);
+		}
+
+		/**
+		 * Searches the given board until its proof number reaches the proof threshold
+		 * or its disproof number reaches the disproof threshold, and stores its numbers.
+		 * The attacker moves in the OR boards, where one proven move proves the board,
+		 * and the defender moves in the AND boards, where all the moves need to be proven.
+		 * @param board is the given board.
+		 * @param plies is the number of plies that are left for the mate.
+		 * @param proofThreshold is the proof threshold.
+		 * @param disproofThreshold is the disproof threshold.
+		 */
+		void search(final Board board, final int plies, final int proofThreshold, final int disproofThreshold) {
+			this.statistics.reachedPly(this.rootPlies - plies);
+			if (++this.statistics.nodes % NODES_PER_CHECK == 0 && this.searchHandle.isCancelled()) {
+				this.isStopped = true;
+			}
+			if (this.isStopped) { return; }
+			final long key = key(board, plies);
+			final boolean isOrNode = board.currentPlayer().getColor() == this.attacker;
+			final List<Board> children = getChildren(board);
+			if (children.isEmpty()) {
+				// the defender is mated, o.w it is a stale mate or the attacker is mated
+				final boolean isMate = !isOrNode && board.currentPlayer().isInCheckMate();
+				storeResult(key, isMate);
+				return;
+			}
+			// the defender moved last and there is no mate
+			if (plies == 0) {
+				storeResult(key, false);
+				return;
+			}
+			final long[] childKeys = new long[children.size()];
+			for (int i = 0; i < childKeys.length; ++i) {
+				childKeys[i] = key(children.get(i), plies - 1);
+			}
+			int proofNumber;
+			int disproofNumber;
+			while (true) {
+				// the numbers that select the child: the proof numbers in an OR board, the disproof numbers in an AND board
+				int best = INFINITY;
+				int secondBest = INFINITY;
+				int bestIndex = -1;
+				int sum = 0;
+				for (int i = 0; i < childKeys.length; ++i) {
+					final long entry = ProofNumberSearch.this.table.probe(childKeys[i]);
+					final int selecting = isOrNode ? ProofNumberTable.getProofNumber(entry) :
+													 ProofNumberTable.getDisproofNumber(entry);
+					final int summed = isOrNode ? ProofNumberTable.getDisproofNumber(entry) :
+												  ProofNumberTable.getProofNumber(entry);
+					sum = Math.min(INFINITY, sum + summed);
+					if (selecting < best) {
+						secondBest = best;
+						best = selecting;
+						bestIndex = i;
+					} else if (selecting < secondBest) {
+						secondBest = selecting;
+					}
+				}
+				proofNumber = isOrNode ? best : sum;
+				disproofNumber = isOrNode ? sum : best;
+				if (proofNumber >= proofThreshold || disproofNumber >= disproofThreshold || this.isStopped) {
+					break;
+				}
+				final long bestEntry = ProofNumberSearch.this.table.probe(childKeys[bestIndex]);
+				final int childProofThreshold;
+				final int childDisproofThreshold;
+				if (isOrNode) {
+					childProofThreshold = Math.min(proofThreshold, secondBest + 1);
+					childDisproofThreshold = addThreshold(disproofThreshold, disproofNumber,
+							ProofNumberTable.getDisproofNumber(bestEntry));
+				} else {
+					childProofThreshold = addThreshold(proofThreshold, proofNumber,
+							ProofNumberTable.getProofNumber(bestEntry));
+					childDisproofThreshold = Math.min(disproofThreshold, secondBest + 1);
+				}
+				search(children.get(bestIndex), plies - 1, childProofThreshold, childDisproofThreshold);
+			}
+			if (!this.isStopped) {
+				ProofNumberSearch.this.table.store(key, proofNumber, disproofNumber);
+			}
+		}
+
+		/**
+		 * Returns the threshold of a child: the threshold of the parent without the
+		 * number of the parent, plus the number of the child.
+		 * @param threshold is the threshold of the parent.
+		 * @param parentNumber is the number of the parent.
+		 * @param childNumber is the number of the child.
+		 * @return the threshold of the child.
+		 */
+		private int addThreshold(final int threshold, final int parentNumber, final int childNumber) {
+			if (threshold >= INFINITY) { return INFINITY; }
+			return Math.min(INFINITY, threshold - parentNumber + childNumber);
+		}
+
+		/**
+		 * Stores a proven or a disproven board.
+		 * @param key is the key of the board.
+		 * @param isProven is true if the board is proven, o.w false.
+		 */
+		private void storeResult(final long key, final boolean isProven) {
+			if (isProven) {
+				ProofNumberSearch.this.table.store(key, 0, INFINITY);
+			} else {
+				ProofNumberSearch.this.table.store(key, INFINITY, 0);
+			}
+		}
+
+		/**
+		 * Returns the boards after the legal moves of the given board.
+		 * @param board is the given board.
+		 * @return the boards.
+		 */
+		private List<Board> getChildren(final Board board) {
+			final List<Board> children = new ArrayList<>();
+			for (final Move move : board.currentPlayer().getPossibleMoves()) {
+				final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+				if (moveTransition.getMoveStatus().isDone()) {
+					children.add(moveTransition.getTransitionBoard());
+				}
+			}
+			return children;
+		}
+
+		/**
+		 * Returns the moves of a proven mate from the given board. The attacker plays
+		 * a proven move, and the defender plays one of its moves, which are all proven.
+		 * A board that was replaced in the table is proven again.
+		 * @param board is the given proven board.
+		 * @param plies is the number of plies that are left for the mate.
+		 * @return the mating line.
+		 */
+		List<Move> getMatingLine(final Board board, final int plies) {
+			final List<Move> matingLine = new ArrayList<>();
+			Board currentBoard = board;
+			for (int currentPlies = plies; currentPlies > 0; --currentPlies) {
+				Move nextMove = null;
+				Board nextBoard = null;
+				for (final Move move : currentBoard.currentPlayer().getPossibleMoves()) {
+					final MoveTransition moveTransition = currentBoard.currentPlayer().makeMove(move);
+					if (!moveTransition.getMoveStatus().isDone()) {
+						continue;
+					}
+					final Board child = moveTransition.getTransitionBoard();
+					if (isProven(child, currentPlies - 1)) {
+						nextMove = move;
+						nextBoard = child;
+						break;
+					}
+				}
+				// the defender is mated
+				if (nextMove == null) {
+					break;
+				}
+				matingLine.add(nextMove);
+				currentBoard = nextBoard;
+			}
+			return matingLine;
+		}
+
+		/**
+		 * Checks if the given board is proven, and searches it again if it is not in the table.
+		 * @param board is the given board.
+		 * @param plies is the number of plies that are left for the mate.
+		 * @return true if the board is proven, o.w false.
+		 */
+		private boolean isProven(final Board board, final int plies) {
+			long entry = ProofNumberSearch.this.table.probe(key(board, plies));
+			if (ProofNumberTable.getProofNumber(entry) != 0 && ProofNumberTable.getDisproofNumber(entry) != 0) {
+				search(board, plies, INFINITY, INFINITY);
+				entry = ProofNumberSearch.this.table.probe(key(board, plies));
+			}
+			return ProofNumberTable.getProofNumber(entry) == 0;
+		}
+	}
+}
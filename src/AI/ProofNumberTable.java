@@ -0,0 +1,73 @@
+/**
+ * This class represents the node store of the proof number search. It keeps the
+ * proof number and the disproof number of every searched board, in primitive
+ * arrays of a fixed size, so the search never uses more memory than it was given.
+ * A board that reaches the slot of another board replaces it, and a board that
+ * is not in the table gets proof and disproof numbers of 1.
+ */
+
+package AI;
+
+class ProofNumberTable {
+
+	private static final int ENTRY_SIZE = 16;
+	private static final long MISSING_ENTRY = 1L << 32 | 1L;
+
+	private final long[] keys;
+	private final int[] proofNumbers;
+	private final int[] disproofNumbers;
+	private final int mask;
+
+	/**
+	 * Constructor
+	 * @param sizeInMegabytes is the size of the table.
+	 */
+	ProofNumberTable(final int sizeInMegabytes) {
+		final long entries = Math.max(1L, (long) sizeInMegabytes * 1024 * 1024 / ENTRY_SIZE);
+		final int capacity = Integer.highestOneBit((int) Math.min(entries, 1 << 30));
+		this.keys = new long[capacity];
+		this.proofNumbers = new int[capacity];
+		this.disproofNumbers = new int[capacity];
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Returns the numbers of the given key.
+	 * @param key is the given key.
+	 * @return the proof number in the high 32 bits and the disproof number in the low 32 bits.
+	 */
+	long probe(final long key) {
+		final int index = (int) (key ^ (key >>> 32)) & this.mask;
+		if (this.keys[index] != key) {
+			return MISSING_ENTRY;
+		}
+		return (long) this.proofNumbers[index] << 32 | this.disproofNumbers[index];
+	}
+
+	/**
+	 * Stores the numbers of the given key.
+	 * @param key is the given key.
+	 * @param proofNumber is the proof number.
+	 * @param disproofNumber is the disproof number.
+	 */
+	void store(final long key, final int proofNumber, final int disproofNumber) {
+		final int index = (int) (key ^ (key >>> 32)) & this.mask;
+		this.keys[index] = key;
+		this.proofNumbers[index] = proofNumber;
+		this.disproofNumbers[index] = disproofNumber;
+	}
+
+	/**
+	 * Returns the proof number of an entry.
+	 * @param entry is the given entry.
+	 * @return the proof number.
+	 */
+	static int getProofNumber(final long entry) { return (int) (entry >>> 32); }
+
+	/**
+	 * Returns the disproof number of an entry.
+	 * @param entry is the given entry.
+	 * @return the disproof number.
+	 */
+	static int getDisproofNumber(final long entry) { return (int) entry; }
+}
@@ -0,0 +1,93 @@
+/**
+ * This class decides which moves are searched one ply deeper than the others.
+ * A fixed depth search stops in the middle of forcing lines: a check on the last
+ * ply is never answered, and an exchange is stopped after the first capture.
+ * So a move that gives check, the only legal move of a board and a recapture on
+ * the square of the last capture are extended by one ply. Every path of the search
+ * has a budget of extensions, so the forcing lines can not make it endless.
+ */
+
+package AI;
+
+import Board.Board;
+import Board.Move;
+import Player.MoveTransition;
+
+final class SearchExtensions {
+
+	// the recapture square of a board whose last move was not a capture
+	static final int NO_SQUARE = -1;
+
+	/**
+	 * Constructor - that can not be used.
+	 */
+	private SearchExtensions() {
+		throw new RuntimeException("Cant initiate this object!");
+	}
+
+	/**
+	 * Returns the extension budget of the paths of a search. A path is never
+	 * longer than twice the depth of the search.
+	 * @param depth is the depth of the search.
+	 * @return the budget.
+	 */
+	static int getBudget(final int depth) { return Math.max(0, depth); }
+
+	/**
+	 * Returns the recapture square of the board after the given move.
+	 * @param move is the given move.
+	 * @return the destination of the move if it is a capture, o.w NO_SQUARE.
+	 */
+	static int getRecaptureSquare(final Move move) {
+		return move.isAttack() ? move.getDestinationPosition() : NO_SQUARE;
+	}
+
+	/**
+	 * Checks if the player of the given board is in check and has a single legal move.
+	 * Only the boards in check are checked, because counting the legal moves needs
+	 * all of them to be made.
+	 * @param board is the given board.
+	 * @return true if the board has a single reply, o.w false.
+	 */
+	static boolean hasSingleReply(final Board board) {
+		if (!board.currentPlayer().isInCheck()) { return false; }
+		int legalMoves = 0;
+		for (final Move move : board.currentPlayer().getPossibleMoves()) {
+			if (board.currentPlayer().makeMove(move).getMoveStatus().isDone() && ++legalMoves > 1) {
+				return false;
+			}
+		}
+		return legalMoves == 1;
+	}
+
+	/**
+	 * Returns the extension of a move, and counts it in the statistics.
+	 * @param moveTransition is the transition of the move.
+	 * @param recaptureSquare is the recapture square of the board before the move.
+	 * @param isSingleReply is true if the move is the only legal move.
+	 * @param extensionsLeft is the budget that is left for the path.
+	 * @param statistics is the statistics of the search.
+	 * @return 1 if the move is extended, o.w 0.
+	 */
+	static int extend(final MoveTransition moveTransition,
+					  final int recaptureSquare,
+					  final boolean isSingleReply,
+					  final int extensionsLeft,
+					  final SearchStatistics statistics) {
+		if (extensionsLeft <= 0) { return 0; }
+		if (moveTransition.getTransitionBoard().currentPlayer().isInCheck()) {
+			++statistics.checkExtensions;
+			return 1;
+		}
+		if (isSingleReply) {
+			++statistics.singleReplyExtensions;
+			return 1;
+		}
+		final Move move = moveTransition.getMove();
+		if (recaptureSquare != NO_SQUARE && move.isAttack() && move.getDestinationPosition() == recaptureSquare) {
+			++statistics.recaptureExtensions;
+			return 1;
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,69 @@
+/**
+ * This class represents a handle of a running search, which allows another
+ * thread to cancel it. The search checks the handle every few nodes, and
+ * returns the best move of the last depth that it searched completely.
+ * A handle may also cancel the search by itself, when a deadline passes or when
+ * the searches that share it reported enough nodes.
+ */
+
+package AI;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SearchHandle {
+
+	public static final long NO_LIMIT = Long.MAX_VALUE;
+
+	private volatile boolean cancelled;
+	private volatile long deadline;
+	private volatile long nodeLimit;
+	private final AtomicLong nodes;
+
+	/**
+	 * Constructor
+	 */
+	public SearchHandle() {
+		this.cancelled = false;
+		this.deadline = NO_LIMIT;
+		this.nodeLimit = NO_LIMIT;
+		this.nodes = new AtomicLong();
+	}
+
+	/**
+	 * Cancels the search.
+	 */
+	public void cancel() { this.cancelled = true; }
+
+	/**
+	 * Sets the time when the search is cancelled.
+	 * @param deadline is the time in milliseconds, as System.currentTimeMillis, or NO_LIMIT.
+	 */
+	public void setDeadline(final long deadline) { this.deadline = deadline; }
+
+	/**
+	 * Sets the number of nodes after which the search is cancelled.
+	 * @param nodeLimit is the number of nodes, or NO_LIMIT.
+	 */
+	public void setNodeLimit(final long nodeLimit) { this.nodeLimit = nodeLimit; }
+
+	/**
+	 * Adds the nodes that a search visited, and cancels the search at the node limit.
+	 * @param count is the number of nodes.
+	 */
+	void addNodes(final int count) {
+		if (this.nodes.addAndGet(count) >= this.nodeLimit) {
+			this.cancelled = true;
+		}
+	}
+
+	/**
+	 * Returns true if the search was cancelled, o.w false.
+	 * @return true or false.
+	 */
+	public boolean isCancelled() {
+		if (!this.cancelled && this.deadline != NO_LIMIT && System.currentTimeMillis() >= this.deadline) {
+			this.cancelled = true;
+		}
+		return this.cancelled;
+	}
+}
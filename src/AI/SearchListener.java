@@ -0,0 +1,16 @@
+/**
+ * This interface is the interface of anything that wants to know
+ * how a search is going, like a window or a log.
+ */
+
+package AI;
+
+public interface SearchListener {
+
+	/**
+	 * Called after every depth that the search completed.
+	 * @param searchResult is the result of the search so far.
+	 */
+	void iterationCompleted(SearchResult searchResult);
+
+}
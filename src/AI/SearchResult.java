@@ -0,0 +1,287 @@
+/**
+ * This class represents the result of a search: the best move, its score,
+ * the principal variation and the numbers that describe how the search went.
+ * The numbers are used to tune the engine and to compare builds.
+ */
+
+package AI;
+
+import java.util.Collections;
+import java.util.List;
+
+import Board.Move;
+
+public class SearchResult {
+
+	private final Move bestMove;
+	private final int score;
+	private final int depth;
+	private final int selectiveDepth;
+	private final List<Move> principalVariation;
+	private final List<Variation> variations;
+	private final long nodes;
+	private final long timeMillis;
+	private final long betaCutoffs;
+	private final long firstMoveCutoffs;
+	private final long hashHits;
+	private final long prunedMoves;
+	private final long checkExtensions;
+	private final long singleReplyExtensions;
+	private final long recaptureExtensions;
+
+	/**
+	 * Constructor, using a builder.
+	 * @param builder is the given builder.
+	 */
+	private SearchResult(final Builder builder) {
+		this.bestMove = builder.bestMove;
+		this.score = builder.score;
+		this.depth = builder.depth;
+		this.selectiveDepth = builder.selectiveDepth;
+		this.principalVariation = Collections.unmodifiableList(builder.principalVariation);
+		this.variations = Collections.unmodifiableList(builder.variations);
+		this.nodes = builder.nodes;
+		this.timeMillis = builder.timeMillis;
+		this.betaCutoffs = builder.betaCutoffs;
+		this.firstMoveCutoffs = builder.firstMoveCutoffs;
+		this.hashHits = builder.hashHits;
+		this.prunedMoves = builder.prunedMoves;
+		this.checkExtensions = builder.checkExtensions;
+		this.singleReplyExtensions = builder.singleReplyExtensions;
+		this.recaptureExtensions = builder.recaptureExtensions;
+	}
+
+	/**
+	 * Returns the best move.
+	 * @return the best move, or null if no move was found.
+	 */
+	public Move getBestMove() { return this.bestMove; }
+
+	/**
+	 * Returns the score of the best move. Positive scores are good for white.
+	 * @return the score.
+	 */
+	public int getScore() { return this.score; }
+
+	/**
+	 * Returns the depth that was searched completely.
+	 * @return the depth.
+	 */
+	public int getDepth() { return this.depth; }
+
+	/**
+	 * Returns the deepest ply that the search reached.
+	 * @return the selective depth.
+	 */
+	public int getSelectiveDepth() { return this.selectiveDepth; }
+
+	/**
+	 * Returns the moves that the search expects both players to play, starting with the best move.
+	 * @return the principal variation.
+	 */
+	public List<Move> getPrincipalVariation() { return this.principalVariation; }
+
+	/**
+	 * Returns the ranked lines of a search that looks for more than one line,
+	 * starting with the best one.
+	 * @return the lines, or an empty list if the search looked only for the best move.
+	 */
+	public List<Variation> getVariations() { return this.variations; }
+
+	/**
+	 * Returns the number of searched nodes.
+	 * @return the number of nodes.
+	 */
+	public long getNodes() { return this.nodes; }
+
+	/**
+	 * Returns the time of the search.
+	 * @return the time in milliseconds.
+	 */
+	public long getTimeMillis() { return this.timeMillis; }
+
+	/**
+	 * Returns the number of nodes that were searched in a second.
+	 * @return the nodes per second.
+	 */
+	public long getNodesPerSecond() { return this.nodes * 1000 / Math.max(1, this.timeMillis); }
+
+	/**
+	 * Returns the number of nodes that were cut off by alpha-beta.
+	 * @return the number of cutoffs.
+	 */
+	public long getBetaCutoffs() { return this.betaCutoffs; }
+
+	/**
+	 * Returns the number of cutoffs that were caused by the first searched move.
+	 * A good move ordering makes this close to the number of cutoffs.
+	 * @return the number of first move cutoffs.
+	 */
+	public long getFirstMoveCutoffs() { return this.firstMoveCutoffs; }
+
+	/**
+	 * Returns the number of boards that were found in the transposition table.
+	 * @return the number of hash hits.
+	 */
+	public long getHashHits() { return this.hashHits; }
+
+	/**
+	 * Returns the number of moves that were not searched because of cutoffs.
+	 * @return the number of pruned moves.
+	 */
+	public long getPrunedMoves() { return this.prunedMoves; }
+
+	/**
+	 * Returns the number of moves that were extended because they gave check.
+	 * @return the number of check extensions.
+	 */
+	public long getCheckExtensions() { return this.checkExtensions; }
+
+	/**
+	 * Returns the number of moves that were extended because they were the only legal move.
+	 * @return the number of single reply extensions.
+	 */
+	public long getSingleReplyExtensions() { return this.singleReplyExtensions; }
+
+	/**
+	 * Returns the number of moves that were extended because they recaptured.
+	 * @return the number of recapture extensions.
+	 */
+	public long getRecaptureExtensions() { return this.recaptureExtensions; }
+
+	/**
+	 * to string function.
+	 */
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("depth ").append(this.depth)
+			   .append(" seldepth ").append(this.selectiveDepth)
+			   .append(" score ").append(this.score)
+			   .append(" nodes ").append(this.nodes)
+			   .append(" nps ").append(getNodesPerSecond())
+			   .append(" time ").append(this.timeMillis)
+			   .append(" cutoffs ").append(this.betaCutoffs)
+			   .append(" first ").append(this.firstMoveCutoffs)
+			   .append(" hashhits ").append(this.hashHits)
+			   .append(" pruned ").append(this.prunedMoves)
+			   .append(" extensions ").append(this.checkExtensions)
+			   .append('/').append(this.singleReplyExtensions)
+			   .append('/').append(this.recaptureExtensions)
+			   .append(" pv");
+		for (final Move move : this.principalVariation) {
+			builder.append(' ').append(move);
+		}
+		for (int i = 1; i < this.variations.size(); ++i) {
+			builder.append("\nmultipv ").append(i + 1).append(' ').append(this.variations.get(i));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Inner class - implements the Builder design pattern.
+	 * @author Omer Shitrit
+	 *
+	 */
+	public static class Builder {
+		Move bestMove;
+		int score;
+		int depth;
+		int selectiveDepth;
+		List<Move> principalVariation;
+		List<Variation> variations;
+		long nodes;
+		long timeMillis;
+		long betaCutoffs;
+		long firstMoveCutoffs;
+		long hashHits;
+		long prunedMoves;
+		long checkExtensions;
+		long singleReplyExtensions;
+		long recaptureExtensions;
+
+		/**
+		 * Constructor.
+		 */
+		public Builder() {
+			this.principalVariation = Collections.emptyList();
+			this.variations = Collections.emptyList();
+		}
+
+		/**
+		 * Sets the best move and its score.
+		 * @param move is the best move.
+		 * @param score is the score of the move.
+		 * @return the builder itself.
+		 */
+		public Builder setBestMove(final Move move, final int score) {
+			this.bestMove = move;
+			this.score = score;
+			return this;
+		}
+
+		/**
+		 * Sets the depth.
+		 * @param depth is the depth that was searched completely.
+		 * @return the builder itself.
+		 */
+		public Builder setDepth(final int depth) {
+			this.depth = depth;
+			return this;
+		}
+
+		/**
+		 * Sets the principal variation.
+		 * @param principalVariation is the principal variation.
+		 * @return the builder itself.
+		 */
+		public Builder setPrincipalVariation(final List<Move> principalVariation) {
+			this.principalVariation = principalVariation;
+			return this;
+		}
+
+		/**
+		 * Sets the ranked lines of the search, starting with the best one.
+		 * @param variations are the lines.
+		 * @return the builder itself.
+		 */
+		public Builder setVariations(final List<Variation> variations) {
+			this.variations = variations;
+			return this;
+		}
+
+		/**
+		 * Sets the time of the search.
+		 * @param timeMillis is the time in milliseconds.
+		 * @return the builder itself.
+		 */
+		public Builder setTimeMillis(final long timeMillis) {
+			this.timeMillis = timeMillis;
+			return this;
+		}
+
+		/**
+		 * Sets the counters of the search.
+		 * @param statistics is the statistics of the search.
+		 * @return the builder itself.
+		 */
+		Builder setStatistics(final SearchStatistics statistics) {
+			this.nodes = statistics.nodes;
+			this.selectiveDepth = statistics.selectiveDepth;
+			this.betaCutoffs = statistics.betaCutoffs;
+			this.firstMoveCutoffs = statistics.firstMoveCutoffs;
+			this.hashHits = statistics.hashHits;
+			this.prunedMoves = statistics.prunedMoves;
+			this.checkExtensions = statistics.checkExtensions;
+			this.singleReplyExtensions = statistics.singleReplyExtensions;
+			this.recaptureExtensions = statistics.recaptureExtensions;
+			return this;
+		}
+
+		/**
+		 * Builds the result and returns it.
+		 * @return the result.
+		 */
+		public SearchResult build() { return new SearchResult(this); }
+	}
+}
@@ -0,0 +1,59 @@
+/**
+ * This class counts what happens during a search. Every search thread
+ * has its own statistics, so the counters do not need to be synchronized,
+ * and the statistics of the threads are added together for the result.
+ */
+
+package AI;
+
+class SearchStatistics {
+
+	long nodes;
+	int selectiveDepth;
+	long betaCutoffs;
+	long firstMoveCutoffs;
+	long hashHits;
+	long prunedMoves;
+	long checkExtensions;
+	long singleReplyExtensions;
+	long recaptureExtensions;
+
+	/**
+	 * Updates the selective depth, which is the deepest ply that the search reached.
+	 * @param ply is the ply of the current node.
+	 */
+	void reachedPly(final int ply) {
+		if (ply > this.selectiveDepth) {
+			this.selectiveDepth = ply;
+		}
+	}
+
+	/**
+	 * Counts a cutoff of a node.
+	 * @param moveNumber is the number of the move that caused the cutoff, starting from 1.
+	 * @param skippedMoves is the number of moves that were not searched because of the cutoff.
+	 */
+	void cutoff(final int moveNumber, final int skippedMoves) {
+		++this.betaCutoffs;
+		if (moveNumber == 1) {
+			++this.firstMoveCutoffs;
+		}
+		this.prunedMoves += skippedMoves;
+	}
+
+	/**
+	 * Adds the given statistics to these statistics.
+	 * @param other is the given statistics.
+	 */
+	void add(final SearchStatistics other) {
+		this.nodes += other.nodes;
+		this.selectiveDepth = Math.max(this.selectiveDepth, other.selectiveDepth);
+		this.betaCutoffs += other.betaCutoffs;
+		this.firstMoveCutoffs += other.firstMoveCutoffs;
+		this.hashHits += other.hashHits;
+		this.prunedMoves += other.prunedMoves;
+		this.checkExtensions += other.checkExtensions;
+		this.singleReplyExtensions += other.singleReplyExtensions;
+		this.recaptureExtensions += other.recaptureExtensions;
+	}
+}
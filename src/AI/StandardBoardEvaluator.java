@@ -3,104 +3,244 @@
  * By using the BoardEvaluator interface, we are able to add more types
  * of boards, which means this program is close to changes and open for
  * expends.
+ * The evaluation is the sum of registered terms. The terms that are added as
+ * lazy are skipped when the other terms are far outside the window, and every
+ * term can be profiled to find out what it costs.
  */
 
 package AI;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import Board.Board;
-import Pieces.Piece;
-import Player.Player;
+import Board.TaperedScore;
 
 public class StandardBoardEvaluator implements BoardEvaluator {
 	
-	private static final int CHECK_BONUS = 50;
-	private static final int CHECK_MATE_BONUS = 10000;
-	private static final int DEPTH_BONUES = 100;
-	private static final int CASTLED_BONUS = 60;
-
+	public static final int DEFAULT_PAWN_TABLE_SIZE = 1;
+	// more than the mobility, check and castling terms add in practice
+	private static final int LAZY_MARGIN = 300;
+	
+	private final EvaluationTerm[] terms;
+	private final EvaluationTerm[] lazyTerms;
+	private final DepthEvaluationTerm[] depthTerms;
+	private final List<ProfiledTerm> profiledTerms;
+	
 	/**
-	 * Evaluates the given board.
-	 * @param board is the given board.
-	 * @return the score.
+	 * Constructor, with the standard terms and a pawn hash table of the default size.
 	 */
-	@Override
-	public int evaluate(final Board board, final int depth) {
-		
-		return scorePlayer(board, board.whitePlayer(), depth) -
-			   scorePlayer(board, board.blackPlayer(), depth);
+	public StandardBoardEvaluator() {
+		this(DEFAULT_PAWN_TABLE_SIZE);
 	}
-
+	
 	/**
-	 * Calculates the score, considering multiple situations.
-	 * @param board is the given board.
-	 * @param player is the current player.
-	 * @param depth is the deepest depth.
-	 * @return the score.
+	 * Constructor, with the standard terms.
+	 * @param pawnTableSizeInMegabytes is the size of the pawn hash table.
 	 */
-	private int scorePlayer(final Board board, final Player player, final int depth) {
-		return pieceValue(player) +
-			   mobility(player) +
-			   check(player) +
-			   checkmate(player, depth) +
-			   castled(player);
+	public StandardBoardEvaluator(final int pawnTableSizeInMegabytes) {
+		this(new Builder().addStandardTerms(pawnTableSizeInMegabytes));
 	}
 	
 	/**
-	 * Returns the score for castled situation.
-	 * @param player is the current player.
-	 * @return the score.
+	 * Constructor, from the builder.
+	 * @param builder is the given builder.
+	 */
+	private StandardBoardEvaluator(final Builder builder) {
+		this.profiledTerms = new ArrayList<>();
+		this.terms = createTerms(builder.terms, builder.isProfiled);
+		this.lazyTerms = createTerms(builder.lazyTerms, builder.isProfiled);
+		this.depthTerms = new DepthEvaluationTerm[builder.depthTerms.size()];
+		for (int i = 0; i < this.depthTerms.length; ++i) {
+			if (builder.isProfiled) {
+				final ProfiledTerm profiledTerm = new ProfiledTerm(builder.depthTerms.get(i));
+				this.profiledTerms.add(profiledTerm);
+				this.depthTerms[i] = profiledTerm;
+			} else {
+				this.depthTerms[i] = builder.depthTerms.get(i);
+			}
+		}
+	}
+	
+	/**
+	 * Creates the terms of the evaluator, which are profiled in the profiling mode.
+	 * @param terms are the registered terms.
+	 * @param isProfiled is true if the terms are profiled.
+	 * @return the terms.
 	 */
-	private static int castled(final Player player) {
-		return player.isCastled() ? CASTLED_BONUS : 0;
+	private EvaluationTerm[] createTerms(final List<EvaluationTerm> terms, final boolean isProfiled) {
+		final EvaluationTerm[] createdTerms = new EvaluationTerm[terms.size()];
+		for (int i = 0; i < createdTerms.length; ++i) {
+			if (isProfiled) {
+				final ProfiledTerm profiledTerm = new ProfiledTerm(terms.get(i));
+				this.profiledTerms.add(profiledTerm);
+				createdTerms[i] = profiledTerm;
+			} else {
+				createdTerms[i] = terms.get(i);
+			}
+		}
+		return createdTerms;
 	}
 
 	/**
-	 * Returns the score for check mate situation.
-	 * @param player is the current player.
-	 * @param depth is the deepest depth.
+	 * Evaluates the given board. The terms are added as packed middlegame and
+	 * endgame scores, and the sum is blended by the phase of the board.
+	 * @param board is the given board.
 	 * @return the score.
 	 */
-	private int checkmate(final Player player, final int depth) {
-		return player.getOpponent().isInCheckMate() ? CHECK_MATE_BONUS * depthBonues(depth) : 0;
+	@Override
+	public int evaluate(final Board board, final int depth) {
+		return evaluate(board, depth, Integer.MIN_VALUE, Integer.MAX_VALUE);
 	}
 
 	/**
-	 * Returns the bonus for the depth.
-	 * @param depth is the depth
-	 * @return the bonus
+	 * Evaluates the given board lazily: the terms are added first, and if their
+	 * score is farther than LAZY_MARGIN outside the window, the lazy terms are
+	 * skipped and a bound of the full score is returned: the score plus the margin
+	 * below the window, or minus the margin above it. A board in check is always
+	 * evaluated fully, because a mate is worth far more than the margin.
+	 * @param board is the given board.
+	 * @return the score, which is exact if it is inside the window, o.w a bound outside the window.
 	 */
-	private static int depthBonues(int depth) { return depth == 0 ? 1 : DEPTH_BONUES * depth; }
-	
+	@Override
+	public int evaluate(final Board board, final int depth, final int alpha, final int beta) {
+		int taperedScore = 0;
+		for (final EvaluationTerm term : this.terms) {
+			taperedScore += term.score(board);
+		}
+		if (!board.currentPlayer().isInCheck()) {
+			final int lazyScore = TaperedScore.taper(taperedScore, board.getPhase());
+			// the lazy terms may still move the score by the margin, so the bound is widened by it
+			if (lazyScore + LAZY_MARGIN <= alpha) {
+				return lazyScore + LAZY_MARGIN;
+			}
+			if (lazyScore - LAZY_MARGIN >= beta) {
+				return lazyScore - LAZY_MARGIN;
+			}
+		}
+		for (final EvaluationTerm term : this.lazyTerms) {
+			taperedScore += term.score(board);
+		}
+		int score = TaperedScore.taper(taperedScore, board.getPhase());
+		for (final DepthEvaluationTerm term : this.depthTerms) {
+			score += term.score(board, depth);
+		}
+		return score;
+	}
+
 	/**
-	 * Returns the bonus for the check situation.
-	 * @param player is the current player.
-	 * @return the bonus.
+	 * Returns a report of the cost of every term: its calls, its time and its share
+	 * of the time of all the terms. The report is empty if the terms are not profiled.
+	 * @return the report.
 	 */
-	private static int check(final Player player) {
-		return player.getOpponent().isInCheck() ? CHECK_BONUS : 0;
+	public String getProfileReport() {
+		long totalNanos = 0;
+		for (final ProfiledTerm term : this.profiledTerms) {
+			totalNanos += term.getNanos();
+		}
+		final StringBuilder report = new StringBuilder();
+		report.append(String.format("%-16s %12s %14s %10s %7s%n", "term", "calls", "ns", "ns/call", "share"));
+		for (final ProfiledTerm term : this.profiledTerms) {
+			final long calls = term.getCalls();
+			final long nanos = term.getNanos();
+			report.append(String.format("%-16s %12d %14d %10.1f %6.1f%%%n", term.getName(), calls, nanos,
+					calls == 0 ? 0.0 : (double) nanos / calls,
+					totalNanos == 0 ? 0.0 : 100.0 * nanos / totalNanos));
+		}
+		return report.toString();
 	}
 
 	/**
-	 * Returns the score for the mobility, which is the amount of possible moves
-	 * for the given player.
-	 * @param player is the given player.
-	 * @return the score.
+	 * Resets the counters of the profiled terms.
 	 */
-	private static int mobility(final Player player) {
-		return player.getPossibleMoves().size();
+	public void resetProfile() {
+		for (final ProfiledTerm term : this.profiledTerms) {
+			term.reset();
+		}
 	}
 
 	/**
-	 * Returns the score for the pieces of the given player.
-	 * @param player is the given player.
-	 * @return the score.
+	 * Inner class - implements the Builder design pattern.
+	 * @author Omer Shitrit
+	 *
 	 */
-	private static int pieceValue(final Player player) {
-		int total = 0;
-		for (final Piece piece : player.getActivePieces()) {
-			total += piece.getPieceValue();
+	public static class Builder {
+		private final List<EvaluationTerm> terms;
+		private final List<EvaluationTerm> lazyTerms;
+		private final List<DepthEvaluationTerm> depthTerms;
+		private boolean isProfiled;
+
+		/**
+		 * Constructor.
+		 */
+		public Builder() {
+			this.terms = new ArrayList<>();
+			this.lazyTerms = new ArrayList<>();
+			this.depthTerms = new ArrayList<>();
+		}
+
+		/**
+		 * Adds a term that is always evaluated. The cheap terms with the largest
+		 * scores should be added this way, because they decide the lazy evaluation.
+		 * @param term is the given term.
+		 * @return the builder itself.
+		 */
+		public Builder addTerm(final EvaluationTerm term) {
+			this.terms.add(term);
+			return this;
+		}
+
+		/**
+		 * Adds a term that is skipped when the board is far outside the window.
+		 * The score of such a term should be well below LAZY_MARGIN.
+		 * @param term is the given term.
+		 * @return the builder itself.
+		 */
+		public Builder addLazyTerm(final EvaluationTerm term) {
+			this.lazyTerms.add(term);
+			return this;
+		}
+
+		/**
+		 * Adds a term that depends on the depth that was left. Such a term is never
+		 * skipped, and its score is added after the other terms are tapered.
+		 * @param term is the given term.
+		 * @return the builder itself.
+		 */
+		public Builder addDepthTerm(final DepthEvaluationTerm term) {
+			this.depthTerms.add(term);
+			return this;
+		}
+
+		/**
+		 * Adds the terms of the standard evaluation.
+		 * @param pawnTableSizeInMegabytes is the size of the pawn hash table.
+		 * @return the builder itself.
+		 */
+		public Builder addStandardTerms(final int pawnTableSizeInMegabytes) {
+			return addTerm(EvaluationTerms.material())
+				  .addTerm(EvaluationTerms.pawnStructure(pawnTableSizeInMegabytes))
+				  .addLazyTerm(EvaluationTerms.mobility())
+				  .addLazyTerm(EvaluationTerms.check())
+				  .addLazyTerm(EvaluationTerms.castled())
+				  .addDepthTerm(EvaluationTerms.checkmate());
 		}
-		return total;
+
+		/**
+		 * Sets the profiling mode, which counts the calls and the time of every term.
+		 * @param isProfiled is true to profile the terms.
+		 * @return the builder itself.
+		 */
+		public Builder setProfiled(final boolean isProfiled) {
+			this.isProfiled = isProfiled;
+			return this;
+		}
+
+		/**
+		 * Builds the evaluator and returns it.
+		 * @return the evaluator.
+		 */
+		public StandardBoardEvaluator build() { return new StandardBoardEvaluator(this); }
 	}
 
 }
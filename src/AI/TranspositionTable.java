@@ -0,0 +1,142 @@
+/**
+ * This class represents a transposition table, which remembers the values of
+ * boards that were already searched, so a board that is reached again by a
+ * different order of moves is not searched again.
+ * The table can be shared between threads without locks: every entry is kept
+ * as the key xor the data, so an entry that was written by two threads at the
+ * same time simply does not match any key.
+ */
+
+package AI;
+
+import java.util.Arrays;
+
+import Board.Move;
+
+public class TranspositionTable {
+
+	public static final int EXACT = 0;
+	public static final int LOWER_BOUND = 1;
+	public static final int UPPER_BOUND = 2;
+	public static final int NO_MOVE = 0;
+
+	private static final int BYTES_PER_ENTRY = 16;
+	private static final int MOVE_SHIFT = 32;
+	private static final int DEPTH_SHIFT = 48;
+	private static final int BOUND_SHIFT = 56;
+	private static final int GENERATION_SHIFT = 58;
+	private static final int GENERATION_MASK = 0x3F;
+
+	private final long[] keys;
+	private final long[] data;
+	private final int mask;
+	private volatile int generation;
+
+	/**
+	 * Constructor
+	 * @param sizeInMegabytes is the size of the table.
+	 */
+	public TranspositionTable(final int sizeInMegabytes) {
+		final long entries = Long.highestOneBit(Math.max(1L, (long) sizeInMegabytes * 1024 * 1024 / BYTES_PER_ENTRY));
+		final int size = (int) Math.min(entries, 1 << 30);
+		this.keys = new long[size];
+		this.data = new long[size];
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Starts a new search, so the entries of the old searches are replaced first.
+	 */
+	public void newSearch() { this.generation = (this.generation + 1) & GENERATION_MASK; }
+
+	/**
+	 * Clears the table.
+	 */
+	public void clear() {
+		Arrays.fill(this.keys, 0);
+		Arrays.fill(this.data, 0);
+	}
+
+	/**
+	 * Returns the data of the given board hash, or 0 if the board is not in the table.
+	 * @param key is the zobrist hash of the board.
+	 * @return the data, that is read by the static functions of this class.
+	 */
+	public long probe(final long key) {
+		final int index = (int) key & this.mask;
+		final long entryData = this.data[index];
+		return (this.keys[index] ^ entryData) == key ? entryData : 0;
+	}
+
+	/**
+	 * Stores the given result. An entry of the current search is replaced
+	 * only by a deeper result of the same board or by another board.
+	 * @param key is the zobrist hash of the board.
+	 * @param value is the value of the board.
+	 * @param depth is the depth that the board was searched to.
+	 * @param bound is EXACT, LOWER_BOUND or UPPER_BOUND.
+	 * @param move is the encoded best move, or NO_MOVE.
+	 */
+	public void store(final long key, final int value, final int depth, final int bound, final int move) {
+		final int index = (int) key & this.mask;
+		final long oldData = this.data[index];
+		final boolean isSameBoard = (this.keys[index] ^ oldData) == key;
+		if (isSameBoard && getGeneration(oldData) == this.generation && depth < getDepth(oldData)) {
+			return;
+		}
+		final long newData = (value & 0xFFFFFFFFL) |
+							 ((long) (move & 0xFFFF) << MOVE_SHIFT) |
+							 ((long) (depth & 0xFF) << DEPTH_SHIFT) |
+							 ((long) bound << BOUND_SHIFT) |
+							 ((long) this.generation << GENERATION_SHIFT);
+		this.data[index] = newData;
+		this.keys[index] = key ^ newData;
+	}
+
+	/**
+	 * Returns the value that is kept in the given data.
+	 * @param entryData is the given data.
+	 * @return the value.
+	 */
+	public static int getValue(final long entryData) { return (int) entryData; }
+
+	/**
+	 * Returns the encoded move that is kept in the given data.
+	 * @param entryData is the given data.
+	 * @return the encoded move.
+	 */
+	public static int getMove(final long entryData) { return (int) (entryData >>> MOVE_SHIFT) & 0xFFFF; }
+
+	/**
+	 * Returns the depth that is kept in the given data.
+	 * @param entryData is the given data.
+	 * @return the depth.
+	 */
+	public static int getDepth(final long entryData) { return (int) (entryData >>> DEPTH_SHIFT) & 0xFF; }
+
+	/**
+	 * Returns the bound that is kept in the given data.
+	 * @param entryData is the given data.
+	 * @return the bound.
+	 */
+	public static int getBound(final long entryData) { return (int) (entryData >>> BOUND_SHIFT) & 0x3; }
+
+	/**
+	 * Returns the generation that is kept in the given data.
+	 * @param entryData is the given data.
+	 * @return the generation.
+	 */
+	private static int getGeneration(final long entryData) { return (int) (entryData >>> GENERATION_SHIFT) & GENERATION_MASK; }
+
+	/**
+	 * Encodes the given move to a number, which is never NO_MOVE. The type of a
+	 * promotion is kept above the positions, so every promotion has its own number.
+	 * @param move is the given move.
+	 * @return the encoded move.
+	 */
+	public static int encodeMove(final Move move) {
+		final int promotion = move instanceof Move.PawnPromotion ?
+				((Move.PawnPromotion) move).getPromotionType().ordinal() << 13 : 0;
+		return promotion | 1 << 12 | move.getCurrentPosition() << 6 | move.getDestinationPosition();
+	}
+}
@@ -0,0 +1,24 @@
+/**
+ * This interface is the interface of anything that wants to know
+ * how the tuning of the evaluation is going, like a log.
+ */
+
+package AI;
+
+public interface TuningListener {
+
+	/**
+	 * Called after the scaling factor of the sigmoid was fitted.
+	 * @param scalingFactor is the scaling factor.
+	 * @param error is the error of the weights before the tuning.
+	 */
+	void scalingFactorFound(double scalingFactor, double error);
+
+	/**
+	 * Called after every pass over the weights.
+	 * @param step is the step that the weights were moved by.
+	 * @param error is the error of the weights so far.
+	 */
+	void passCompleted(int step, double error);
+
+}
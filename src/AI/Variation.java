@@ -0,0 +1,58 @@
+/**
+ * This class represents one of the lines of a search: a move of the root,
+ * its score and the moves that the search expects after it.
+ */
+
+package AI;
+
+import java.util.Collections;
+import java.util.List;
+
+import Board.Move;
+
+public class Variation {
+
+	private final int score;
+	private final List<Move> principalVariation;
+
+	/**
+	 * Constructor
+	 * @param score is the score of the line. Positive scores are good for white.
+	 * @param principalVariation are the moves of the line, starting with the move of the root.
+	 */
+	public Variation(final int score, final List<Move> principalVariation) {
+		this.score = score;
+		this.principalVariation = Collections.unmodifiableList(principalVariation);
+	}
+
+	/**
+	 * Returns the move of the root.
+	 * @return the move.
+	 */
+	public Move getMove() { return this.principalVariation.get(0); }
+
+	/**
+	 * Returns the score of the line. Positive scores are good for white.
+	 * @return the score.
+	 */
+	public int getScore() { return this.score; }
+
+	/**
+	 * Returns the moves of the line, starting with the move of the root.
+	 * @return the moves.
+	 */
+	public List<Move> getPrincipalVariation() { return this.principalVariation; }
+
+	/**
+	 * to string function.
+	 */
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("score ").append(this.score).append(" pv");
+		for (final Move move : this.principalVariation) {
+			builder.append(' ').append(move);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ * This class calculates the squares that the pieces attack as bitboards, which
+ * are 64 bit numbers where bit i is the position i of the board. The attacks are
+ * calculated from the position itself, without creating moves, so they are
+ * cheap enough for the evaluation of every leaf of a search.
+ */
+
+package Board;
+
+import Pieces.Piece;
+
+public class BitBoards {
+
+	private static final long[] KNIGHT_ATTACKS = new long[Helper.NUM_TILES];
+	private static final long[] KING_ATTACKS = new long[Helper.NUM_TILES];
+	private static final long[] WHITE_PAWN_ATTACKS = new long[Helper.NUM_TILES];
+	private static final long[] BLACK_PAWN_ATTACKS = new long[Helper.NUM_TILES];
+	// row and column offsets of the pieces that move by a single step
+	private static final int[][] KNIGHT_OFFSETS = { {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1} };
+	private static final int[][] KING_OFFSETS = { {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1} };
+	// white pawns move to the lower positions
+	private static final int[][] WHITE_PAWN_OFFSETS = { {-1, -1}, {-1, 1} };
+	private static final int[][] BLACK_PAWN_OFFSETS = { {1, -1}, {1, 1} };
+	private static final int[][] BISHOP_DIRECTIONS = { {-1, -1}, {-1, 1}, {1, -1}, {1, 1} };
+	private static final int[][] ROOK_DIRECTIONS = { {-1, 0}, {1, 0}, {0, -1}, {0, 1} };
+
+	static {
+		for (int position = 0; position < Helper.NUM_TILES; ++position) {
+			KNIGHT_ATTACKS[position] = stepAttacks(position, KNIGHT_OFFSETS);
+			KING_ATTACKS[position] = stepAttacks(position, KING_OFFSETS);
+			WHITE_PAWN_ATTACKS[position] = stepAttacks(position, WHITE_PAWN_OFFSETS);
+			BLACK_PAWN_ATTACKS[position] = stepAttacks(position, BLACK_PAWN_OFFSETS);
+		}
+	}
+
+	/**
+	 * Make this class a container for useful functions
+	 */
+	private BitBoards() { throw new RuntimeException("Cant initiate this object!"); }
+
+	/**
+	 * Returns the positions of the given pieces.
+	 * @param pieces are the given pieces.
+	 * @return the bitboard of the positions.
+	 */
+	public static long occupancy(final Iterable<Piece> pieces) {
+		long occupied = 0;
+		for (final Piece piece : pieces) {
+			occupied |= 1L << piece.getPosition();
+		}
+		return occupied;
+	}
+
+	/**
+	 * Returns the squares that the given piece attacks. The attacks of a sliding
+	 * piece stop at the first occupied square, which is attacked too.
+	 * @param piece is the given piece.
+	 * @param occupied are the occupied positions of the board.
+	 * @return the bitboard of the attacked squares.
+	 */
+	public static long attacks(final Piece piece, final long occupied) {
+		final int position = piece.getPosition();
+		switch (piece.getPieceType()) {
+			case PAWN: return piece.getPieceColor().isWhite() ? WHITE_PAWN_ATTACKS[position] :
+															   BLACK_PAWN_ATTACKS[position];
+			case KNIGHT: return KNIGHT_ATTACKS[position];
+			case BISHOP: return slidingAttacks(position, occupied, BISHOP_DIRECTIONS);
+			case ROOK: return slidingAttacks(position, occupied, ROOK_DIRECTIONS);
+			case QUEEN: return slidingAttacks(position, occupied, BISHOP_DIRECTIONS) |
+							   slidingAttacks(position, occupied, ROOK_DIRECTIONS);
+			default: return KING_ATTACKS[position];
+		}
+	}
+
+	/**
+	 * Returns the squares of the given offsets from a position, that are on the board.
+	 * @param position is the given position.
+	 * @param offsets are the row and column offsets.
+	 * @return the bitboard of the squares.
+	 */
+	private static long stepAttacks(final int position, final int[][] offsets) {
+		final int row = position / Helper.NUM_TILES_PER_ROW;
+		final int column = position % Helper.NUM_TILES_PER_ROW;
+		long attacks = 0;
+		for (final int[] offset : offsets) {
+			if (isOnBoard(row + offset[0], column + offset[1])) {
+				attacks |= 1L << ((row + offset[0]) * Helper.NUM_TILES_PER_ROW + column + offset[1]);
+			}
+		}
+		return attacks;
+	}
+
+	/**
+	 * Returns the squares that a sliding piece attacks in the given directions.
+	 * @param position is the position of the piece.
+	 * @param occupied are the occupied positions of the board.
+	 * @param directions are the row and column steps of the directions.
+	 * @return the bitboard of the attacked squares.
+	 */
+	private static long slidingAttacks(final int position, final long occupied, final int[][] directions) {
+		final int row = position / Helper.NUM_TILES_PER_ROW;
+		final int column = position % Helper.NUM_TILES_PER_ROW;
+		long attacks = 0;
+		for (final int[] direction : directions) {
+			int currentRow = row + direction[0];
+			int currentColumn = column + direction[1];
+			while (isOnBoard(currentRow, currentColumn)) {
+				final long square = 1L << (currentRow * Helper.NUM_TILES_PER_ROW + currentColumn);
+				attacks |= square;
+				if ((occupied & square) != 0) {
+					break;
+				}
+				currentRow += direction[0];
+				currentColumn += direction[1];
+			}
+		}
+		return attacks;
+	}
+
+	/**
+	 * Checks whether the row and the column are on the board.
+	 * @param row is the given row.
+	 * @param column is the given column.
+	 * @return true if they are on the board, o.w false.
+	 */
+	private static boolean isOnBoard(final int row, final int column) {
+		return row >= 0 && row < Helper.NUM_TILES_PER_ROW && column >= 0 && column < Helper.NUM_TILES_PER_ROW;
+	}
+}
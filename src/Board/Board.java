@@ -42,6 +42,15 @@ public class Board {
 	private final Collection<Piece> blackPieces;
 	private Player currentPlayer;
 	private final Pawn enPassantPawn;
+	private long zobristHash;
+	private final long pawnZobristHash;
+	// the score of the material and the squares of the pieces, positive for white
+	private final int materialScore;
+	// the phase of the game, which goes down as the pieces are captured
+	private final int phase;
+	// the plies since the last capture or pawn move, and the number of the full move
+	private final int halfmoveClock;
+	private final int fullmoveNumber;
 	
 	/**
 	 * Constructor for board, using a builder.
@@ -58,6 +67,12 @@ public class Board {
 		this.blackPlayer = new BlackPlayer(this, possibleBlackMoves, possibleWhiteMoves);
 		this.currentPlayer = builder.getCurrentPlayer().choosePlayer(this.whitePlayer, this.blackPlayer);
 		this.nextTurnPlayer = PlayerColor.WHITE;
+		this.zobristHash = Zobrist.hash(this);
+		this.pawnZobristHash = Zobrist.pawnHash(this);
+		this.materialScore = builder.isMaterialScoreSet ? builder.materialScore : PieceSquareTable.score(this);
+		this.phase = builder.isMaterialScoreSet ? builder.phase : TaperedScore.getPhase(this);
+		this.halfmoveClock = builder.halfmoveClock;
+		this.fullmoveNumber = builder.fullmoveNumber;
 	}
 	
 	/**
@@ -72,10 +87,10 @@ public class Board {
 	 * @return the list within the possible moves.
 	 */
 	public Iterable<Move> getAllPossibleMoves() { 
-		Collection<Move> moves = this.whitePlayer.getPossibleMoves();
-		Collection<Move> blackPlayerMoves = this.blackPlayer.getPossibleMoves();
-		moves.addAll(blackPlayerMoves);
-		return moves;
+		// a new list, so the moves of the white player are not changed
+		final List<Move> moves = new ArrayList<>(this.whitePlayer.getPossibleMoves());
+		moves.addAll(this.blackPlayer.getPossibleMoves());
+		return Collections.unmodifiableList(moves);
 	}
 	
 	/**
@@ -84,6 +99,43 @@ public class Board {
 	 */
 	public Pawn getEnPassantPawn() { return this.enPassantPawn; }
 	
+	/**
+	 * Returns the zobrist hash of this board.
+	 * @return the zobrist hash.
+	 */
+	public long getZobristHash() { return this.zobristHash; }
+	
+	/**
+	 * Returns the zobrist hash of the pawns of this board.
+	 * @return the pawn hash.
+	 */
+	public long getPawnZobristHash() { return this.pawnZobristHash; }
+	
+	/**
+	 * Returns the score of the material and the squares of the pieces, which is
+	 * kept up to date by the moves instead of being calculated again.
+	 * @return the packed middlegame and endgame score, positive for white.
+	 */
+	public int getMaterialScore() { return this.materialScore; }
+	
+	/**
+	 * Returns the phase of the game, which is kept up to date by the moves.
+	 * @return the phase, from TaperedScore.MAX_PHASE at the start of the game to 0.
+	 */
+	public int getPhase() { return this.phase; }
+	
+	/**
+	 * Returns the number of plies since the last capture or pawn move.
+	 * @return the halfmove clock.
+	 */
+	public int getHalfmoveClock() { return this.halfmoveClock; }
+	
+	/**
+	 * Returns the number of the full move, which starts at 1 and grows after every move of black.
+	 * @return the fullmove number.
+	 */
+	public int getFullmoveNumber() { return this.fullmoveNumber; }
+	
 	/**
 	 * Changes the current player, according to the given player.
 	 * @param player is the given player.
@@ -91,6 +143,7 @@ public class Board {
 	public void changePlayer(Player player) {
 		this.currentPlayer = player;
 		this.nextTurnPlayer = player.getColor();
+		this.zobristHash = Zobrist.hash(this);
 	}
 	
 	/**
@@ -241,12 +294,18 @@ public class Board {
 		Map<Short, Piece> boardMap;
 		PlayerColor turn;
 		Pawn enPassantPawn;
+		int materialScore;
+		int phase;
+		boolean isMaterialScoreSet;
+		int halfmoveClock;
+		int fullmoveNumber;
 		
 		/**
 		 * Constructor.
 		 */
 		public Builder() {
 			this.boardMap = new HashMap<>();
+			this.fullmoveNumber = 1;
 		}
 		
 		/**
@@ -281,6 +340,18 @@ public class Board {
 		 */
 		public Board build() { return new Board(this); }
 
+		/**
+		 * Sets the move counters.
+		 * @param halfmoveClock is the number of plies since the last capture or pawn move.
+		 * @param fullmoveNumber is the number of the full move.
+		 * @return the builder itself.
+		 */
+		public Builder setMoveCounters(final int halfmoveClock, final int fullmoveNumber) {
+			this.halfmoveClock = halfmoveClock;
+			this.fullmoveNumber = fullmoveNumber;
+			return this;
+		}
+		
 		/**
 		 * Sets the enPassantPawn.
 		 * @param pawn is the given enPassantPawn.
@@ -288,5 +359,20 @@ public class Board {
 		public void setEnPassantPawn(Pawn pawn) {
 			this.enPassantPawn = pawn;
 		}
+		
+		/**
+		 * Sets the score of the material and the squares of the pieces and the phase
+		 * of the game, when they are known from the board before the move. O.w the
+		 * board calculates them.
+		 * @param materialScore is the packed score, positive for white.
+		 * @param phase is the phase of the game.
+		 * @return the builder itself.
+		 */
+		public Builder setMaterialScore(final int materialScore, final int phase) {
+			this.materialScore = materialScore;
+			this.phase = phase;
+			this.isMaterialScoreSet = true;
+			return this;
+		}
 	}
 }
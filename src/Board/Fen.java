@@ -0,0 +1,259 @@
+/**
+ * This class reads and writes boards in the Forsyth-Edwards Notation (FEN): the
+ * pieces row by row from the 8th row, the player to move, the castling rights,
+ * the en passant square and the move counters.
+ * A board keeps its castling rights in the first move flags of its kings and
+ * rooks, and its en passant square as the pawn that jumped over it.
+ * The parser reads the text once, character by character, so positions are
+ * loaded in bulk without splitting the text into strings.
+ */
+
+package Board;
+
+import Pieces.Bishop;
+import Pieces.King;
+import Pieces.Knight;
+import Pieces.Pawn;
+import Pieces.Piece;
+import Pieces.Queen;
+import Pieces.Rook;
+
+public class Fen {
+
+	public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+	// the first positions of the kings and the rooks
+	private static final short WHITE_KING = 60;
+	private static final short WHITE_KING_SIDE_ROOK = 63;
+	private static final short WHITE_QUEEN_SIDE_ROOK = 56;
+	private static final short BLACK_KING = 4;
+	private static final short BLACK_KING_SIDE_ROOK = 7;
+	private static final short BLACK_QUEEN_SIDE_ROOK = 0;
+
+	/**
+	 * Make this class a container for useful functions
+	 */
+	private Fen() { throw new RuntimeException("Cant initiate this object!"); }
+
+	/**
+	 * Creates the board of the given FEN. The castling rights, the en passant
+	 * square and the move counters may be left out, and the text after the last
+	 * field that is read, like the operations of an EPD line, is ignored.
+	 * A valid FEN has one king of every player, no pawn on the first or the last
+	 * row, and the player that just moved may not be left in check.
+	 * @param fen is the given FEN.
+	 * @return the board.
+	 * @throws IllegalArgumentException if the FEN is not valid.
+	 */
+	public static Board parse(final CharSequence fen) {
+		final Board.Builder builder = new Board.Builder();
+		final int length = fen.length();
+		int index = skipSpaces(fen, 0);
+		// the pieces
+		int position = 0;
+		int whiteKings = 0;
+		int blackKings = 0;
+		for (; index < length && fen.charAt(index) != ' '; ++index) {
+			final char c = fen.charAt(index);
+			if (c == '/') {
+				if (position % Helper.NUM_TILES_PER_ROW != 0) {
+					throw new IllegalArgumentException("Row ends too early: " + fen);
+				}
+			} else if (c >= '1' && c <= '8') {
+				position += c - '0';
+			} else if (position < Helper.NUM_TILES) {
+				final Piece piece = createPiece(c, (short) position++);
+				if (piece.getPieceType() == Piece.Type.PAWN &&
+						(Helper.FIRST_R[piece.getPosition()] || Helper.EIGHTH_R[piece.getPosition()])) {
+					throw new IllegalArgumentException("A pawn on the first or the last row: " + fen);
+				}
+				if (piece.getPieceType().isKing()) {
+					if (piece.getPieceColor().isWhite()) { ++whiteKings; } else { ++blackKings; }
+				}
+				builder.setPiece(piece);
+			} else {
+				throw new IllegalArgumentException("Too many squares: " + fen);
+			}
+		}
+		if (position != Helper.NUM_TILES) {
+			throw new IllegalArgumentException("Wrong number of squares: " + fen);
+		}
+		if (whiteKings != 1 || blackKings != 1) {
+			throw new IllegalArgumentException("Every player must have one king: " + fen);
+		}
+		// the player to move
+		index = skipSpaces(fen, index);
+		if (index >= length || (fen.charAt(index) != 'w' && fen.charAt(index) != 'b')) {
+			throw new IllegalArgumentException("Missing player to move: " + fen);
+		}
+		final PlayerColor turn = fen.charAt(index++) == 'w' ? PlayerColor.WHITE : PlayerColor.BLACK;
+		builder.setTurn(turn);
+		// the castling rights
+		index = skipSpaces(fen, index);
+		if (index < length && fen.charAt(index) == '-') {
+			++index;
+		} else {
+			for (; index < length && fen.charAt(index) != ' '; ++index) {
+				switch (fen.charAt(index)) {
+					case 'K': setCastlingRight(builder, WHITE_KING, WHITE_KING_SIDE_ROOK); break;
+					case 'Q': setCastlingRight(builder, WHITE_KING, WHITE_QUEEN_SIDE_ROOK); break;
+					case 'k': setCastlingRight(builder, BLACK_KING, BLACK_KING_SIDE_ROOK); break;
+					case 'q': setCastlingRight(builder, BLACK_KING, BLACK_QUEEN_SIDE_ROOK); break;
+					default: throw new IllegalArgumentException("Wrong castling rights: " + fen);
+				}
+			}
+		}
+		// the en passant square, behind the pawn of the opponent that jumped over it
+		index = skipSpaces(fen, index);
+		if (index < length && fen.charAt(index) == '-') {
+			++index;
+		} else if (index + 1 < length) {
+			final int column = fen.charAt(index) - 'a';
+			final int rank = fen.charAt(index + 1) - '0';
+			if (column < 0 || column >= Helper.NUM_TILES_PER_ROW || (rank != 3 && rank != 6)) {
+				throw new IllegalArgumentException("Wrong en passant square: " + fen);
+			}
+			final int square = (Helper.NUM_TILES_PER_ROW - rank) * Helper.NUM_TILES_PER_ROW + column;
+			final int pawnPosition = turn.isWhite() ? square + Helper.NUM_TILES_PER_ROW :
+													  square - Helper.NUM_TILES_PER_ROW;
+			final Piece pawn = builder.boardMap.get((short) pawnPosition);
+			if (pawn == null || pawn.getPieceType() != Piece.Type.PAWN || pawn.getPieceColor() == turn) {
+				throw new IllegalArgumentException("No pawn passed the en passant square: " + fen);
+			}
+			builder.setEnPassantPawn((Pawn) pawn);
+			index += 2;
+		}
+		// the move counters, if there are any
+		index = skipSpaces(fen, index);
+		if (index < length && isDigit(fen.charAt(index))) {
+			int halfmoveClock = 0;
+			for (; index < length && isDigit(fen.charAt(index)); ++index) {
+				halfmoveClock = halfmoveClock * 10 + fen.charAt(index) - '0';
+			}
+			index = skipSpaces(fen, index);
+			int fullmoveNumber = 0;
+			for (; index < length && isDigit(fen.charAt(index)); ++index) {
+				fullmoveNumber = fullmoveNumber * 10 + fen.charAt(index) - '0';
+			}
+			builder.setMoveCounters(halfmoveClock, Math.max(1, fullmoveNumber));
+		}
+		final Board board = builder.build();
+		if (board.currentPlayer().getOpponent().isInCheck()) {
+			throw new IllegalArgumentException("The player that is not to move is in check: " + fen);
+		}
+		return board;
+	}
+
+	/**
+	 * Writes the FEN of the given board.
+	 * @param board is the given board.
+	 * @return the FEN.
+	 */
+	public static String toFen(final Board board) {
+		final StringBuilder fen = new StringBuilder();
+		int emptyTiles = 0;
+		for (short position = 0; position < Helper.NUM_TILES; ++position) {
+			final Piece piece = board.getTile(position).getStandingPiece();
+			if (piece == null) {
+				++emptyTiles;
+			} else {
+				if (emptyTiles > 0) {
+					fen.append(emptyTiles);
+					emptyTiles = 0;
+				}
+				final String letter = piece.getPieceType().toString();
+				fen.append(piece.getPieceColor().isWhite() ? letter : letter.toLowerCase());
+			}
+			if (position % Helper.NUM_TILES_PER_ROW == Helper.NUM_TILES_PER_ROW - 1) {
+				if (emptyTiles > 0) {
+					fen.append(emptyTiles);
+					emptyTiles = 0;
+				}
+				if (position != Helper.NUM_TILES - 1) {
+					fen.append('/');
+				}
+			}
+		}
+		fen.append(board.currentPlayer().getColor().isWhite() ? " w " : " b ");
+		final int castlingStart = fen.length();
+		if (Zobrist.canCastle(board, WHITE_KING, WHITE_KING_SIDE_ROOK)) { fen.append('K'); }
+		if (Zobrist.canCastle(board, WHITE_KING, WHITE_QUEEN_SIDE_ROOK)) { fen.append('Q'); }
+		if (Zobrist.canCastle(board, BLACK_KING, BLACK_KING_SIDE_ROOK)) { fen.append('k'); }
+		if (Zobrist.canCastle(board, BLACK_KING, BLACK_QUEEN_SIDE_ROOK)) { fen.append('q'); }
+		if (fen.length() == castlingStart) {
+			fen.append('-');
+		}
+		fen.append(' ');
+		final Pawn enPassantPawn = board.getEnPassantPawn();
+		if (enPassantPawn == null) {
+			fen.append('-');
+		} else {
+			final int square = enPassantPawn.getPieceColor().isWhite() ?
+					enPassantPawn.getPosition() + Helper.NUM_TILES_PER_ROW :
+					enPassantPawn.getPosition() - Helper.NUM_TILES_PER_ROW;
+			fen.append(Helper.getPositionAtCoordinate((short) square));
+		}
+		fen.append(' ').append(board.getHalfmoveClock()).append(' ').append(board.getFullmoveNumber());
+		return fen.toString();
+	}
+
+	/**
+	 * Gives back the first move to a king and a rook, which keeps the castling right.
+	 * @param builder is the builder of the board.
+	 * @param kingPosition is the first position of the king.
+	 * @param rookPosition is the first position of the rook.
+	 */
+	private static void setCastlingRight(final Board.Builder builder, final short kingPosition, final short rookPosition) {
+		final Piece king = builder.boardMap.get(kingPosition);
+		final Piece rook = builder.boardMap.get(rookPosition);
+		if (king == null || !king.getPieceType().isKing() || rook == null || !rook.getPieceType().isRook() ||
+				king.getPieceColor() != rook.getPieceColor()) {
+			throw new IllegalArgumentException("No king and rook for the castling right");
+		}
+		builder.setPiece(new King(king.getPieceColor(), kingPosition, true));
+		builder.setPiece(new Rook(rook.getPieceColor(), rookPosition, true));
+	}
+
+	/**
+	 * Creates the piece of a letter of a FEN. Only a pawn on its first row may
+	 * still make its first move; the kings and the rooks get their first move from
+	 * the castling rights.
+	 * @param letter is the given letter, upper case for white.
+	 * @param position is the position of the piece.
+	 * @return the piece.
+	 */
+	private static Piece createPiece(final char letter, final short position) {
+		final PlayerColor color = Character.isUpperCase(letter) ? PlayerColor.WHITE : PlayerColor.BLACK;
+		switch (Character.toUpperCase(letter)) {
+			case 'P':
+				final boolean isFirstMove = color.isWhite() ? Helper.SECOND_R[position] : Helper.SEVENTH_R[position];
+				return new Pawn(color, position, isFirstMove);
+			case 'N': return new Knight(color, position, false);
+			case 'B': return new Bishop(color, position, false);
+			case 'R': return new Rook(color, position, false);
+			case 'Q': return new Queen(color, position, false);
+			case 'K': return new King(color, position, false);
+			default: throw new IllegalArgumentException("Unknown piece: " + letter);
+		}
+	}
+
+	/**
+	 * Skips the spaces of the text.
+	 * @param text is the given text.
+	 * @param index is the index to start from.
+	 * @return the index of the first character that is not a space.
+	 */
+	private static int skipSpaces(final CharSequence text, int index) {
+		while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+			++index;
+		}
+		return index;
+	}
+
+	/**
+	 * Checks whether a character is a digit.
+	 * @param c is the given character.
+	 * @return true if it is a digit, o.w false.
+	 */
+	private static boolean isDigit(final char c) { return c >= '0' && c <= '9'; }
+}
@@ -82,11 +82,49 @@ public abstract class Move {
 			builder.setPiece(piece);
 		}
 		// move the piece
-		builder.setPiece(this.piece.movePiece(this));
+		final Piece movedPiece = this.piece.movePiece(this);
+		builder.setPiece(movedPiece);
+		builder.setMaterialScore(getMaterialScoreAfter(movedPiece), getPhaseAfter());
+		setMoveCounters(builder);
 		builder.setTurn(this.board.currentPlayer().getOpponent().getColor());
 		return builder.build();
 	}
 	
+	/**
+	 * Sets the move counters of the board after the move: the halfmove clock starts
+	 * again after a capture or a pawn move, and the full move ends with a move of black.
+	 * @param builder is the builder of the board after the move.
+	 */
+	protected void setMoveCounters(final Board.Builder builder) {
+		final boolean isReset = isAttack() || this.piece.getPieceType() == Piece.Type.PAWN;
+		builder.setMoveCounters(isReset ? 0 : this.board.getHalfmoveClock() + 1,
+				this.board.getFullmoveNumber() + (this.board.currentPlayer().getColor().isBlack() ? 1 : 0));
+	}
+	
+	/**
+	 * Returns the material score of the board after the move, from the score of the
+	 * board before it: only the moved piece and the captured piece change the score.
+	 * @param movedPiece is the moved piece on its destination.
+	 * @return the score, positive for white.
+	 */
+	protected int getMaterialScoreAfter(final Piece movedPiece) {
+		int materialScore = this.board.getMaterialScore() - PieceSquareTable.score(this.piece) +
+							PieceSquareTable.score(movedPiece);
+		if (isAttack()) {
+			materialScore -= PieceSquareTable.score(getAttackedPiece());
+		}
+		return materialScore;
+	}
+	
+	/**
+	 * Returns the phase of the game after the move, which changes only by a capture.
+	 * @return the phase.
+	 */
+	protected int getPhaseAfter() {
+		return isAttack() ? this.board.getPhase() - TaperedScore.getPhase(getAttackedPiece().getPieceType()) :
+							this.board.getPhase();
+	}
+	
 	/**
 	 * base function for the abstract class
 	 * @return false
@@ -404,7 +442,10 @@ public abstract class Move {
 					builder.setPiece(otherPiece);
 				}
 			}
-			builder.setPiece(this.piece.movePiece(this));
+			final Piece movedPiece = this.piece.movePiece(this);
+			builder.setPiece(movedPiece);
+			builder.setMaterialScore(getMaterialScoreAfter(movedPiece), getPhaseAfter());
+			setMoveCounters(builder);
 			builder.setTurn(this.board.currentPlayer().getOpponent().getColor());
 			return builder.build();
 		}
@@ -419,16 +460,25 @@ public abstract class Move {
 		
 		private final Move decoratedMove;
 		private final Pawn promotedPawn;
+		private final Piece.Type promotionType;
 		
 		/**
 		 * Constructor
 		 * @param decoratedMove is the move that is decorated
+		 * @param promotionType is the type of the piece that the pawn becomes.
 		 */
-		public PawnPromotion(Move decoratedMove) {
+		public PawnPromotion(final Move decoratedMove, final Piece.Type promotionType) {
 			super(decoratedMove.getBoard(), decoratedMove.getPiece(), decoratedMove.getDestinationPosition());
 			this.decoratedMove = decoratedMove;
 			this.promotedPawn = (Pawn) decoratedMove.getPiece();
+			this.promotionType = promotionType;
 		}
+		
+		/**
+		 * Returns the type of the piece that the pawn becomes.
+		 * @return the promotion type.
+		 */
+		public Piece.Type getPromotionType() { return this.promotionType; }
 
 		/**
 		 * Decorator to a move object
@@ -449,7 +499,14 @@ public abstract class Move {
 			for (final Piece piece : boardAfterFirstMove.currentPlayer().getOpponent().getActivePieces()) {
 				builder.setPiece(piece);
 			}
-			builder.setPiece(this.promotedPawn.getPromotionChoice().movePiece(this));
+			final Piece promotedPiece = this.promotedPawn.getPromotedPiece(this.promotionType).movePiece(this);
+			builder.setPiece(promotedPiece);
+			// the pawn on the last row is replaced by the new piece
+			builder.setMaterialScore(boardAfterFirstMove.getMaterialScore() -
+					PieceSquareTable.score(boardAfterFirstMove.getTile(this.destinationPosition).getStandingPiece()) +
+					PieceSquareTable.score(promotedPiece),
+					boardAfterFirstMove.getPhase() + TaperedScore.getPhase(promotedPiece.getPieceType()));
+			builder.setMoveCounters(boardAfterFirstMove.getHalfmoveClock(), boardAfterFirstMove.getFullmoveNumber());
 			builder.setTurn(boardAfterFirstMove.currentPlayer().getColor());
 			return builder.build();
 		}
@@ -473,21 +530,26 @@ public abstract class Move {
 		 * @return string
 		 */
 		@Override
-		public String toString() { return ""; }
+		public String toString() { return this.decoratedMove.toString() + "=" + this.promotionType.toString(); }
 		
 		/**
 		 * Calculates hashcode.
 		 * @return hashcode
 		 */
 		@Override
-		public int hashCode() { return this.decoratedMove.hashCode() + (31 * this.promotedPawn.hashCode()); }
+		public int hashCode() {
+			return this.decoratedMove.hashCode() + (31 * this.promotedPawn.hashCode()) + this.promotionType.hashCode();
+		}
 		
 		/**
 		 * Compares between two moves
 		 * @return true if they equal, o.w false
 		 */
 		@Override
-		public boolean equals(final Object other) { return this == other || other instanceof PawnPromotion && (super.equals(other)); }
+		public boolean equals(final Object other) {
+			return this == other || other instanceof PawnPromotion && (super.equals(other)) &&
+					this.promotionType == ((PawnPromotion) other).promotionType;
+		}
 		
 	}
 	
@@ -527,7 +589,9 @@ public abstract class Move {
 			}
 			final Pawn pawnAfterMove = (Pawn) this.piece.movePiece(this);
 			builder.setPiece(pawnAfterMove);
+			builder.setMaterialScore(getMaterialScoreAfter(pawnAfterMove), getPhaseAfter());
 			builder.setEnPassantPawn(pawnAfterMove);
+			setMoveCounters(builder);
 			builder.setTurn(this.board.currentPlayer().getOpponent().getColor());
 			return builder.build();
 		}
@@ -601,9 +665,13 @@ public abstract class Move {
 			for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
 				builder.setPiece(piece);
 			}
-			builder.setPiece(this.piece.movePiece(this));
-			// TODO: look into the first move on normal pieces
-			builder.setPiece(new Rook(this.castleRook.getPieceColor(), this.castleRookDestination));
+			final Piece movedKing = this.piece.movePiece(this);
+			builder.setPiece(movedKing);
+			final Rook movedRook = new Rook(this.castleRook.getPieceColor(), this.castleRookDestination, false);
+			builder.setPiece(movedRook);
+			builder.setMaterialScore(getMaterialScoreAfter(movedKing) - PieceSquareTable.score(this.castleRook) +
+					PieceSquareTable.score(movedRook), getPhaseAfter());
+			setMoveCounters(builder);
 			builder.setTurn(this.board.currentPlayer().getOpponent().getColor());
 			return builder.build();
 		}
@@ -725,7 +793,8 @@ public abstract class Move {
 	 */
 	public static final class NullMove extends Move {
 		
-		public static NullMove INSTANCE = null;
+		// created when the class is loaded, so all the threads get the same instance
+		private static final NullMove INSTANCE = new NullMove();
 		
 		/**
 		 * Constructor
@@ -734,12 +803,11 @@ public abstract class Move {
 			super(null, (short) 65);
 		}
 		
-		public static NullMove getNullMove() {
-			if (INSTANCE == null) {
-				INSTANCE = new NullMove();
-			}
-				return INSTANCE;
-		}
+		/**
+		 * Returns the null move.
+		 * @return the null move.
+		 */
+		public static NullMove getNullMove() { return INSTANCE; }
 		
 		/**
 		 * base function for the abstract class
@@ -776,18 +844,34 @@ public abstract class Move {
 		}
 		
 		/**
-		 * Creates a move
+		 * Creates a move, which is a promotion to a queen if the pawn is promoted.
 		 * @param board is the board
 		 * @param position is the start position of the move
 		 * @param destination is the destination of the move
-		 * @return the null move
+		 * @return the move, or the null move if there is no such move
 		 */
 		public static Move createMove(final Board board,
 									  final short position,
 									  final short destination) {
+			return createMove(board, position, destination, Piece.Type.QUEEN);
+		}
+		
+		/**
+		 * Creates a move
+		 * @param board is the board
+		 * @param position is the start position of the move
+		 * @param destination is the destination of the move
+		 * @param promotionType is the type that a promoted pawn becomes
+		 * @return the move, or the null move if there is no such move
+		 */
+		public static Move createMove(final Board board,
+									  final short position,
+									  final short destination,
+									  final Piece.Type promotionType) {
 			for (final Move move : board.getAllPossibleMoves()) {
 				if (move.getCurrentPosition() == position &&
-					move.getDestinationPosition() == destination) {
+					move.getDestinationPosition() == destination &&
+					(!(move instanceof PawnPromotion) || ((PawnPromotion) move).getPromotionType() == promotionType)) {
 					return move;
 				}
 			}
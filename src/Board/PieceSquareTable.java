@@ -0,0 +1,193 @@
+/**
+ * This class gives every piece a score for its material and its square.
+ * The tables are written from the side of white, with the 8th row first like
+ * the positions of the board, and black uses the same tables upside down.
+ * Every score is a packed middlegame and endgame score: the pawns and the king
+ * have their own endgame tables, and a pawn is worth more in the endgame.
+ * The kings are always on the board, so their material is not counted.
+ * A board keeps the sum of the scores of its pieces, and a move changes
+ * only the scores of the pieces that it moves or captures.
+ */
+
+package Board;
+
+import Pieces.Piece;
+
+public class PieceSquareTable {
+
+	private static final int NUM_PIECE_KINDS = Piece.Type.values().length * 2;
+	// flips the row of a position, so black uses the tables of white
+	private static final int FLIP_ROWS = 56;
+	private static final int PAWN_ENDGAME_VALUE = 120;
+
+	private static final int[] PAWN_TABLE = {
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		 50,  50,  50,  50,  50,  50,  50,  50,
+		 10,  10,  20,  30,  30,  20,  10,  10,
+		  5,   5,  10,  25,  25,  10,   5,   5,
+		  0,   0,   0,  20,  20,   0,   0,   0,
+		  5,  -5, -10,   0,   0, -10,  -5,   5,
+		  5,  10,  10, -20, -20,  10,  10,   5,
+		  0,   0,   0,   0,   0,   0,   0,   0
+	};
+	private static final int[] PAWN_ENDGAME_TABLE = {
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		 80,  80,  80,  80,  80,  80,  80,  80,
+		 50,  50,  50,  50,  50,  50,  50,  50,
+		 30,  30,  30,  30,  30,  30,  30,  30,
+		 20,  20,  20,  20,  20,  20,  20,  20,
+		 10,  10,  10,  10,  10,  10,  10,  10,
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		  0,   0,   0,   0,   0,   0,   0,   0
+	};
+	private static final int[] KNIGHT_TABLE = {
+		-50, -40, -30, -30, -30, -30, -40, -50,
+		-40, -20,   0,   0,   0,   0, -20, -40,
+		-30,   0,  10,  15,  15,  10,   0, -30,
+		-30,   5,  15,  20,  20,  15,   5, -30,
+		-30,   0,  15,  20,  20,  15,   0, -30,
+		-30,   5,  10,  15,  15,  10,   5, -30,
+		-40, -20,   0,   5,   5,   0, -20, -40,
+		-50, -40, -30, -30, -30, -30, -40, -50
+	};
+	private static final int[] BISHOP_TABLE = {
+		-20, -10, -10, -10, -10, -10, -10, -20,
+		-10,   0,   0,   0,   0,   0,   0, -10,
+		-10,   0,   5,  10,  10,   5,   0, -10,
+		-10,   5,   5,  10,  10,   5,   5, -10,
+		-10,   0,  10,  10,  10,  10,   0, -10,
+		-10,  10,  10,  10,  10,  10,  10, -10,
+		-10,   5,   0,   0,   0,   0,   5, -10,
+		-20, -10, -10, -10, -10, -10, -10, -20
+	};
+	private static final int[] ROOK_TABLE = {
+		  0,   0,   0,   0,   0,   0,   0,   0,
+		  5,  10,  10,  10,  10,  10,  10,   5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		 -5,   0,   0,   0,   0,   0,   0,  -5,
+		  0,   0,   0,   5,   5,   0,   0,   0
+	};
+	private static final int[] QUEEN_TABLE = {
+		-20, -10, -10,  -5,  -5, -10, -10, -20,
+		-10,   0,   0,   0,   0,   0,   0, -10,
+		-10,   0,   5,   5,   5,   5,   0, -10,
+		 -5,   0,   5,   5,   5,   5,   0,  -5,
+		  0,   0,   5,   5,   5,   5,   0,  -5,
+		-10,   5,   5,   5,   5,   5,   0, -10,
+		-10,   0,   5,   0,   0,   0,   0, -10,
+		-20, -10, -10,  -5,  -5, -10, -10, -20
+	};
+	private static final int[] KING_TABLE = {
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-30, -40, -40, -50, -50, -40, -40, -30,
+		-20, -30, -30, -40, -40, -30, -30, -20,
+		-10, -20, -20, -20, -20, -20, -20, -10,
+		 20,  20,   0,   0,   0,   0,  20,  20,
+		 20,  30,  10,   0,   0,  10,  30,  20
+	};
+	// the king goes to the center in the endgame
+	private static final int[] KING_ENDGAME_TABLE = {
+		-50, -40, -30, -20, -20, -30, -40, -50,
+		-30, -20, -10,   0,   0, -10, -20, -30,
+		-30, -10,  20,  30,  30,  20, -10, -30,
+		-30, -10,  30,  40,  40,  30, -10, -30,
+		-30, -10,  30,  40,  40,  30, -10, -30,
+		-30, -10,  20,  30,  30,  20, -10, -30,
+		-30, -30,   0,   0,   0,   0, -30, -30,
+		-50, -30, -30, -30, -30, -30, -30, -50
+	};
+
+	// the signed packed score of every kind of piece on every position, positive for white
+	private static final int[][] SCORES = new int[NUM_PIECE_KINDS][Helper.NUM_TILES];
+
+	static {
+		for (final Piece.Type type : Piece.Type.values()) {
+			final int material = getMaterial(type);
+			final int[] middlegameTable = getTable(type);
+			final int[] endgameTable = type == Piece.Type.PAWN ? PAWN_ENDGAME_TABLE :
+									   type.isKing() ? KING_ENDGAME_TABLE : middlegameTable;
+			for (final PlayerColor color : PlayerColor.values()) {
+				for (int position = 0; position < Helper.NUM_TILES; ++position) {
+					final int tablePosition = color.isWhite() ? position : position ^ FLIP_ROWS;
+					final int middlegame = TaperedScore.getMiddlegame(material) + middlegameTable[tablePosition];
+					final int endgame = TaperedScore.getEndgame(material) + endgameTable[tablePosition];
+					SCORES[pieceKind(type, color)][position] = color.isWhite() ?
+							TaperedScore.of(middlegame, endgame) : TaperedScore.of(-middlegame, -endgame);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Make this class a container for useful functions
+	 */
+	private PieceSquareTable() { throw new RuntimeException("Cant initiate this object!"); }
+
+	/**
+	 * Returns the material of the given type, without its square.
+	 * @param type is the given type.
+	 * @return the packed material of a white piece.
+	 */
+	public static int getMaterial(final Piece.Type type) {
+		if (type.isKing()) {
+			return 0;
+		}
+		return TaperedScore.of(type.getValue(), type == Piece.Type.PAWN ? PAWN_ENDGAME_VALUE : type.getValue());
+	}
+
+	/**
+	 * Returns the middlegame table of the given type.
+	 * @param type is the given type.
+	 * @return the table.
+	 */
+	private static int[] getTable(final Piece.Type type) {
+		switch (type) {
+			case PAWN: return PAWN_TABLE;
+			case KNIGHT: return KNIGHT_TABLE;
+			case BISHOP: return BISHOP_TABLE;
+			case ROOK: return ROOK_TABLE;
+			case QUEEN: return QUEEN_TABLE;
+			default: return KING_TABLE;
+		}
+	}
+
+	/**
+	 * Returns the index of the given type and color.
+	 * @param type is the given type.
+	 * @param color is the given color.
+	 * @return the index.
+	 */
+	private static int pieceKind(final Piece.Type type, final PlayerColor color) {
+		return type.ordinal() * 2 + color.ordinal();
+	}
+
+	/**
+	 * Returns the score of the given piece on its position.
+	 * @param piece is the given piece.
+	 * @return the packed score, positive for a white piece and negative for a black piece.
+	 */
+	public static int score(final Piece piece) {
+		return SCORES[pieceKind(piece.getPieceType(), piece.getPieceColor())][piece.getPosition()];
+	}
+
+	/**
+	 * Calculates the score of all the pieces of the given board.
+	 * @param board is the given board.
+	 * @return the packed score, positive for white.
+	 */
+	static int score(final Board board) {
+		int score = 0;
+		for (final Piece piece : board.getWhitePieces()) {
+			score += score(piece);
+		}
+		for (final Piece piece : board.getBlackPieces()) {
+			score += score(piece);
+		}
+		return score;
+	}
+}
@@ -0,0 +1,89 @@
+/**
+ * This class packs a middlegame score and an endgame score into a single int,
+ * so a term of the evaluation adds both of its scores with one addition.
+ * The endgame score is kept in the high 16 bits and the middlegame score in the
+ * low 16 bits. The final score blends the two by the phase of the game, which
+ * goes down from MAX_PHASE to 0 as the pieces are captured.
+ */
+
+package Board;
+
+import Pieces.Piece;
+
+public class TaperedScore {
+
+	// the phase of a board with all the pieces
+	public static final int MAX_PHASE = 24;
+
+	/**
+	 * Make this class a container for useful functions
+	 */
+	private TaperedScore() { throw new RuntimeException("Cant initiate this object!"); }
+
+	/**
+	 * Packs the given scores.
+	 * @param middlegame is the middlegame score.
+	 * @param endgame is the endgame score.
+	 * @return the packed score.
+	 */
+	public static int of(final int middlegame, final int endgame) {
+		return (endgame << 16) + middlegame;
+	}
+
+	/**
+	 * Returns the middlegame score of a packed score.
+	 * @param score is the packed score.
+	 * @return the middlegame score.
+	 */
+	public static int getMiddlegame(final int score) { return (short) score; }
+
+	/**
+	 * Returns the endgame score of a packed score. The middlegame score may have
+	 * borrowed from the high bits, so it is rounded back.
+	 * @param score is the packed score.
+	 * @return the endgame score.
+	 */
+	public static int getEndgame(final int score) { return (short) ((score + 0x8000) >> 16); }
+
+	/**
+	 * Blends the scores of a packed score by the phase of the game.
+	 * @param score is the packed score.
+	 * @param phase is the phase of the game.
+	 * @return the blended score.
+	 */
+	public static int taper(final int score, final int phase) {
+		final int middlegamePhase = Math.min(phase, MAX_PHASE);
+		return (getMiddlegame(score) * middlegamePhase + getEndgame(score) * (MAX_PHASE - middlegamePhase)) / MAX_PHASE;
+	}
+
+	/**
+	 * Returns the part of the given type in the phase of the game.
+	 * @param type is the given type.
+	 * @return the phase of the type.
+	 */
+	public static int getPhase(final Piece.Type type) {
+		switch (type) {
+			case KNIGHT: return 1;
+			case BISHOP: return 1;
+			case ROOK: return 2;
+			case QUEEN: return 4;
+			default: return 0;
+		}
+	}
+
+	/**
+	 * Calculates the phase of the given board.
+	 * @param board is the given board.
+	 * @return the phase.
+	 */
+	static int getPhase(final Board board) {
+		int phase = 0;
+		for (final Piece piece : board.getWhitePieces()) {
+			phase += getPhase(piece.getPieceType());
+		}
+		for (final Piece piece : board.getBlackPieces()) {
+			phase += getPhase(piece.getPieceType());
+		}
+		return phase;
+	}
+}
@@ -0,0 +1,125 @@
+/**
+ * This class calculates the zobrist hash of a board, which is a 64 bit
+ * number that identifies the position on the board. Two boards with the same
+ * pieces, the same player to play, the same en passant pawn and the same
+ * castling rights always get the same hash.
+ */
+
+package Board;
+
+import java.util.Random;
+
+import Pieces.Piece;
+
+public class Zobrist {
+
+	// fixed seed, so the hashes are the same in every run of the program
+	private static final long SEED = 0x5A0B81571L;
+	private static final int NUM_PIECE_KINDS = Piece.Type.values().length * 2;
+	private static final long[][] PIECE_KEYS = new long[NUM_PIECE_KINDS][Helper.NUM_TILES];
+	private static final long[] EN_PASSANT_KEYS = new long[Helper.NUM_TILES_PER_ROW];
+	private static final long[] CASTLING_KEYS = new long[4];
+	private static final long BLACK_TO_MOVE_KEY;
+
+	static {
+		final Random random = new Random(SEED);
+		for (final long[] keys : PIECE_KEYS) {
+			for (int i = 0; i < keys.length; ++i) {
+				keys[i] = random.nextLong();
+			}
+		}
+		for (int i = 0; i < EN_PASSANT_KEYS.length; ++i) {
+			EN_PASSANT_KEYS[i] = random.nextLong();
+		}
+		for (int i = 0; i < CASTLING_KEYS.length; ++i) {
+			CASTLING_KEYS[i] = random.nextLong();
+		}
+		BLACK_TO_MOVE_KEY = random.nextLong();
+	}
+
+	/**
+	 * Make this class a container for useful functions
+	 */
+	private Zobrist() { throw new RuntimeException("Cant initiate this object!"); }
+
+	/**
+	 * Returns the key of the given piece on its position.
+	 * @param piece is the given piece.
+	 * @return the key.
+	 */
+	public static long pieceKey(final Piece piece) {
+		return PIECE_KEYS[pieceKind(piece)][piece.getPosition()];
+	}
+
+	/**
+	 * Returns the index of the type and the color of the given piece.
+	 * @param piece is the given piece.
+	 * @return the index.
+	 */
+	private static int pieceKind(final Piece piece) {
+		return piece.getPieceType().ordinal() * 2 + piece.getPieceColor().ordinal();
+	}
+
+	/**
+	 * Calculates the hash of the given board.
+	 * @param board is the given board.
+	 * @return the hash.
+	 */
+	static long hash(final Board board) {
+		long hash = 0;
+		for (final Piece piece : board.getWhitePieces()) {
+			hash ^= pieceKey(piece);
+		}
+		for (final Piece piece : board.getBlackPieces()) {
+			hash ^= pieceKey(piece);
+		}
+		if (board.currentPlayer().getColor().isBlack()) {
+			hash ^= BLACK_TO_MOVE_KEY;
+		}
+		if (board.getEnPassantPawn() != null) {
+			hash ^= EN_PASSANT_KEYS[board.getEnPassantPawn().getPosition() % Helper.NUM_TILES_PER_ROW];
+		}
+		// white king side, white queen side, black king side, black queen side
+		if (canCastle(board, (short) 60, (short) 63)) { hash ^= CASTLING_KEYS[0]; }
+		if (canCastle(board, (short) 60, (short) 56)) { hash ^= CASTLING_KEYS[1]; }
+		if (canCastle(board, (short) 4, (short) 7)) { hash ^= CASTLING_KEYS[2]; }
+		if (canCastle(board, (short) 4, (short) 0)) { hash ^= CASTLING_KEYS[3]; }
+		return hash;
+	}
+
+	/**
+	 * Calculates the pawn hash of the given board, which identifies only the
+	 * pawns on the board, so the boards with the same pawns get the same hash.
+	 * @param board is the given board.
+	 * @return the pawn hash.
+	 */
+	static long pawnHash(final Board board) {
+		long hash = 0;
+		for (final Piece piece : board.getWhitePieces()) {
+			if (piece.getPieceType() == Piece.Type.PAWN) {
+				hash ^= pieceKey(piece);
+			}
+		}
+		for (final Piece piece : board.getBlackPieces()) {
+			if (piece.getPieceType() == Piece.Type.PAWN) {
+				hash ^= pieceKey(piece);
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Checks whether the king and the rook are still in their first positions.
+	 * @param board is the given board.
+	 * @param kingPosition is the first position of the king.
+	 * @param rookPosition is the first position of the rook.
+	 * @return true if both did not move yet, o.w false.
+	 */
+	static boolean canCastle(final Board board, final short kingPosition, final short rookPosition) {
+		final Piece king = board.getTile(kingPosition).getStandingPiece();
+		final Piece rook = board.getTile(rookPosition).getStandingPiece();
+		return king != null && king.getPieceType().isKing() && king.isFirstMove() &&
+			   rook != null && rook.getPieceType().isRook() && rook.isFirstMove() &&
+			   king.getPieceColor() == rook.getPieceColor();
+	}
+}
@@ -0,0 +1,219 @@
+/**
+ * This class builds a book file for OpeningBook from PGN files. Every game is
+ * replayed up to a limit of plies, and every move that was played is counted
+ * with the points it brought (2 for a win, 1 for a draw), so the moves that
+ * won more games get a higher weight. The boards are kept by their Polyglot
+ * keys, like in the books of other programs.
+ * The games are read by PgnReader and replayed from the board of their FEN
+ * tag, or from the standard board. The files are read in parallel, and the
+ * games of every file are replayed in parallel. Every thread counts the moves
+ * in its own table, and the tables are added together at the end, so the
+ * threads never wait for each other.
+ */
+
+package Book;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Board.Board;
+import Board.Move;
+import Pgn.PgnGame;
+import Pgn.PgnReader;
+
+public class BookBuilder {
+
+	// the games that wait for a thread, before the readers replay games by themselves
+	private static final int QUEUE_SIZE = 1024;
+
+	private final int maxPly;
+	private final int minGames;
+	private final int threadCount;
+	private final List<MoveCountTable> tables;
+	private final ThreadLocal<MoveCountTable> threadTable;
+	private final AtomicLong gameCount;
+	private final AtomicLong skippedGameCount;
+
+	/**
+	 * Constructor
+	 * @param maxPly is the number of plies that are replayed from every game.
+	 * @param minGames is the minimal number of games of a move in the book.
+	 * @param threadCount is the number of threads.
+	 */
+	public BookBuilder(final int maxPly, final int minGames, final int threadCount) {
+		this.maxPly = maxPly;
+		this.minGames = minGames;
+		this.threadCount = threadCount;
+		this.tables = new ArrayList<>();
+		this.threadTable = new ThreadLocal<MoveCountTable>() {
+
+			@Override
+			protected MoveCountTable initialValue() {
+				final MoveCountTable table = new MoveCountTable();
+				synchronized (BookBuilder.this.tables) {
+					BookBuilder.this.tables.add(table);
+				}
+				return table;
+			}
+		};
+		this.gameCount = new AtomicLong();
+		this.skippedGameCount = new AtomicLong();
+	}
+
+	/**
+	 * Reads the given PGN files and writes the book file.
+	 * @param pgnFiles are the given PGN files.
+	 * @param bookFile is the path of the book file.
+	 * @return the number of entries in the book.
+	 * @throws IOException if a file cannot be read or written.
+	 * @throws InterruptedException if the thread was interrupted.
+	 */
+	public int build(final List<Path> pgnFiles, final Path bookFile) throws IOException, InterruptedException {
+		final ExecutorService readers = Executors.newFixedThreadPool(Math.max(1, Math.min(pgnFiles.size(), this.threadCount)));
+		// a full queue makes the reader replay the game by itself, so the games are not all kept in memory
+		final ExecutorService replayers = new ThreadPoolExecutor(this.threadCount, this.threadCount, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(QUEUE_SIZE), new ThreadPoolExecutor.CallerRunsPolicy());
+		final List<IOException> errors = new ArrayList<>();
+		for (final Path pgnFile : pgnFiles) {
+			readers.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						readFile(pgnFile, replayers);
+					} catch (IOException e) {
+						synchronized (errors) {
+							errors.add(e);
+						}
+					}
+				}
+			});
+		}
+		readers.shutdown();
+		readers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+		replayers.shutdown();
+		replayers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+		if (!errors.isEmpty()) {
+			throw errors.get(0);
+		}
+		final MoveCountTable total = new MoveCountTable();
+		for (final MoveCountTable table : this.tables) {
+			total.addAll(table);
+		}
+		final BookEntries entries = total.toBookEntries(this.minGames);
+		entries.write(bookFile);
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of games that were replayed.
+	 * @return the number of games.
+	 */
+	public long getGameCount() { return this.gameCount.get(); }
+
+	/**
+	 * Returns the number of games that were skipped, because they have no result or their FEN tag is not valid.
+	 * @return the number of skipped games.
+	 */
+	public long getSkippedGameCount() { return this.skippedGameCount.get(); }
+
+	/**
+	 * Reads the games of the given file, without their moves after the ply limit,
+	 * and sends them to the replayers.
+	 * @param pgnFile is the given file.
+	 * @param replayers are the threads that replay the games.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private void readFile(final Path pgnFile, final ExecutorService replayers) throws IOException {
+		try (final PgnReader reader = PgnReader.open(pgnFile).setMaxPlies(this.maxPly)) {
+			PgnReader.RawGame game;
+			while ((game = reader.readRawGame()) != null) {
+				final PgnReader.RawGame currentGame = game;
+				replayers.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						try {
+							count(currentGame);
+						} catch (RuntimeException e) {
+							// a broken game does not stop the other games
+							BookBuilder.this.skippedGameCount.incrementAndGet();
+						}
+					}
+				});
+			}
+		}
+	}
+
+	/**
+	 * Replays the given game and counts its moves in the table of this thread. The
+	 * moves of a game end at the ply limit, or before a move that could not be played.
+	 * @param rawGame is the given game.
+	 */
+	private void count(final PgnReader.RawGame rawGame) {
+		final int whitePoints = getWhitePoints(rawGame.getResult());
+		if (whitePoints < 0) {
+			this.skippedGameCount.incrementAndGet();
+			return;
+		}
+		final PgnGame game = rawGame.play();
+		if (game.getStartingBoard() == null) {
+			this.skippedGameCount.incrementAndGet();
+			return;
+		}
+		final MoveCountTable table = this.threadTable.get();
+		for (final Move move : game.getMoves()) {
+			// the book keeps no promoted piece, so it stops before a promotion
+			if (move instanceof Move.PawnPromotion) {
+				break;
+			}
+			final Board board = move.getBoard();
+			final int points = board.currentPlayer().getColor().isWhite() ? whitePoints : 2 - whitePoints;
+			table.add(PolyglotKeys.getKey(board), BookMoves.encode(move), points);
+		}
+		this.gameCount.incrementAndGet();
+	}
+
+	/**
+	 * Returns the points of white in the given result.
+	 * @param result is the given result.
+	 * @return 2 for a win, 1 for a draw, 0 for a loss, or -1 if the game did not end.
+	 */
+	private static int getWhitePoints(final String result) {
+		if ("1-0".equals(result)) { return 2; }
+		if ("1/2-1/2".equals(result)) { return 1; }
+		if ("0-1".equals(result)) { return 0; }
+		return -1;
+	}
+
+	/**
+	 * Builds a book file from the command line:
+	 * BookBuilder book-file max-ply pgn-file...
+	 * @param args are the arguments.
+	 * @throws Exception if the book cannot be built.
+	 */
+	public static void main(final String[] args) throws Exception {
+		if (args.length < 3) {
+			System.err.println("usage: BookBuilder <book file> <max ply> <pgn file>...");
+			return;
+		}
+		final List<Path> pgnFiles = new ArrayList<>();
+		for (int i = 2; i < args.length; ++i) {
+			pgnFiles.add(Paths.get(args[i]));
+		}
+		final BookBuilder builder = new BookBuilder(Integer.parseInt(args[1]), 1, Runtime.getRuntime().availableProcessors());
+		final long startTime = System.currentTimeMillis();
+		final int entries = builder.build(pgnFiles, Paths.get(args[0]));
+		System.out.println(builder.getGameCount() + " games, " + builder.getSkippedGameCount() + " skipped, " +
+				entries + " entries, " + (System.currentTimeMillis() - startTime) + " ms");
+	}
+}
@@ -0,0 +1,128 @@
+/**
+ * This class keeps the entries of a book before they are written to the book
+ * file. An entry is a key and a move with its weight, in primitive arrays.
+ */
+
+package Book;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class BookEntries {
+
+	static final int MAX_WEIGHT = 0xFFFF;
+
+	private final long[] keys;
+	// the move in the high 16 bits and the weight in the low 16 bits
+	private final int[] moveWeights;
+	private int size;
+
+	/**
+	 * Constructor
+	 * @param capacity is the number of entries.
+	 */
+	BookEntries(final int capacity) {
+		this.keys = new long[capacity];
+		this.moveWeights = new int[capacity];
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the number of entries.
+	 * @return the number of entries.
+	 */
+	int size() { return this.size; }
+
+	/**
+	 * Adds an entry.
+	 * @param key is the zobrist hash of the board.
+	 * @param move is the encoded move.
+	 * @param weight is the weight of the move.
+	 */
+	void add(final long key, final int move, final int weight) {
+		this.keys[this.size] = key;
+		this.moveWeights[this.size] = move << 16 | weight;
+		++this.size;
+	}
+
+	/**
+	 * Sorts the entries by key as unsigned numbers, and the moves of every key
+	 * from the highest weight to the lowest, like in the Polyglot format.
+	 * Heap sort is used, because it sorts the two arrays in place.
+	 */
+	void sort() {
+		for (int i = this.size / 2 - 1; i >= 0; --i) {
+			siftDown(i, this.size);
+		}
+		for (int end = this.size - 1; end > 0; --end) {
+			swap(0, end);
+			siftDown(0, end);
+		}
+	}
+
+	/**
+	 * Moves the given entry down the heap, until it is not smaller than its children.
+	 * @param index is the given entry.
+	 * @param end is the size of the heap.
+	 */
+	private void siftDown(int index, final int end) {
+		while (2 * index + 1 < end) {
+			int child = 2 * index + 1;
+			if (child + 1 < end && compare(child + 1, child) > 0) {
+				++child;
+			}
+			if (compare(index, child) >= 0) {
+				return;
+			}
+			swap(index, child);
+			index = child;
+		}
+	}
+
+	/**
+	 * Compares two entries in the order of the book.
+	 * @param first is the first entry.
+	 * @param second is the second entry.
+	 * @return a negative number if the first entry comes before the second, o.w a non negative number.
+	 */
+	private int compare(final int first, final int second) {
+		final int keyOrder = Long.compareUnsigned(this.keys[first], this.keys[second]);
+		if (keyOrder != 0) { return keyOrder; }
+		// the higher weight comes first
+		return Integer.compare(this.moveWeights[second] & MAX_WEIGHT, this.moveWeights[first] & MAX_WEIGHT);
+	}
+
+	/**
+	 * Swaps two entries.
+	 * @param first is the first entry.
+	 * @param second is the second entry.
+	 */
+	private void swap(final int first, final int second) {
+		final long key = this.keys[first];
+		this.keys[first] = this.keys[second];
+		this.keys[second] = key;
+		final int moveWeight = this.moveWeights[first];
+		this.moveWeights[first] = this.moveWeights[second];
+		this.moveWeights[second] = moveWeight;
+	}
+
+	/**
+	 * Writes the entries to the given file, in the layout of OpeningBook.
+	 * @param path is the path of the file.
+	 * @throws IOException if the file cannot be written.
+	 */
+	void write(final Path path) throws IOException {
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+			for (int i = 0; i < this.size; ++i) {
+				output.writeLong(this.keys[i]);
+				output.writeShort(this.moveWeights[i] >>> 16);
+				output.writeShort(this.moveWeights[i] & MAX_WEIGHT);
+				// the learn field is not used
+				output.writeInt(0);
+			}
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/**
+ * This class converts moves to the move numbers of the Polyglot format and back.
+ * A Polyglot move keeps the file and the row of the destination in bits 0-5,
+ * the file and the row of the source in bits 6-11 and the promotion piece in
+ * bits 12-14, when row 0 is the first row of white. In my program position 0 is
+ * a8, so the rows are flipped. Castling is kept as the king taking its own rook.
+ */
+
+package Book;
+
+import Board.Helper;
+import Board.Move;
+
+public class BookMoves {
+
+	/**
+	 * Make this class a container for useful functions
+	 */
+	private BookMoves() { throw new RuntimeException("Cant initiate this object!"); }
+
+	/**
+	 * Encodes the given move.
+	 * @param move is the given move.
+	 * @return the encoded move.
+	 */
+	public static int encode(final Move move) {
+		short destination = move.getDestinationPosition();
+		if (move.isCastlingMove()) {
+			// the king moves two tiles, the rook stands in the corner beyond it
+			destination = (short) (destination > move.getCurrentPosition() ? destination + 1 : destination - 2);
+		}
+		return toPolyglotSquare(move.getCurrentPosition()) << 6 | toPolyglotSquare(destination);
+	}
+
+	/**
+	 * Returns the source position of the encoded move.
+	 * @param encodedMove is the encoded move.
+	 * @return the source position.
+	 */
+	static short getSource(final int encodedMove) {
+		return fromPolyglotSquare((encodedMove >> 6) & 0x3F);
+	}
+
+	/**
+	 * Returns the destination position of the encoded move. The rook corner of a
+	 * castle move is converted back to the destination of the king.
+	 * @param encodedMove is the encoded move.
+	 * @return the destination position.
+	 */
+	static short getDestination(final int encodedMove) {
+		final short source = getSource(encodedMove);
+		final short destination = fromPolyglotSquare(encodedMove & 0x3F);
+		final boolean isKingHome = source == 4 || source == 60;
+		if (isKingHome && destination == source + 3) { return (short) (source + 2); }
+		if (isKingHome && destination == source - 4) { return (short) (source - 2); }
+		return destination;
+	}
+
+	/**
+	 * Converts a position of my program to a square of the Polyglot format.
+	 * @param position is the given position.
+	 * @return the square.
+	 */
+	private static int toPolyglotSquare(final int position) {
+		final int row = Helper.NUM_TILES_PER_ROW - 1 - position / Helper.NUM_TILES_PER_ROW;
+		return row * Helper.NUM_TILES_PER_ROW + position % Helper.NUM_TILES_PER_ROW;
+	}
+
+	/**
+	 * Converts a square of the Polyglot format to a position of my program.
+	 * @param square is the given square.
+	 * @return the position.
+	 */
+	private static short fromPolyglotSquare(final int square) {
+		// the conversion is its own inverse
+		return (short) toPolyglotSquare(square);
+	}
+}
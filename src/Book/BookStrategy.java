@@ -0,0 +1,53 @@
+/**
+ * This class is a decorator to a move strategy, which plays the moves of the
+ * opening book while the board is in the book, and searches the board with
+ * the decorated strategy when it is not.
+ */
+
+package Book;
+
+import java.util.Collections;
+
+import AI.MoveStrategy;
+import AI.SearchHandle;
+import AI.SearchListener;
+import AI.SearchResult;
+import Board.Board;
+import Board.Move;
+
+public class BookStrategy implements MoveStrategy {
+
+	private final OpeningBook openingBook;
+	private final MoveStrategy decoratedStrategy;
+
+	/**
+	 * Constructor
+	 * @param openingBook is the opening book.
+	 * @param decoratedStrategy is the strategy that searches the boards that are not in the book.
+	 */
+	public BookStrategy(final OpeningBook openingBook, final MoveStrategy decoratedStrategy) {
+		this.openingBook = openingBook;
+		this.decoratedStrategy = decoratedStrategy;
+	}
+
+	/**
+	 * Returns the move of the book, or searches the board if it is not in the book.
+	 * A book move is returned as a result of depth 0 without a score.
+	 */
+	@Override
+	public SearchResult search(final Board board, final SearchHandle searchHandle, final SearchListener searchListener) {
+		final Move bookMove = this.openingBook.pickMove(board);
+		if (bookMove == null) {
+			return this.decoratedStrategy.search(board, searchHandle, searchListener);
+		}
+		return new SearchResult.Builder().setBestMove(bookMove, 0)
+										 .setPrincipalVariation(Collections.singletonList(bookMove))
+										 .build();
+	}
+
+	/**
+	 * to string function.
+	 */
+	@Override
+	public String toString() { return "Book + " + this.decoratedStrategy; }
+}
@@ -0,0 +1,150 @@
+/**
+ * This class counts how many times every move was played in every board, and
+ * how many points it brought to the player that played it (2 for a win, 1 for
+ * a draw). The counts are kept in primitive arrays with open addressing, so
+ * millions of moves do not create millions of objects.
+ */
+
+package Book;
+
+class MoveCountTable {
+
+	private static final int INITIAL_CAPACITY = 1 << 16;
+	// a move is never from a square to itself, so 0 marks an empty slot
+	private static final int EMPTY = 0;
+
+	private long[] keys;
+	private int[] moves;
+	private int[] games;
+	private long[] points;
+	private int size;
+
+	/**
+	 * Constructor
+	 */
+	MoveCountTable() {
+		allocate(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Returns the number of different moves in the table.
+	 * @return the number of moves.
+	 */
+	int size() { return this.size; }
+
+	/**
+	 * Adds a game to the count of the given move.
+	 * @param key is the zobrist hash of the board.
+	 * @param move is the encoded move.
+	 * @param gamePoints is the points that the move brought in this game.
+	 */
+	void add(final long key, final int move, final int gamePoints) {
+		add(key, move, 1, gamePoints);
+	}
+
+	/**
+	 * Adds all the counts of the given table to this table.
+	 * @param other is the given table.
+	 */
+	void addAll(final MoveCountTable other) {
+		for (int i = 0; i < other.moves.length; ++i) {
+			if (other.moves[i] != EMPTY) {
+				add(other.keys[i], other.moves[i], other.games[i], other.points[i]);
+			}
+		}
+	}
+
+	/**
+	 * Adds the given counts to the given move.
+	 * @param key is the zobrist hash of the board.
+	 * @param move is the encoded move.
+	 * @param gameCount is the number of games.
+	 * @param gamePoints is the number of points.
+	 */
+	private void add(final long key, final int move, final int gameCount, final long gamePoints) {
+		if (2 * (this.size + 1) > this.moves.length) {
+			resize();
+		}
+		final int mask = this.moves.length - 1;
+		int index = indexOf(key, move) & mask;
+		while (this.moves[index] != EMPTY && (this.keys[index] != key || this.moves[index] != move)) {
+			index = (index + 1) & mask;
+		}
+		if (this.moves[index] == EMPTY) {
+			this.keys[index] = key;
+			this.moves[index] = move;
+			++this.size;
+		}
+		this.games[index] += gameCount;
+		this.points[index] += gamePoints;
+	}
+
+	/**
+	 * Returns the slot that a move starts looking from.
+	 * @param key is the zobrist hash of the board.
+	 * @param move is the encoded move.
+	 * @return the slot, before the mask.
+	 */
+	private static int indexOf(final long key, final int move) {
+		long hash = (key ^ move) * 0x9E3779B97F4A7C15L;
+		hash ^= hash >>> 32;
+		return (int) hash;
+	}
+
+	/**
+	 * Doubles the capacity of the table.
+	 */
+	private void resize() {
+		final long[] oldKeys = this.keys;
+		final int[] oldMoves = this.moves;
+		final int[] oldGames = this.games;
+		final long[] oldPoints = this.points;
+		allocate(oldMoves.length * 2);
+		for (int i = 0; i < oldMoves.length; ++i) {
+			if (oldMoves[i] != EMPTY) {
+				add(oldKeys[i], oldMoves[i], oldGames[i], oldPoints[i]);
+			}
+		}
+	}
+
+	/**
+	 * Creates empty arrays of the given capacity.
+	 * @param capacity is the given capacity, a power of two.
+	 */
+	private void allocate(final int capacity) {
+		this.keys = new long[capacity];
+		this.moves = new int[capacity];
+		this.games = new int[capacity];
+		this.points = new long[capacity];
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the entries of the book, sorted by key. A move gets a weight by its
+	 * points, and moves that did not bring any point or were played in less than
+	 * the given number of games are left out.
+	 * @param minGames is the minimal number of games of a move.
+	 * @return the entries, in the layout of the book file.
+	 */
+	BookEntries toBookEntries(final int minGames) {
+		long maxPoints = 0;
+		int count = 0;
+		for (int i = 0; i < this.moves.length; ++i) {
+			if (this.moves[i] != EMPTY && this.games[i] >= minGames && this.points[i] > 0) {
+				maxPoints = Math.max(maxPoints, this.points[i]);
+				++count;
+			}
+		}
+		final BookEntries entries = new BookEntries(count);
+		for (int i = 0; i < this.moves.length; ++i) {
+			if (this.moves[i] != EMPTY && this.games[i] >= minGames && this.points[i] > 0) {
+				// the weights are scaled down to fit in 16 bits, but never to 0
+				final long weight = maxPoints <= BookEntries.MAX_WEIGHT ? this.points[i] :
+					Math.max(1, this.points[i] * BookEntries.MAX_WEIGHT / maxPoints);
+				entries.add(this.keys[i], this.moves[i], (int) weight);
+			}
+		}
+		entries.sort();
+		return entries;
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ * This class represents an opening book, which is a read-only file of known
+ * good moves for the boards of the opening. The file is mapped to memory, so
+ * looking for a move does not read the file or create objects.
+ * The file uses the layout of the Polyglot format: entries of 16 bytes, sorted
+ * by key, each with a key (8 bytes), a move (2 bytes), a weight (2 bytes) and a
+ * learn value (4 bytes), all big endian. The keys are the Polyglot keys of the
+ * boards (PolyglotKeys), so books of other programs can be used as well.
+ */
+
+package Book;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+import Board.Board;
+import Board.Move;
+
+public class OpeningBook {
+
+	public static final int ENTRY_SIZE = 16;
+	private static final int MOVE_OFFSET = 8;
+	private static final int WEIGHT_OFFSET = 10;
+
+	private final MappedByteBuffer buffer;
+	private final int entryCount;
+
+	/**
+	 * Constructor, which maps the given file to memory.
+	 * @param path is the path of the book file.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public OpeningBook(final Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > (long) Integer.MAX_VALUE) {
+				throw new IOException("The book is too big: " + path);
+			}
+			// the mapping stays valid after the channel is closed
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		this.entryCount = this.buffer.capacity() / ENTRY_SIZE;
+	}
+
+	/**
+	 * Returns the number of entries in the book.
+	 * @return the number of entries.
+	 */
+	public int size() { return this.entryCount; }
+
+	/**
+	 * Picks a move of the given board from the book. Moves with a higher weight
+	 * are picked more often.
+	 * @param board is the given board.
+	 * @return the move, or null if the board is not in the book.
+	 */
+	public Move pickMove(final Board board) {
+		final long key = PolyglotKeys.getKey(board);
+		final int first = findFirstEntry(key);
+		int totalWeight = 0;
+		for (int i = first; i < this.entryCount && getKey(i) == key; ++i) {
+			totalWeight += getWeight(i);
+		}
+		if (totalWeight == 0) { return null; }
+		int chosenWeight = ThreadLocalRandom.current().nextInt(totalWeight);
+		for (int i = first; i < this.entryCount && getKey(i) == key; ++i) {
+			chosenWeight -= getWeight(i);
+			if (chosenWeight < 0) {
+				return findLegalMove(board, getMove(i));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the first entry that its key is not smaller than the given key, by binary search.
+	 * The keys are compared as unsigned numbers, like in the Polyglot format.
+	 * @param key is the given key.
+	 * @return the index of the entry.
+	 */
+	private int findFirstEntry(final long key) {
+		int low = 0;
+		int high = this.entryCount;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (Long.compareUnsigned(getKey(middle), key) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the key of the given entry.
+	 * @param index is the index of the entry.
+	 * @return the key.
+	 */
+	private long getKey(final int index) { return this.buffer.getLong(index * ENTRY_SIZE); }
+
+	/**
+	 * Returns the encoded move of the given entry.
+	 * @param index is the index of the entry.
+	 * @return the encoded move.
+	 */
+	private int getMove(final int index) { return this.buffer.getShort(index * ENTRY_SIZE + MOVE_OFFSET) & 0xFFFF; }
+
+	/**
+	 * Returns the weight of the given entry.
+	 * @param index is the index of the entry.
+	 * @return the weight.
+	 */
+	private int getWeight(final int index) { return this.buffer.getShort(index * ENTRY_SIZE + WEIGHT_OFFSET) & 0xFFFF; }
+
+	/**
+	 * Returns the legal move of the given board that matches the encoded move.
+	 * @param board is the given board.
+	 * @param encodedMove is the encoded move.
+	 * @return the move, or null if the move is not legal in this board.
+	 */
+	private static Move findLegalMove(final Board board, final int encodedMove) {
+		final short source = BookMoves.getSource(encodedMove);
+		final short destination = BookMoves.getDestination(encodedMove);
+		for (final Move move : board.currentPlayer().getPossibleMoves()) {
+			if (move.getCurrentPosition() == source && move.getDestinationPosition() == destination &&
+					board.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+				return move;
+			}
+		}
+		return null;
+	}
+}
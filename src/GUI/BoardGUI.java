@@ -13,6 +13,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
@@ -22,16 +24,29 @@ import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
 import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
 import javax.swing.SwingWorker;
 import javax.swing.WindowConstants;
-import AI.MiniMax;
+import AI.LazySMP;
+import AI.MonteCarloTree;
 import AI.MoveStrategy;
+import AI.SearchHandle;
+import AI.SearchListener;
+import AI.SearchResult;
+import AI.TranspositionTable;
+import Book.BookStrategy;
+import Book.OpeningBook;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
@@ -64,6 +79,7 @@ public class BoardGUI extends Observable{
 	private boolean settingsAreDone;
 	private Move botMove;
 	private static String defaultImagesPath = "art/";
+	private static String defaultBookPath = "book.bin";
 	private final static Color lightTileColor = Color.decode("#FFFACD");
 	private final static Color darkTileColor = Color.decode("#593E1A");
 	
@@ -76,8 +92,16 @@ public class BoardGUI extends Observable{
 	private final BoardPanel boardPanel;
 	private final MoveLog moveLog;
 	public final GameSetup gameSetup;
-	
-	private static final BoardGUI INSTANCE = new BoardGUI();
+	// the bot remembers the searched boards from one move to the next
+	private final TranspositionTable transpositionTable;
+	// the Monte Carlo bot keeps its tree from one move to the next
+	private final MonteCarloTree monteCarloTree;
+	// the book of the opening moves of the bot, or null if there is no book file
+	private final OpeningBook openingBook;
+	// the search of the bot on the time of the human player, or null
+	private PonderSearch ponderSearch;
+	// the handle of the search of the bot, or null
+	private SearchHandle searchHandle;
 	
 	/**
 	 * Constructor which initializes all the parameters.
@@ -99,13 +123,51 @@ public class BoardGUI extends Observable{
 		this.addObserver(new BoardObserver());
 		this.moveLog = new MoveLog();
 		this.gameSetup = new GameSetup(this.gameFrame, true);
+		this.transpositionTable = new TranspositionTable(LazySMP.DEFAULT_TABLE_SIZE);
+		this.monteCarloTree = new MonteCarloTree(MonteCarloTree.DEFAULT_CAPACITY);
+		this.openingBook = loadOpeningBook();
 		this.gameFrame.add(this.boardPanel, BorderLayout.CENTER);
+		this.gameFrame.addWindowListener(new WindowAdapter() {
+			
+			@Override
+			public void windowClosing(WindowEvent e) {
+				cancelAllSearches();
+			}
+		});
 		this.settingsAreDone = false;
 		this.gameFrame.setVisible(true);
 		this.timeMode = false;
 		this.showScreenTimeOn = false;
 	}
 	
+	/**
+	 * Creates the board gui on the first use, so the window is never created by a
+	 * program that only loads this class.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private static class Holder {
+		
+		private static final BoardGUI INSTANCE = new BoardGUI();
+	}
+	
+	/**
+	 * Loads the opening book from the default path.
+	 * @return the opening book, or null if there is no book file.
+	 */
+	private static OpeningBook loadOpeningBook() {
+		final File bookFile = new File(defaultBookPath);
+		if (!bookFile.isFile()) {
+			return null;
+		}
+		try {
+			return new OpeningBook(bookFile.toPath());
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+	
 	/**
 	 * Creates the menu bar above the chess board.
 	 * @return the JMenuBar that was created.
@@ -186,6 +248,31 @@ public class BoardGUI extends Observable{
 		  thread.start();
 	}
 	
+	/**
+	 * Asks the user which piece a pawn becomes, if the move promotes it.
+	 * @param movedPiece is the moved piece.
+	 * @param destinationTile is the destination of the move.
+	 * @return the type of the new piece, a queen if the move is not a promotion.
+	 */
+	private static Piece.Type getPromotionType(final Piece movedPiece, final Tile destinationTile) {
+		if (movedPiece.getPieceType() != Piece.Type.PAWN ||
+				!movedPiece.getPieceColor().isPawnPromotionTile(destinationTile.getTilePosition())) {
+			return Piece.Type.QUEEN;
+		}
+		final String text = "Insert [1-4] to promote the pawn:\n1 - Queen\n2 - knight\n3 - Rook\n4 - Bishop";
+		final String choice = JOptionPane.showInputDialog(text);
+		switch (choice == null ? "" : choice.trim()) {
+			case "2":
+				return Piece.Type.KNIGHT;
+			case "3":
+				return Piece.Type.ROOK;
+			case "4":
+				return Piece.Type.BISHOP;
+			default:
+				return Piece.Type.QUEEN;
+		}
+	}
+	
 	/**
 	 * Hides the time.
 	 */
@@ -195,7 +282,7 @@ public class BoardGUI extends Observable{
 	 * Returns the board gui.
 	 * @return the board gui
 	 */
-	public static BoardGUI get() { return INSTANCE; }
+	public static BoardGUI get() { return Holder.INSTANCE; }
 	
 	/**
 	 * Returns the gameSetup.
@@ -218,6 +305,7 @@ public class BoardGUI extends Observable{
 	 * Changes the turn
 	 */
 	private void changeTurn() {
+		cancelAllSearches();
 		Player nextPlayer = this.board.currentPlayer().getOpponent();
 		this.board.changePlayer(nextPlayer);
 	}
@@ -435,11 +523,13 @@ public class BoardGUI extends Observable{
 							destinationTile = board.getTile(position);
 							Tile tempDestinationTile = destinationTile;
 							final Move move = Move.MoveFactory.createMove(board, sourceTile.getTilePosition(), 
-									destinationTile.getTilePosition());
+									destinationTile.getTilePosition(), getPromotionType(movedPiece, destinationTile));
 							final MoveTransition transition = board.currentPlayer().makeMove(move);
 							if (transition.getMoveStatus().isDone()) {
 								board = transition.getTransitionBoard();
 								moveLog.addMove(move);
+								// the bot may be searching the old board
+								cancelSearch();
 							}
 							// try use clear instead
 							sourceTile = null;
@@ -585,6 +675,7 @@ public class BoardGUI extends Observable{
 			
 			@Override
 			public void actionPerformed(ActionEvent e) {
+				BoardGUI.get().cancelAllSearches();
 				BoardGUI.get().getGameSetup().promptUser();
 				BoardGUI.get().setupUpdate(BoardGUI.get().getGameSetup());
 			}
@@ -632,7 +723,7 @@ public class BoardGUI extends Observable{
 					!BoardGUI.get().getBoard().currentPlayer().isInStaleMate()) {
 				// create an AI thread
 				// execute AI work
-				final AIBot bot = new AIBot();
+				final AIBot bot = new AIBot(BoardGUI.get().getBoard(), BoardGUI.get().startSearch());
 				bot.execute();
 			}
 			if (BoardGUI.get().getBoard().currentPlayer().isInCheckMate()) {
@@ -679,11 +770,17 @@ public class BoardGUI extends Observable{
 	 */
 	private static class AIBot extends SwingWorker<Move, String> {
 		
+		private final Board board;
+		private final SearchHandle searchHandle;
+		
 		/**
-		 * An empty constructor.
+		 * Constructor.
+		 * @param board is the board that the bot searches.
+		 * @param searchHandle is the handle that cancels the search.
 		 */
-		private AIBot() {
-			
+		private AIBot(final Board board, final SearchHandle searchHandle) {
+			this.board = board;
+			this.searchHandle = searchHandle;
 		}
 		
 		/**
@@ -691,21 +788,59 @@ public class BoardGUI extends Observable{
 		 */
 		@Override
 		protected Move doInBackground() throws Exception {
-			final MoveStrategy miniMax = new MiniMax(BoardGUI.get().depth);
-			final Move bestMove = miniMax.execute(BoardGUI.get().getBoard());
-			return bestMove;
+			final PonderSearch ponder = BoardGUI.get().takePonderSearch();
+			if (ponder != null) {
+				// the human played the predicted move, so the bot already searched this board
+				if (ponder.isPonderHit(this.board)) {
+					final Move ponderMove = ponder.getResult(this.searchHandle);
+					if (ponderMove != null) {
+						return ponderMove;
+					}
+				}
+				ponder.stop();
+			}
+			MoveStrategy moveStrategy = BoardGUI.get().getGameSetup().getSearchType().createStrategy(BoardGUI.get().depth,
+					BoardGUI.get().transpositionTable, BoardGUI.get().monteCarloTree);
+			// the book is consulted before the search
+			if (BoardGUI.get().openingBook != null) {
+				moveStrategy = new BookStrategy(BoardGUI.get().openingBook, moveStrategy);
+			}
+			final SearchResult searchResult = moveStrategy.search(this.board, this.searchHandle, new SearchListener() {
+				
+				@Override
+				public void iterationCompleted(SearchResult iterationResult) {
+					publish(iterationResult.toString());
+				}
+			});
+			return searchResult.getBestMove();
+		}
+		
+		/**
+		 * Prints the progress of the search.
+		 * @param chunks are the results of the completed depths.
+		 */
+		@Override
+		protected void process(final List<String> chunks) {
+			for (final String chunk : chunks) {
+				System.out.println(chunk);
+			}
 		}
 		
 		/**
 		 * A series of functions that need to be done after a move was made.
+		 * A cancelled search belongs to an old board or to old settings, so its move is not played.
 		 */
 		@Override
 		public void done() {
+			if (this.searchHandle.isCancelled() || this.board != BoardGUI.get().getBoard()) {
+				return;
+			}
 			try {
 				final Move bestMove = get();
 				BoardGUI.get().updateBotMove(bestMove);
 				BoardGUI.get().updateBoardAfterBotMove(BoardGUI.get().getBoard().currentPlayer().makeMove(bestMove).getTransitionBoard());
 				BoardGUI.get().getBoardPanel().drawBoard(BoardGUI.get().getBoard());
+				BoardGUI.get().startPonderSearch();
 				BoardGUI.get().moveMadeUpdate(PlayerType.COMPUTER);
 			} catch (Exception e) {
 				// TODO: handle exception
@@ -714,6 +849,145 @@ public class BoardGUI extends Observable{
 		
 	}
 	
+	/**
+	 * Cancels the search of the bot, if there is one, and returns the handle of a new search.
+	 * @return the handle of the new search.
+	 */
+	private synchronized SearchHandle startSearch() {
+		cancelSearch();
+		this.searchHandle = new SearchHandle();
+		return this.searchHandle;
+	}
+	
+	/**
+	 * Cancels the search of the bot, if there is one.
+	 */
+	private synchronized void cancelSearch() {
+		if (this.searchHandle != null) {
+			this.searchHandle.cancel();
+			this.searchHandle = null;
+		}
+	}
+	
+	/**
+	 * Cancels the search of the bot and the search on the time of the human player.
+	 */
+	private void cancelAllSearches() {
+		cancelSearch();
+		final PonderSearch ponder = takePonderSearch();
+		if (ponder != null) {
+			ponder.stop();
+		}
+	}
+	
+	/**
+	 * Starts a search on the time of the human player, if the next player is a human
+	 * and the bot uses Lazy SMP. The bot predicts the move of the human from the best
+	 * moves in the table, and searches the board after the predicted move.
+	 */
+	private void startPonderSearch() {
+		if (this.gameSetup.getSearchType() != GameSetup.SearchType.LAZY_SMP ||
+				this.gameSetup.isAIPlayer(this.board.currentPlayer())) {
+			return;
+		}
+		final LazySMP lazySMP = new LazySMP(this.depth, this.transpositionTable);
+		final Move predictedMove = lazySMP.predictMove(this.board);
+		if (predictedMove == null) {
+			return;
+		}
+		final Board ponderBoard = this.board.currentPlayer().makeMove(predictedMove).getTransitionBoard();
+		setPonderSearch(new PonderSearch(ponderBoard, lazySMP));
+	}
+	
+	/**
+	 * Replaces the ponder search, and stops the old one if there is one.
+	 * @param ponder is the new ponder search.
+	 */
+	private synchronized void setPonderSearch(final PonderSearch ponder) {
+		if (this.ponderSearch != null) {
+			this.ponderSearch.stop();
+		}
+		this.ponderSearch = ponder;
+	}
+	
+	/**
+	 * Returns the ponder search and removes it from the board gui.
+	 * @return the ponder search, or null.
+	 */
+	private synchronized PonderSearch takePonderSearch() {
+		final PonderSearch ponder = this.ponderSearch;
+		this.ponderSearch = null;
+		return ponder;
+	}
+	
+	/**
+	 * This class represents a search of the board after the predicted move of the human.
+	 * If the human plays another move the search is stopped, but what it found stays
+	 * in the transposition table.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private static class PonderSearch {
+		
+		// the result is checked again after this amount of milliseconds
+		private static final long WAIT_MILLIS = 50;
+		
+		private final long ponderBoardHash;
+		private final SearchHandle searchHandle;
+		private final FutureTask<Move> futureTask;
+		
+		/**
+		 * Constructor, which starts the search in a new thread.
+		 * @param ponderBoard is the board after the predicted move.
+		 * @param lazySMP is the search algorithm.
+		 */
+		PonderSearch(final Board ponderBoard, final LazySMP lazySMP) {
+			this.ponderBoardHash = ponderBoard.getZobristHash();
+			this.searchHandle = new SearchHandle();
+			this.futureTask = new FutureTask<>(new Callable<Move>() {
+				
+				@Override
+				public Move call() { return lazySMP.execute(ponderBoard, searchHandle); }
+			});
+			final Thread thread = new Thread(this.futureTask, "Ponder search");
+			thread.setDaemon(true);
+			thread.start();
+		}
+		
+		/**
+		 * Returns true if the given board is the board that is searched.
+		 * @param board is the given board.
+		 * @return true or false.
+		 */
+		boolean isPonderHit(final Board board) { return board.getZobristHash() == this.ponderBoardHash; }
+		
+		/**
+		 * Waits for the search to finish and returns its move. If the search of the bot
+		 * is cancelled while waiting, this search is stopped too.
+		 * @param botHandle is the handle of the search of the bot.
+		 * @return the best move.
+		 * @throws InterruptedException if the thread was interrupted while waiting.
+		 * @throws ExecutionException if the search failed.
+		 */
+		Move getResult(final SearchHandle botHandle) throws InterruptedException, ExecutionException {
+			while (true) {
+				if (botHandle.isCancelled()) {
+					stop();
+				}
+				try {
+					return this.futureTask.get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+				} catch (TimeoutException e) {
+					// still searching
+				}
+			}
+		}
+		
+		/**
+		 * Stops the search.
+		 */
+		void stop() { this.searchHandle.cancel(); }
+	}
+	
 	/**
 	 * An enum for the flip board feature.
 	 * @author Omer Shitrit
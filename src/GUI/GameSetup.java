@@ -23,6 +23,14 @@ import javax.swing.JSpinner;
 import javax.swing.SpinnerModel;
 import javax.swing.SpinnerNumberModel;
 
+import AI.LazySMP;
+import AI.MiniMax;
+import AI.MonteCarloTree;
+import AI.MonteCarloTreeSearch;
+import AI.MoveStrategy;
+import AI.MultiPV;
+import AI.ParallelMiniMax;
+import AI.TranspositionTable;
 import Board.PlayerColor;
 import GUI.BoardGUI.PlayerType;
 import Player.Player;
@@ -34,6 +42,7 @@ public class GameSetup extends JDialog{
 	private PlayerType whitePlayerType;
 	private PlayerType blackPlayerType;
 	private JSpinner searchDepthSpinner;
+	private SearchType searchType;
 	
 	private static final String HUMAN_TEXT = "Human";
 	private static final String COMPUTER_TEXT = "Computer";
@@ -71,6 +80,16 @@ public class GameSetup extends JDialog{
 		
 		panel.add(new JLabel("Search"));
 		this.searchDepthSpinner = addLabeledSpinner(panel, "Search Depth", new SpinnerNumberModel(2, 0, Integer.MAX_VALUE, 1));
+		this.searchType = SearchType.MINIMAX;
+		final ButtonGroup searchGroup = new ButtonGroup();
+		final JRadioButton[] searchButtons = new JRadioButton[SearchType.values().length];
+		for (final SearchType type : SearchType.values()) {
+			final JRadioButton searchButton = new JRadioButton(type.toString());
+			searchButton.setSelected(type == this.searchType);
+			searchGroup.add(searchButton);
+			panel.add(searchButton);
+			searchButtons[type.ordinal()] = searchButton;
+		}
 		final JButton cancleButton = new JButton("Cancle");
 		final JButton okButton = new JButton("OK");
 		okButton.addActionListener(new ActionListener() {
@@ -79,6 +98,11 @@ public class GameSetup extends JDialog{
 			public void actionPerformed(ActionEvent e) {
 				whitePlayerType = whiteComputerButton.isSelected() ? PlayerType.COMPUTER : PlayerType.HUMAN;
 				blackPlayerType = blackComputerButton.isSelected() ? PlayerType.COMPUTER : PlayerType.HUMAN;
+				for (final SearchType type : SearchType.values()) {
+					if (searchButtons[type.ordinal()].isSelected()) {
+						searchType = type;
+					}
+				}
 				int depth = (int)searchDepthSpinner.getValue();
 				BoardGUI.get().setDepth(depth);
 				GameSetup.this.setVisible(false);
@@ -137,6 +161,77 @@ public class GameSetup extends JDialog{
 		return this.blackPlayerType == blackPlayerType.COMPUTER;
 	}
 	
+	/**
+	 * Returns the search algorithm that was chosen for the bot.
+	 * @return the search type.
+	 */
+	SearchType getSearchType() { return this.searchType; }
+	
+	/**
+	 * An enum for the search algorithms that the bot is able to use.
+	 * @author Omer Shitrit
+	 *
+	 */
+	public enum SearchType {
+		MINIMAX("MiniMax") {
+			@Override
+			MoveStrategy createStrategy(final int depth, final TranspositionTable transpositionTable,
+										final MonteCarloTree monteCarloTree) {
+				return new MiniMax(depth);
+			}
+		},
+		PARALLEL_MINIMAX("Parallel MiniMax") {
+			@Override
+			MoveStrategy createStrategy(final int depth, final TranspositionTable transpositionTable,
+										final MonteCarloTree monteCarloTree) {
+				return new ParallelMiniMax(depth);
+			}
+		},
+		LAZY_SMP("Lazy SMP") {
+			@Override
+			MoveStrategy createStrategy(final int depth, final TranspositionTable transpositionTable,
+										final MonteCarloTree monteCarloTree) {
+				return new LazySMP(depth, transpositionTable);
+			}
+		},
+		MULTI_PV("MultiPV") {
+			@Override
+			MoveStrategy createStrategy(final int depth, final TranspositionTable transpositionTable,
+										final MonteCarloTree monteCarloTree) {
+				return new MultiPV(depth, MultiPV.DEFAULT_VARIATION_COUNT, transpositionTable);
+			}
+		},
+		MONTE_CARLO("Monte Carlo") {
+			@Override
+			MoveStrategy createStrategy(final int depth, final TranspositionTable transpositionTable,
+										final MonteCarloTree monteCarloTree) {
+				return new MonteCarloTreeSearch(depth * MonteCarloTreeSearch.PLAYOUTS_PER_DEPTH, monteCarloTree);
+			}
+		};
+		
+		private final String text;
+		
+		SearchType(final String text) {
+			this.text = text;
+		}
+		
+		/**
+		 * to string function.
+		 */
+		@Override
+		public String toString() { return this.text; }
+		
+		/**
+		 * Creates the search algorithm.
+		 * @param depth is the depth of the search algorithm.
+		 * @param transpositionTable is the table of the game, for the algorithms that use one.
+		 * @param monteCarloTree is the tree of the game, for the Monte Carlo tree search.
+		 * @return the search algorithm.
+		 */
+		abstract MoveStrategy createStrategy(int depth, TranspositionTable transpositionTable,
+											 MonteCarloTree monteCarloTree);
+	}
+	
 	
 	
 	
@@ -0,0 +1,245 @@
+/**
+ * This class reads the games of a binary game file, in the format of BinaryGames,
+ * one by one. Only a single block is kept in memory, and every move is found by
+ * its rank among the possible moves of its board, so a game is replayed by the
+ * move generator without parsing or checking its moves.
+ */
+
+package Pgn;
+
+import Board.Board;
+import Board.Fen;
+import Board.Move;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+public class BinaryGameReader implements Iterator<PgnGame>, Closeable {
+
+	private final DataInputStream input;
+	private final Inflater inflater;
+	private byte[] compressedBlock;
+	// the games of the current block
+	private ByteBuffer block;
+	private int blockGameCount;
+	// the game that was read by hasNext and was not returned yet
+	private PgnGame pendingGame;
+
+	/**
+	 * Constructor
+	 * @param input is the input of the file.
+	 * @throws IOException if the file is not a binary game file.
+	 */
+	public BinaryGameReader(final InputStream input) throws IOException {
+		this.input = new DataInputStream(new BufferedInputStream(input));
+		this.inflater = new Inflater();
+		this.compressedBlock = new byte[0];
+		if (this.input.readInt() != BinaryGames.MAGIC) {
+			throw new IOException("Not a binary game file");
+		}
+		final int version = this.input.readUnsignedByte();
+		if (version != BinaryGames.VERSION) {
+			throw new IOException("Unsupported version of a binary game file: " + version);
+		}
+	}
+
+	/**
+	 * Opens a binary game file.
+	 * @param gameFile is the path of the file.
+	 * @return the reader of the file.
+	 * @throws IOException if the file cannot be opened or it is not a binary game file.
+	 */
+	public static BinaryGameReader open(final Path gameFile) throws IOException {
+		final InputStream input = Files.newInputStream(gameFile);
+		try {
+			return new BinaryGameReader(input);
+		} catch (IOException e) {
+			input.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the games of a binary game file as a lazy stream, which closes the
+	 * file when it is closed.
+	 * @param gameFile is the path of the file.
+	 * @return the stream of the games.
+	 * @throws IOException if the file cannot be opened or it is not a binary game file.
+	 */
+	public static Stream<PgnGame> games(final Path gameFile) throws IOException {
+		return open(gameFile).stream();
+	}
+
+	/**
+	 * Returns the rest of the games as a lazy stream, which closes this reader when
+	 * it is closed. A failure to read the file is thrown as an UncheckedIOException.
+	 * @return the stream of the games.
+	 */
+	public Stream<PgnGame> stream() {
+		final Spliterator<PgnGame> spliterator =
+				Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					close();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Checks whether there is another game.
+	 * @return true if there is another game, o.w false.
+	 * @throws UncheckedIOException if the file cannot be read.
+	 */
+	@Override
+	public boolean hasNext() {
+		if (this.pendingGame == null) {
+			try {
+				this.pendingGame = readGame();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return this.pendingGame != null;
+	}
+
+	/**
+	 * Returns the next game.
+	 * @return the next game.
+	 * @throws NoSuchElementException if there are no more games.
+	 */
+	@Override
+	public PgnGame next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final PgnGame game = this.pendingGame;
+		this.pendingGame = null;
+		return game;
+	}
+
+	/**
+	 * Reads the next game.
+	 * @return the next game, or null if there are no more games.
+	 * @throws IOException if the file cannot be read or it is broken.
+	 */
+	public PgnGame readGame() throws IOException {
+		if (this.pendingGame != null) {
+			final PgnGame game = this.pendingGame;
+			this.pendingGame = null;
+			return game;
+		}
+		if (this.blockGameCount == 0 && !readBlock()) {
+			return null;
+		}
+		--this.blockGameCount;
+		final int tagCount = BinaryGames.readVarint(this.block);
+		final Map<String, String> tags = new LinkedHashMap<>();
+		for (int i = 0; i < tagCount; ++i) {
+			final String name = BinaryGames.readText(this.block);
+			tags.put(name, BinaryGames.readText(this.block));
+		}
+		final Board startingBoard = getStartingBoard(BinaryGames.readText(this.block));
+		final String result = BinaryGames.readText(this.block);
+		final int moveHeader = BinaryGames.readVarint(this.block);
+		final int moveCount = moveHeader >>> 1;
+		final List<Move> moves = new ArrayList<>(moveCount);
+		Board board = startingBoard;
+		for (int i = 0; i < moveCount; ++i) {
+			final Move move = BinaryGames.getMove(board, BinaryGames.readVarint(this.block));
+			moves.add(move);
+			// the board after the last move is not needed
+			if (i + 1 < moveCount) {
+				board = move.execute();
+			}
+		}
+		return new PgnGame(tags, startingBoard, moves, result, (moveHeader & 1) == 0);
+	}
+
+	/**
+	 * Closes the file.
+	 * @throws IOException if the file cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			this.input.close();
+		} finally {
+			this.inflater.end();
+		}
+	}
+
+	/**
+	 * Reads and decompresses the next block of games.
+	 * @return true if a block was read, o.w false at the end of the file.
+	 * @throws IOException if the file cannot be read or the block is broken.
+	 */
+	private boolean readBlock() throws IOException {
+		final int gameCount;
+		try {
+			gameCount = BinaryGames.readVarint(this.input);
+		} catch (EOFException e) {
+			return false;
+		}
+		final int size = BinaryGames.readVarint(this.input);
+		final int compressedSize = BinaryGames.readVarint(this.input);
+		if (this.compressedBlock.length < compressedSize) {
+			this.compressedBlock = new byte[compressedSize];
+		}
+		this.input.readFully(this.compressedBlock, 0, compressedSize);
+		final byte[] games = new byte[size];
+		this.inflater.reset();
+		this.inflater.setInput(this.compressedBlock, 0, compressedSize);
+		try {
+			if (this.inflater.inflate(games) != size || !this.inflater.finished()) {
+				throw new IOException("The size of a block is wrong");
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("A block is broken", e);
+		}
+		this.block = ByteBuffer.wrap(games);
+		this.blockGameCount = gameCount;
+		return gameCount > 0 || readBlock();
+	}
+
+	/**
+	 * Returns the board a game starts from.
+	 * @param fen is the FEN of the board, or an empty text for the standard board.
+	 * @return the board, or null if the FEN is not valid.
+	 */
+	private static Board getStartingBoard(final String fen) {
+		if (fen.isEmpty()) {
+			return Board.initStandardBoard();
+		}
+		try {
+			return Fen.parse(fen);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+}
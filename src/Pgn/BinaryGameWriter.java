@@ -0,0 +1,216 @@
+/**
+ * This class writes games to a binary game file, in the format of BinaryGames.
+ * The games are collected into a block until it is large enough, and then the
+ * block is compressed and written, so the games are never kept in memory beyond
+ * a single block.
+ */
+
+package Pgn;
+
+import Board.Board;
+import Board.Fen;
+import Board.Move;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+public class BinaryGameWriter implements Closeable, Flushable {
+
+	public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+	private final DataOutputStream output;
+	private final int blockSize;
+	private final ByteArrayOutputStream block;
+	private int blockGameCount;
+	private final Deflater deflater;
+	private byte[] compressedBlock;
+
+	/**
+	 * Constructor, with blocks of the default size.
+	 * @param output is the output of the file.
+	 * @throws IOException if the header of the file cannot be written.
+	 */
+	public BinaryGameWriter(final OutputStream output) throws IOException {
+		this(output, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * @param output is the output of the file.
+	 * @param blockSize is the size of the games of a block, before it is compressed.
+	 * @throws IOException if the header of the file cannot be written.
+	 */
+	public BinaryGameWriter(final OutputStream output, final int blockSize) throws IOException {
+		this.output = new DataOutputStream(new BufferedOutputStream(output));
+		this.blockSize = blockSize;
+		this.block = new ByteArrayOutputStream(blockSize + blockSize / 8);
+		this.deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		this.compressedBlock = new byte[blockSize];
+		this.output.writeInt(BinaryGames.MAGIC);
+		this.output.writeByte(BinaryGames.VERSION);
+	}
+
+	/**
+	 * Creates a binary game file, or replaces it.
+	 * @param gameFile is the path of the file.
+	 * @return the writer of the file.
+	 * @throws IOException if the file cannot be created.
+	 */
+	public static BinaryGameWriter create(final Path gameFile) throws IOException {
+		return new BinaryGameWriter(Files.newOutputStream(gameFile));
+	}
+
+	/**
+	 * Writes the given game.
+	 * @param game is the given game.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public void write(final PgnGame game) throws IOException {
+		write(game.getTags(), game.getStartingBoard(), game.getMoves(), game.getResult(), game.isComplete());
+	}
+
+	/**
+	 * Writes a game. The moves must be legal, each one on the board after the
+	 * move before it.
+	 * @param tags are the tags of the game, by their names.
+	 * @param startingBoard is the board the game started from.
+	 * @param moves are the moves of the game.
+	 * @param result is the result of the game, like "1-0", "0-1", "1/2-1/2" or "*".
+	 * @throws IOException if the file cannot be written.
+	 */
+	public void write(final Map<String, String> tags,
+					  final Board startingBoard,
+					  final List<Move> moves,
+					  final String result) throws IOException {
+		write(tags, startingBoard, moves, result, true);
+	}
+
+	/**
+	 * Writes a game.
+	 * @param tags are the tags of the game.
+	 * @param startingBoard is the board the game started from, or null if its FEN tag is not valid.
+	 * @param moves are the moves of the game.
+	 * @param result is the result of the game.
+	 * @param isComplete is false if the moves of the game end before the moves that were written.
+	 * @throws IOException if the file cannot be written.
+	 */
+	private void write(final Map<String, String> tags,
+					   final Board startingBoard,
+					   final List<Move> moves,
+					   final String result,
+					   final boolean isComplete) throws IOException {
+		BinaryGames.writeVarint(this.block, tags.size());
+		for (final Map.Entry<String, String> tag : tags.entrySet()) {
+			BinaryGames.writeText(this.block, tag.getKey());
+			BinaryGames.writeText(this.block, tag.getValue());
+		}
+		// a game whose FEN tag is not valid keeps the tag, and has no moves
+		final String fen = startingBoard == null ? tags.get("FEN") : Fen.toFen(startingBoard);
+		BinaryGames.writeText(this.block, fen.equals(Fen.STARTING_POSITION) ? "" : fen);
+		BinaryGames.writeText(this.block, result);
+		BinaryGames.writeVarint(this.block, moves.size() << 1 | (isComplete ? 0 : 1));
+		Board board = startingBoard;
+		final Iterator<Move> iterator = moves.iterator();
+		while (iterator.hasNext()) {
+			final Move move = iterator.next();
+			BinaryGames.writeVarint(this.block, BinaryGames.getRank(board, move));
+			// the board after the last move is not needed
+			if (iterator.hasNext()) {
+				board = move.execute();
+			}
+		}
+		++this.blockGameCount;
+		if (this.block.size() >= this.blockSize) {
+			writeBlock();
+		}
+	}
+
+	/**
+	 * Writes the games of the block that is not full yet, and the buffered bytes.
+	 * @throws IOException if the file cannot be written.
+	 */
+	@Override
+	public void flush() throws IOException {
+		writeBlock();
+		this.output.flush();
+	}
+
+	/**
+	 * Writes the last block and closes the file.
+	 * @throws IOException if the file cannot be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			writeBlock();
+			this.output.close();
+		} finally {
+			this.deflater.end();
+		}
+	}
+
+	/**
+	 * Compresses the games of the block and writes them.
+	 * @throws IOException if the file cannot be written.
+	 */
+	private void writeBlock() throws IOException {
+		if (this.blockGameCount == 0) {
+			return;
+		}
+		final byte[] games = this.block.toByteArray();
+		this.deflater.reset();
+		this.deflater.setInput(games);
+		this.deflater.finish();
+		int compressedSize = 0;
+		while (!this.deflater.finished()) {
+			if (compressedSize == this.compressedBlock.length) {
+				this.compressedBlock = Arrays.copyOf(this.compressedBlock, 2 * this.compressedBlock.length);
+			}
+			compressedSize += this.deflater.deflate(this.compressedBlock, compressedSize,
+													this.compressedBlock.length - compressedSize);
+		}
+		BinaryGames.writeVarint(this.output, this.blockGameCount);
+		BinaryGames.writeVarint(this.output, games.length);
+		BinaryGames.writeVarint(this.output, compressedSize);
+		this.output.write(this.compressedBlock, 0, compressedSize);
+		this.block.reset();
+		this.blockGameCount = 0;
+	}
+
+	/**
+	 * Converts a PGN file to a binary game file from the command line:
+	 * BinaryGameWriter pgn-file game-file
+	 * @param args are the arguments.
+	 * @throws IOException if a file cannot be read or written.
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("usage: BinaryGameWriter <pgn file> <game file>");
+			return;
+		}
+		final long startTime = System.currentTimeMillis();
+		long gameCount = 0;
+		try (final PgnReader reader = PgnReader.open(Paths.get(args[0]));
+			 final BinaryGameWriter writer = create(Paths.get(args[1]))) {
+			while (reader.hasNext()) {
+				writer.write(reader.next());
+				++gameCount;
+			}
+		}
+		System.out.println(gameCount + " games, " + Files.size(Paths.get(args[0])) + " -> " +
+				Files.size(Paths.get(args[1])) + " bytes, " + (System.currentTimeMillis() - startTime) + " ms");
+	}
+}
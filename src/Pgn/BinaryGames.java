@@ -0,0 +1,176 @@
+/**
+ * This class holds what the writer and the reader of the binary game files share.
+ * A file starts with a magic number and a version, and then has blocks of games,
+ * each compressed by itself: the number of games of the block, the size of the
+ * games and the size of the compressed games as varints, and the compressed bytes.
+ * A game is its tags, the FEN of its starting board (empty for the standard
+ * board), its result, a varint of the number of its moves (shifted left, with
+ * the lowest bit set if the game is incomplete), and its moves. A move is written
+ * as a varint of its rank among the possible moves of its board, sorted by their
+ * source, their destination and their promoted piece, so a move takes a single
+ * byte and the reader finds it by the move generator, without checking it again.
+ * The numbers are varints, and the texts are a varint of their size and their
+ * UTF-8 bytes.
+ */
+
+package Pgn;
+
+import Board.Board;
+import Board.Move;
+import Board.Move.PawnPromotion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+class BinaryGames {
+
+	// "CHGA"
+	static final int MAGIC = 0x43484741;
+	static final int VERSION = 1;
+
+	// the bits of the index of a move in the list of moves, below its sort key
+	private static final int INDEX_BITS = 10;
+	private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+
+	/**
+	 * Make this class a container for useful functions
+	 */
+	private BinaryGames() { throw new RuntimeException("Cant initiate this object!"); }
+
+	/**
+	 * Returns the rank of a move among the possible moves of its board.
+	 * @param board is the board of the move.
+	 * @param move is the given move.
+	 * @return the number of possible moves that are sorted before the move.
+	 */
+	static int getRank(final Board board, final Move move) {
+		final int key = getSortKey(move);
+		int rank = 0;
+		for (final Move otherMove : board.currentPlayer().getPossibleMoves()) {
+			if (getSortKey(otherMove) < key) {
+				++rank;
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the move of the given rank among the possible moves of a board.
+	 * @param board is the given board.
+	 * @param rank is the rank of the move.
+	 * @return the move.
+	 * @throws IOException if the board has no move of this rank.
+	 */
+	static Move getMove(final Board board, final int rank) throws IOException {
+		final Collection<Move> possibleMoves = board.currentPlayer().getPossibleMoves();
+		if (rank >= possibleMoves.size()) {
+			throw new IOException("No move of rank " + rank + " on the board");
+		}
+		final Move[] moves = possibleMoves.toArray(new Move[possibleMoves.size()]);
+		final int[] keys = new int[moves.length];
+		for (int i = 0; i < moves.length; ++i) {
+			keys[i] = getSortKey(moves[i]) << INDEX_BITS | i;
+		}
+		Arrays.sort(keys);
+		return moves[keys[rank] & INDEX_MASK];
+	}
+
+	/**
+	 * Returns the key that sorts the moves of a board: the source, the destination
+	 * and then the promoted piece.
+	 * @param move is the given move.
+	 * @return the key.
+	 */
+	private static int getSortKey(final Move move) {
+		final int promotion = move instanceof PawnPromotion ? ((PawnPromotion) move).getPromotionType().ordinal() + 1 : 0;
+		return (move.getCurrentPosition() << 6 | move.getDestinationPosition()) << 3 | promotion;
+	}
+
+	/**
+	 * Writes a number as a varint: 7 bits in every byte, from the lowest bits,
+	 * with the highest bit set on every byte but the last.
+	 * @param output is the output.
+	 * @param value is the given number, which is not negative.
+	 * @throws IOException if the output cannot be written.
+	 */
+	static void writeVarint(final OutputStream output, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			output.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		output.write(value);
+	}
+
+	/**
+	 * Writes a text as a varint of its size and its UTF-8 bytes.
+	 * @param output is the output.
+	 * @param text is the given text.
+	 * @throws IOException if the output cannot be written.
+	 */
+	static void writeText(final ByteArrayOutputStream output, final String text) throws IOException {
+		final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		writeVarint(output, bytes.length);
+		output.write(bytes);
+	}
+
+	/**
+	 * Reads a varint from a file.
+	 * @param input is the input.
+	 * @return the number.
+	 * @throws IOException if the input ended or the varint is too long.
+	 */
+	static int readVarint(final DataInput input) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+			final int b = input.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Varint is too long");
+	}
+
+	/**
+	 * Reads a varint from the games of a block.
+	 * @param input is the games of the block.
+	 * @return the number.
+	 * @throws IOException if the block ended or the varint is too long.
+	 */
+	static int readVarint(final ByteBuffer input) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+			if (!input.hasRemaining()) {
+				throw new IOException("The block ended in a varint");
+			}
+			final int b = input.get() & 0xFF;
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Varint is too long");
+	}
+
+	/**
+	 * Reads a text from the games of a block.
+	 * @param input is the games of the block.
+	 * @return the text.
+	 * @throws IOException if the block ended.
+	 */
+	static String readText(final ByteBuffer input) throws IOException {
+		final int length = readVarint(input);
+		if (length > input.remaining()) {
+			throw new IOException("The block ended in a text");
+		}
+		final String text = new String(input.array(), input.arrayOffset() + input.position(), length, StandardCharsets.UTF_8);
+		input.position(input.position() + length);
+		return text;
+	}
+}
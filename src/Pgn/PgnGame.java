@@ -0,0 +1,106 @@
+/**
+ * This class represents a game of a PGN file: its tags, the board it started
+ * from, its moves and its result.
+ */
+
+package Pgn;
+
+import Board.Board;
+import Board.Move;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PgnGame {
+
+	public static final String UNKNOWN_RESULT = "*";
+
+	private final Map<String, String> tags;
+	private final Board startingBoard;
+	private final List<Move> moves;
+	private final String result;
+	private final boolean isComplete;
+
+	/**
+	 * Constructor
+	 * @param tags are the tags of the game, by their names.
+	 * @param startingBoard is the board the game started from.
+	 * @param moves are the moves of the game, each one made on the board after the move before it.
+	 * @param result is the result of the game, like "1-0", "0-1", "1/2-1/2" or "*".
+	 */
+	public PgnGame(final Map<String, String> tags,
+				   final Board startingBoard,
+				   final List<Move> moves,
+				   final String result) {
+		this(tags, startingBoard, moves, result, true);
+	}
+
+	/**
+	 * Constructor
+	 * @param tags are the tags of the game, by their names.
+	 * @param startingBoard is the board the game started from.
+	 * @param moves are the moves of the game.
+	 * @param result is the result of the game.
+	 * @param isComplete is false if some of the written moves could not be played.
+	 */
+	PgnGame(final Map<String, String> tags,
+			final Board startingBoard,
+			final List<Move> moves,
+			final String result,
+			final boolean isComplete) {
+		this.tags = Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+		this.startingBoard = startingBoard;
+		this.moves = Collections.unmodifiableList(new ArrayList<>(moves));
+		this.result = result;
+		this.isComplete = isComplete;
+	}
+
+	/**
+	 * Returns the tags of the game, in the order they were written.
+	 * @return the tags.
+	 */
+	public Map<String, String> getTags() { return this.tags; }
+
+	/**
+	 * Returns the value of a tag.
+	 * @param name is the name of the tag.
+	 * @return the value, or null if the game has no such tag.
+	 */
+	public String getTag(final String name) { return this.tags.get(name); }
+
+	/**
+	 * Returns the board the game started from.
+	 * @return the starting board, or null if the FEN tag of the game is not valid.
+	 */
+	public Board getStartingBoard() { return this.startingBoard; }
+
+	/**
+	 * Returns the moves of the game.
+	 * @return the moves.
+	 */
+	public List<Move> getMoves() { return this.moves; }
+
+	/**
+	 * Returns the board after the last move of the game.
+	 * @return the final board.
+	 */
+	public Board getFinalBoard() {
+		return this.moves.isEmpty() ? this.startingBoard : this.moves.get(this.moves.size() - 1).execute();
+	}
+
+	/**
+	 * Returns the result of the game, like "1-0", "0-1", "1/2-1/2" or "*".
+	 * @return the result.
+	 */
+	public String getResult() { return this.result; }
+
+	/**
+	 * Checks whether all the written moves of the game were played. The moves of
+	 * an incomplete game end before the first move that could not be played.
+	 * @return true if the game is complete, o.w false.
+	 */
+	public boolean isComplete() { return this.isComplete; }
+}
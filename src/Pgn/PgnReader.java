@@ -0,0 +1,476 @@
+/**
+ * This class reads the games of a PGN file one by one. The file is read in
+ * chunks of a fixed size and every game is replayed while it is read, so only
+ * the game that is read is kept in memory, and files that are much larger than
+ * the heap are read as a lazy iterator or stream of games.
+ * The moves in comments and in variations are skipped. A move that cannot be
+ * played ends the moves of its game, and the game is marked as incomplete.
+ * The games can also be read without being played (readRawGame), and played
+ * later by other threads.
+ */
+
+package Pgn;
+
+import Board.Board;
+import Board.Fen;
+import Board.Move;
+import Player.MoveTransition;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class PgnReader implements Iterator<PgnGame>, Closeable {
+
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	private static final int END_OF_FILE = -1;
+
+	private final Reader reader;
+	private final char[] buffer;
+	private int position;
+	private int limit;
+	// the text of the symbol that is read
+	private final StringBuilder token;
+	// the game that was read by hasNext and was not returned yet
+	private PgnGame pendingGame;
+	private int maxPlies;
+
+	/**
+	 * Constructor, with a buffer of the default size.
+	 * @param reader is the reader of the PGN text.
+	 */
+	public PgnReader(final Reader reader) {
+		this(reader, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * @param reader is the reader of the PGN text.
+	 * @param bufferSize is the number of characters that are read at once.
+	 */
+	public PgnReader(final Reader reader, final int bufferSize) {
+		this.reader = reader;
+		this.buffer = new char[bufferSize];
+		this.token = new StringBuilder();
+		this.maxPlies = Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Opens a PGN file. The file is read as ISO-8859-1, which keeps the bytes of
+	 * the names and comments as they are, whatever their encoding is.
+	 * @param pgnFile is the path of the file.
+	 * @return the reader of the file.
+	 * @throws IOException if the file cannot be opened.
+	 */
+	public static PgnReader open(final Path pgnFile) throws IOException {
+		return new PgnReader(Files.newBufferedReader(pgnFile, StandardCharsets.ISO_8859_1));
+	}
+
+	/**
+	 * Sets the number of plies that are played from every game. The moves after
+	 * them are skipped without being played, which is much faster when only the
+	 * openings are needed, and they do not make the game incomplete.
+	 * @param maxPlies is the number of plies.
+	 * @return the reader itself.
+	 */
+	public PgnReader setMaxPlies(final int maxPlies) {
+		this.maxPlies = maxPlies;
+		return this;
+	}
+
+	/**
+	 * Returns the games of a PGN file as a lazy stream, which closes the file when
+	 * it is closed.
+	 * @param pgnFile is the path of the file.
+	 * @return the stream of the games.
+	 * @throws IOException if the file cannot be opened.
+	 */
+	public static Stream<PgnGame> games(final Path pgnFile) throws IOException {
+		return open(pgnFile).stream();
+	}
+
+	/**
+	 * Returns the rest of the games as a lazy stream, which closes this reader when
+	 * it is closed. A failure to read the file is thrown as an UncheckedIOException.
+	 * @return the stream of the games.
+	 */
+	public Stream<PgnGame> stream() {
+		final Spliterator<PgnGame> spliterator =
+				Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					close();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Checks whether there is another game.
+	 * @return true if there is another game, o.w false.
+	 * @throws UncheckedIOException if the file cannot be read.
+	 */
+	@Override
+	public boolean hasNext() {
+		if (this.pendingGame == null) {
+			try {
+				this.pendingGame = readGame();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return this.pendingGame != null;
+	}
+
+	/**
+	 * Returns the next game.
+	 * @return the next game.
+	 * @throws NoSuchElementException if there are no more games.
+	 */
+	@Override
+	public PgnGame next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final PgnGame game = this.pendingGame;
+		this.pendingGame = null;
+		return game;
+	}
+
+	/**
+	 * Reads the next game.
+	 * @return the next game, or null if there are no more games.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public PgnGame readGame() throws IOException {
+		if (this.pendingGame != null) {
+			final PgnGame game = this.pendingGame;
+			this.pendingGame = null;
+			return game;
+		}
+		final RawGame rawGame = readRawGame();
+		return rawGame == null ? null : rawGame.play();
+	}
+
+	/**
+	 * Reads the next game without playing its moves. Reading the text is fast and
+	 * playing the moves is slow, so one thread can read the games of a file and
+	 * other threads can play them.
+	 * @return the next game, or null if there are no more games.
+	 * @throws IOException if the file cannot be read.
+	 * @throws IllegalStateException if hasNext already played the next game.
+	 */
+	public RawGame readRawGame() throws IOException {
+		if (this.pendingGame != null) {
+			throw new IllegalStateException("The next game was already played by hasNext");
+		}
+		final Map<String, String> tags = new LinkedHashMap<>();
+		int c = skipWhitespace();
+		while (c == '[') {
+			read();
+			readTag(tags);
+			c = skipWhitespace();
+		}
+		if (c == END_OF_FILE && tags.isEmpty()) {
+			return null;
+		}
+		final List<String> moves = new ArrayList<>();
+		String result = null;
+		int variationDepth = 0;
+		while ((c = skipWhitespace()) != END_OF_FILE) {
+			// the tags of the next game start after the moves of a game without a result
+			if (c == '[' && variationDepth == 0) {
+				break;
+			}
+			read();
+			if (c == '{') {
+				skipUntil('}');
+			} else if (c == ';') {
+				skipUntil('\n');
+			} else if (c == '(') {
+				++variationDepth;
+			} else if (c == ')') {
+				variationDepth = Math.max(0, variationDepth - 1);
+			} else if (c != '[' && c != ']') {
+				readToken((char) c);
+				if (variationDepth > 0 || this.token.charAt(0) == '$') {
+					continue;
+				}
+				if (isResult(this.token)) {
+					result = this.token.toString();
+					break;
+				}
+				final int moveStart = getMoveStart(this.token);
+				if (moveStart == this.token.length() || moves.size() >= this.maxPlies) {
+					continue;
+				}
+				moves.add(this.token.substring(moveStart));
+			}
+		}
+		if (result == null) {
+			result = tags.containsKey("Result") ? tags.get("Result") : PgnGame.UNKNOWN_RESULT;
+		}
+		return new RawGame(tags, moves, result);
+	}
+
+	/**
+	 * Closes the file.
+	 * @throws IOException if the file cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+
+	/**
+	 * Returns the board a game starts from: the board of its FEN tag, or the
+	 * standard board.
+	 * @param tags are the tags of the game.
+	 * @return the board, or null if the FEN tag is not valid.
+	 */
+	private static Board getStartingBoard(final Map<String, String> tags) {
+		final String fen = tags.get("FEN");
+		if (fen == null) {
+			return Board.initStandardBoard();
+		}
+		try {
+			return Fen.parse(fen);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Reads a tag, like [Event "Casual game"], after its opening bracket.
+	 * A tag that is not written well is skipped.
+	 * @param tags are the tags of the game, which the tag is added to.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private void readTag(final Map<String, String> tags) throws IOException {
+		this.token.setLength(0);
+		int c = skipWhitespace();
+		while (c != END_OF_FILE && c != '"' && c != ']' && !Character.isWhitespace(c)) {
+			this.token.append((char) read());
+			c = peek();
+		}
+		final String name = this.token.toString();
+		c = skipWhitespace();
+		if (c != '"' || name.isEmpty()) {
+			skipUntil(']');
+			return;
+		}
+		read();
+		this.token.setLength(0);
+		while ((c = read()) != END_OF_FILE && c != '"') {
+			// a quote or a backslash in the value is escaped by a backslash
+			if (c == '\\') {
+				c = read();
+				if (c == END_OF_FILE) {
+					break;
+				}
+			}
+			this.token.append((char) c);
+		}
+		tags.put(name, this.token.toString());
+		skipUntil(']');
+	}
+
+	/**
+	 * Reads a symbol of the moves, like a move number, a move or a result.
+	 * @param firstChar is the first character of the symbol, which was already read.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private void readToken(final char firstChar) throws IOException {
+		this.token.setLength(0);
+		this.token.append(firstChar);
+		int c;
+		while ((c = peek()) != END_OF_FILE && !isDelimiter(c)) {
+			this.token.append((char) read());
+		}
+	}
+
+	/**
+	 * Skips the whitespace and the escaped lines, which start with '%'.
+	 * @return the next character, which is not read yet, or END_OF_FILE.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private int skipWhitespace() throws IOException {
+		int c;
+		while ((c = peek()) != END_OF_FILE) {
+			if (c == '%') {
+				skipUntil('\n');
+			} else if (Character.isWhitespace(c)) {
+				read();
+			} else {
+				break;
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * Skips the characters until the given character, including it.
+	 * @param end is the given character.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private void skipUntil(final char end) throws IOException {
+		int c;
+		while ((c = read()) != END_OF_FILE && c != end) {
+			// skipped
+		}
+	}
+
+	/**
+	 * Returns the next character without reading it.
+	 * @return the next character, or END_OF_FILE.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private int peek() throws IOException {
+		if (this.position == this.limit && !fill()) {
+			return END_OF_FILE;
+		}
+		return this.buffer[this.position];
+	}
+
+	/**
+	 * Reads the next character.
+	 * @return the next character, or END_OF_FILE.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private int read() throws IOException {
+		if (this.position == this.limit && !fill()) {
+			return END_OF_FILE;
+		}
+		return this.buffer[this.position++];
+	}
+
+	/**
+	 * Reads the next chunk of the file into the buffer.
+	 * @return true if characters were read, o.w false at the end of the file.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private boolean fill() throws IOException {
+		int count;
+		do {
+			count = this.reader.read(this.buffer, 0, this.buffer.length);
+		} while (count == 0);
+		this.position = 0;
+		this.limit = Math.max(count, 0);
+		return count > 0;
+	}
+
+	/**
+	 * Checks whether a character ends a symbol of the moves.
+	 * @param c is the given character.
+	 * @return true if the character ends a symbol, o.w false.
+	 */
+	private static boolean isDelimiter(final int c) {
+		return Character.isWhitespace(c) || c == '{' || c == '}' || c == '(' || c == ')' ||
+			   c == ';' || c == '[' || c == ']';
+	}
+
+	/**
+	 * Checks whether the given symbol is the result of a game.
+	 * @param token is the given symbol.
+	 * @return true if it is a result, o.w false.
+	 */
+	private static boolean isResult(final CharSequence token) {
+		return "1-0".contentEquals(token) || "0-1".contentEquals(token) || "1/2-1/2".contentEquals(token) ||
+			   PgnGame.UNKNOWN_RESULT.contentEquals(token);
+	}
+
+	/**
+	 * Returns where the move starts in the given symbol, after its move number,
+	 * like in "12.e4" or "12...e5".
+	 * @param token is the given symbol.
+	 * @return the start of the move, or the length of the symbol if it has no move.
+	 */
+	private static int getMoveStart(final CharSequence token) {
+		int start = 0;
+		while (start < token.length() && Character.isDigit(token.charAt(start))) {
+			++start;
+		}
+		// digits without a dot after them are not a move number, like in "0-0"
+		if (start < token.length() && token.charAt(start) != '.') {
+			return 0;
+		}
+		while (start < token.length() && token.charAt(start) == '.') {
+			++start;
+		}
+		return start;
+	}
+
+	/**
+	 * Inner class - a game that was read and its moves were not played yet: its
+	 * tags, the moves as they are written and its result.
+	 * @author Omer Shitrit
+	 *
+	 */
+	public static class RawGame {
+
+		private final Map<String, String> tags;
+		private final List<String> moves;
+		private final String result;
+
+		/**
+		 * Constructor
+		 * @param tags are the tags of the game, by their names.
+		 * @param moves are the moves of the game, as they are written.
+		 * @param result is the result of the game.
+		 */
+		private RawGame(final Map<String, String> tags, final List<String> moves, final String result) {
+			this.tags = tags;
+			this.moves = moves;
+			this.result = result;
+		}
+
+		/**
+		 * Returns the result of the game.
+		 * @return the result.
+		 */
+		public String getResult() { return this.result; }
+
+		/**
+		 * Plays the moves of the game from the board of its FEN tag, or from the
+		 * standard board. A move that cannot be played ends the moves of the game,
+		 * and the game is marked as incomplete.
+		 * @return the game.
+		 */
+		public PgnGame play() {
+			final Board startingBoard = getStartingBoard(this.tags);
+			Board board = startingBoard;
+			final List<Move> playedMoves = new ArrayList<>();
+			boolean isComplete = board != null;
+			for (int i = 0; i < this.moves.size() && isComplete; ++i) {
+				final MoveTransition moveTransition = San.play(board, this.moves.get(i));
+				if (moveTransition == null) {
+					isComplete = false;
+				} else {
+					playedMoves.add(moveTransition.getMove());
+					board = moveTransition.getTransitionBoard();
+				}
+			}
+			return new PgnGame(this.tags, startingBoard, playedMoves, this.result, isComplete);
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/**
+ * This class writes games to a PGN file, one after the other, so a game archive
+ * is written without keeping its games in memory.
+ * The seven tags of the standard are written first, with "?" for the ones that
+ * the game does not have, a game that does not start from the standard board gets
+ * a FEN tag, and the moves are written in standard algebraic
+ * notation in lines of at most 80 characters.
+ */
+
+package Pgn;
+
+import Board.Board;
+import Board.Fen;
+import Board.Move;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+public class PgnWriter implements Closeable, Flushable {
+
+	public static final int MAX_LINE_LENGTH = 80;
+
+	// the tags that every game has, in their order
+	private static final String[] SEVEN_TAG_ROSTER = { "Event", "Site", "Date", "Round", "White", "Black", "Result" };
+
+	private final Writer writer;
+
+	/**
+	 * Constructor
+	 * @param writer is the writer of the PGN text.
+	 */
+	public PgnWriter(final Writer writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Creates a PGN file, or replaces it. The file is written as ISO-8859-1, like
+	 * the files are read by the PgnReader.
+	 * @param pgnFile is the path of the file.
+	 * @return the writer of the file.
+	 * @throws IOException if the file cannot be created.
+	 */
+	public static PgnWriter create(final Path pgnFile) throws IOException {
+		return new PgnWriter(Files.newBufferedWriter(pgnFile, StandardCharsets.ISO_8859_1));
+	}
+
+	/**
+	 * Writes the given game.
+	 * @param game is the given game.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public void write(final PgnGame game) throws IOException {
+		write(game.getTags(), game.getStartingBoard(), game.getMoves(), game.getResult());
+	}
+
+	/**
+	 * Writes a game. The moves must be legal, each one on the board after the
+	 * move before it.
+	 * @param tags are the tags of the game, by their names.
+	 * @param startingBoard is the board the game started from.
+	 * @param moves are the moves of the game.
+	 * @param result is the result of the game, like "1-0", "0-1", "1/2-1/2" or "*".
+	 * @throws IOException if the file cannot be written.
+	 */
+	public void write(final Map<String, String> tags,
+					  final Board startingBoard,
+					  final Iterable<Move> moves,
+					  final String result) throws IOException {
+		for (final String name : SEVEN_TAG_ROSTER) {
+			String value = name.equals("Result") ? result : tags.get(name);
+			if (value == null) {
+				value = name.equals("Date") ? "????.??.??" : "?";
+			}
+			writeTag(name, value);
+		}
+		if (!tags.containsKey("FEN")) {
+			final String fen = Fen.toFen(startingBoard);
+			if (!fen.equals(Fen.STARTING_POSITION)) {
+				writeTag("SetUp", "1");
+				writeTag("FEN", fen);
+			}
+		}
+		for (final Map.Entry<String, String> tag : tags.entrySet()) {
+			if (!isSevenTagRoster(tag.getKey())) {
+				writeTag(tag.getKey(), tag.getValue());
+			}
+		}
+		this.writer.write('\n');
+		final StringBuilder line = new StringBuilder();
+		Board board = startingBoard;
+		boolean isFirstMove = true;
+		for (final Move move : moves) {
+			final boolean isWhiteTurn = board.currentPlayer().getColor().isWhite();
+			if (isWhiteTurn || isFirstMove) {
+				appendToken(line, board.getFullmoveNumber() + (isWhiteTurn ? "." : "..."));
+			}
+			appendToken(line, San.toSan(board, move));
+			board = move.execute();
+			isFirstMove = false;
+		}
+		appendToken(line, result);
+		this.writer.write(line.toString());
+		this.writer.write("\n\n");
+	}
+
+	/**
+	 * Writes the buffered text to the file.
+	 * @throws IOException if the file cannot be written.
+	 */
+	@Override
+	public void flush() throws IOException {
+		this.writer.flush();
+	}
+
+	/**
+	 * Closes the file.
+	 * @throws IOException if the file cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		this.writer.close();
+	}
+
+	/**
+	 * Adds a symbol to the line of the moves, and writes the line when it is full.
+	 * @param line is the line of the moves.
+	 * @param token is the given symbol.
+	 * @throws IOException if the file cannot be written.
+	 */
+	private void appendToken(final StringBuilder line, final String token) throws IOException {
+		if (line.length() > 0 && line.length() + 1 + token.length() > MAX_LINE_LENGTH) {
+			this.writer.write(line.toString());
+			this.writer.write('\n');
+			line.setLength(0);
+		}
+		if (line.length() > 0) {
+			line.append(' ');
+		}
+		line.append(token);
+	}
+
+	/**
+	 * Writes a tag, with the quotes and the backslashes of its value escaped.
+	 * @param name is the name of the tag.
+	 * @param value is the value of the tag.
+	 * @throws IOException if the file cannot be written.
+	 */
+	private void writeTag(final String name, final String value) throws IOException {
+		this.writer.write('[');
+		this.writer.write(name);
+		this.writer.write(" \"");
+		this.writer.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+		this.writer.write("\"]\n");
+	}
+
+	/**
+	 * Checks whether a tag is one of the seven tags that are written first.
+	 * @param name is the name of the tag.
+	 * @return true if it is one of the seven tags, o.w false.
+	 */
+	private static boolean isSevenTagRoster(final String name) {
+		for (final String rosterName : SEVEN_TAG_ROSTER) {
+			if (rosterName.equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
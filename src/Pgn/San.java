@@ -0,0 +1,272 @@
+/**
+ * This class translates between the moves of a board and the standard algebraic
+ * notation (SAN), like "e4", "Nbd7", "exd5", "e8=Q", "O-O" or "Qh4#".
+ * A move is always resolved against the possible moves of the board, so a move
+ * is written with just enough of its source to tell it apart from the other legal
+ * moves, and a written move is found only if it is legal.
+ */
+
+package Pgn;
+
+import Board.Board;
+import Board.Helper;
+import Board.Move;
+import Board.Move.KingSideCastleMove;
+import Board.Move.PawnPromotion;
+import Board.Move.QueenSideCastleMove;
+import Pieces.Piece;
+import Player.MoveTransition;
+
+public class San {
+
+	/**
+	 * Make this class a container for useful functions
+	 */
+	private San() { throw new RuntimeException("Cant initiate this object!"); }
+
+	/**
+	 * Plays the given move on the given board.
+	 * Castling is found only if the board created the castle move, and a promotion
+	 * may be written with or without the '=' before the promoted piece.
+	 * @param board is the given board.
+	 * @param san is the move in standard algebraic notation.
+	 * @return the transition of the move, or null if the move cannot be played.
+	 */
+	public static MoveTransition play(final Board board, final CharSequence san) {
+		// the check, mate and annotation marks are not needed to find the move
+		int end = san.length();
+		while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+			--end;
+		}
+		if (end < 2) {
+			return null;
+		}
+		if (isCastling(san, end)) {
+			final boolean isQueenSide = end == 5;
+			for (final Move move : board.currentPlayer().getPossibleMoves()) {
+				if (isQueenSide ? move instanceof QueenSideCastleMove : move instanceof KingSideCastleMove) {
+					return playIfLegal(board, move);
+				}
+			}
+			return null;
+		}
+		// the promoted piece, like in "e8=Q" or "e8Q"
+		Piece.Type promotionType = null;
+		final char lastChar = san.charAt(end - 1);
+		if (lastChar >= 'A' && lastChar <= 'Z') {
+			promotionType = getType(lastChar);
+			if (promotionType == null || promotionType == Piece.Type.PAWN || promotionType == Piece.Type.KING) {
+				return null;
+			}
+			end -= san.charAt(end - 2) == '=' ? 2 : 1;
+		}
+		if (end < 2) {
+			return null;
+		}
+		final short destination = getPosition(san.charAt(end - 2), san.charAt(end - 1));
+		if (destination < 0) {
+			return null;
+		}
+		final char firstChar = san.charAt(0);
+		final boolean isPawnMove = firstChar >= 'a' && firstChar <= 'h';
+		final Piece.Type pieceType = isPawnMove ? Piece.Type.PAWN : getType(firstChar);
+		if (pieceType == null) {
+			return null;
+		}
+		// the file and the rank of the source, if they are written
+		int sourceFile = -1;
+		int sourceRank = -1;
+		for (int i = isPawnMove ? 0 : 1; i < end - 2; ++i) {
+			final char c = san.charAt(i);
+			if (c >= 'a' && c <= 'h') {
+				sourceFile = c - 'a';
+			} else if (c >= '1' && c <= '8') {
+				sourceRank = c - '1';
+			} else if (c != 'x' && c != ':' && c != '-') {
+				return null;
+			}
+		}
+		for (final Move move : board.currentPlayer().getPossibleMoves()) {
+			if (move.getDestinationPosition() == destination &&
+					move.getPiece().getPieceType() == pieceType &&
+					(sourceFile < 0 || getFile(move.getCurrentPosition()) == sourceFile) &&
+					(sourceRank < 0 || getRank(move.getCurrentPosition()) == sourceRank) &&
+					isMatchingPromotion(move, promotionType)) {
+				final MoveTransition moveTransition = playIfLegal(board, move);
+				if (moveTransition != null) {
+					return moveTransition;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the given move of the given board in standard algebraic notation.
+	 * @param board is the board before the move.
+	 * @param move is the given move, which must be legal.
+	 * @return the move in standard algebraic notation.
+	 */
+	public static String toSan(final Board board, final Move move) {
+		final MoveTransition moveTransition = playIfLegal(board, move);
+		if (moveTransition == null) {
+			throw new IllegalArgumentException("Not a legal move: " + move);
+		}
+		final StringBuilder san = new StringBuilder();
+		if (move instanceof KingSideCastleMove) {
+			san.append("O-O");
+		} else if (move instanceof QueenSideCastleMove) {
+			san.append("O-O-O");
+		} else {
+			final Piece.Type pieceType = move.getPiece().getPieceType();
+			final String source = Helper.getPositionAtCoordinate(move.getCurrentPosition());
+			if (pieceType == Piece.Type.PAWN) {
+				if (move.isAttack()) {
+					san.append(source.charAt(0));
+				}
+			} else {
+				san.append(pieceType.toString());
+				appendDisambiguation(san, board, move, source);
+			}
+			if (move.isAttack()) {
+				san.append('x');
+			}
+			san.append(Helper.getPositionAtCoordinate(move.getDestinationPosition()));
+			if (move instanceof PawnPromotion) {
+				san.append('=').append(((PawnPromotion) move).getPromotionType().toString());
+			}
+		}
+		final Board boardAfterMove = moveTransition.getTransitionBoard();
+		if (boardAfterMove.currentPlayer().isInCheck()) {
+			san.append(boardAfterMove.currentPlayer().isInCheckMate() ? '#' : '+');
+		}
+		return san.toString();
+	}
+
+	/**
+	 * Adds the file, the rank or both of the source of a move, if another legal
+	 * move of a piece of the same type has the same destination.
+	 * @param san is the written move.
+	 * @param board is the board before the move.
+	 * @param move is the given move.
+	 * @param source is the source of the move.
+	 */
+	private static void appendDisambiguation(final StringBuilder san,
+											 final Board board,
+											 final Move move,
+											 final String source) {
+		boolean isAmbiguous = false;
+		boolean isSameFile = false;
+		boolean isSameRank = false;
+		for (final Move otherMove : board.currentPlayer().getPossibleMoves()) {
+			if (otherMove.getDestinationPosition() == move.getDestinationPosition() &&
+					otherMove.getCurrentPosition() != move.getCurrentPosition() &&
+					otherMove.getPiece().getPieceType() == move.getPiece().getPieceType() &&
+					playIfLegal(board, otherMove) != null) {
+				isAmbiguous = true;
+				isSameFile |= getFile(otherMove.getCurrentPosition()) == getFile(move.getCurrentPosition());
+				isSameRank |= getRank(otherMove.getCurrentPosition()) == getRank(move.getCurrentPosition());
+			}
+		}
+		if (!isAmbiguous) {
+			return;
+		}
+		if (!isSameFile) {
+			san.append(source.charAt(0));
+		} else if (!isSameRank) {
+			san.append(source.charAt(1));
+		} else {
+			san.append(source);
+		}
+	}
+
+	/**
+	 * Makes the given move, if it does not leave the king of the player in check.
+	 * @param board is the given board.
+	 * @param move is the given move.
+	 * @return the transition of the move, or null if the move is not legal.
+	 */
+	private static MoveTransition playIfLegal(final Board board, final Move move) {
+		final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+		return moveTransition.getMoveStatus().isDone() ? moveTransition : null;
+	}
+
+	/**
+	 * Checks whether the given move is written as castling, with the letter O or
+	 * with zeros.
+	 * @param san is the written move.
+	 * @param end is the end of the move, without its marks.
+	 * @return true if the move is castling, o.w false.
+	 */
+	private static boolean isCastling(final CharSequence san, final int end) {
+		if (end != 3 && end != 5) {
+			return false;
+		}
+		final char castleChar = san.charAt(0);
+		if (castleChar != 'O' && castleChar != '0') {
+			return false;
+		}
+		for (int i = 1; i < end; ++i) {
+			if (san.charAt(i) != (i % 2 == 1 ? '-' : castleChar)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether the given move promotes to the given type.
+	 * @param move is the given move.
+	 * @param promotionType is the written promoted piece, or null.
+	 * @return true if the move matches the promoted piece, o.w false.
+	 */
+	private static boolean isMatchingPromotion(final Move move, final Piece.Type promotionType) {
+		if (move instanceof PawnPromotion) {
+			return ((PawnPromotion) move).getPromotionType() == promotionType;
+		}
+		return promotionType == null;
+	}
+
+	/**
+	 * Returns the type of a piece letter.
+	 * @param letter is the given letter.
+	 * @return the type, or null if there is no such piece.
+	 */
+	private static Piece.Type getType(final char letter) {
+		for (final Piece.Type type : Piece.Type.values()) {
+			if (type.toString().charAt(0) == letter) {
+				return type;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the position of a file and a rank.
+	 * @param file is the file letter.
+	 * @param rank is the rank digit.
+	 * @return the position, or -1 if it is not on the board.
+	 */
+	private static short getPosition(final char file, final char rank) {
+		if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+			return -1;
+		}
+		return (short) (('8' - rank) * Helper.NUM_TILES_PER_ROW + (file - 'a'));
+	}
+
+	/**
+	 * Returns the file of a position, 0 for the a file.
+	 * @param position is the given position.
+	 * @return the file.
+	 */
+	private static int getFile(final short position) { return position % Helper.NUM_TILES_PER_ROW; }
+
+	/**
+	 * Returns the rank of a position, 0 for the first rank.
+	 * @param position is the given position.
+	 * @return the rank.
+	 */
+	private static int getRank(final short position) {
+		return Helper.NUM_TILES_PER_ROW - 1 - position / Helper.NUM_TILES_PER_ROW;
+	}
+}
@@ -102,7 +102,7 @@ public class Bishop extends Piece{
 	 */
 	@Override
 	public Bishop movePiece(final Move move) {
-		return new Bishop(move.getPiece().getPieceColor(), move.getDestinationPosition());
+		return new Bishop(move.getPiece().getPieceColor(), move.getDestinationPosition(), false);
 	}
 
 }
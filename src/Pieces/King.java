@@ -101,6 +101,6 @@ public class King extends Piece {
 	 */
 	@Override
 	public King movePiece(final Move move) {
-		return new King(move.getPiece().getPieceColor(), move.getDestinationPosition());
+		return new King(move.getPiece().getPieceColor(), move.getDestinationPosition(), false);
 	}
 }
@@ -107,6 +107,6 @@ public class Knight extends Piece{
 	 */
 	@Override
 	public Knight movePiece(final Move move) {
-		return new Knight(move.getPiece().getPieceColor(), move.getDestinationPosition());
+		return new Knight(move.getPiece().getPieceColor(), move.getDestinationPosition(), false);
 	}
 }
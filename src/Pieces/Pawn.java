@@ -10,8 +10,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Scanner;
 
-import javax.swing.JOptionPane;
-
 import Board.Board;
 import Board.PlayerColor;
 import Board.Move.PawnPromotion;
@@ -24,6 +22,8 @@ public class Pawn extends Piece {
 
 	// possible offsets for a pawn piece
 	private final static short[] possibleOffsets = { 7, 8, 9, 16 };
+	// the types that a pawn may become, the strongest first
+	private final static Type[] promotionTypes = { Type.QUEEN, Type.ROOK, Type.BISHOP, Type.KNIGHT };
 	
 	/**
 	 *  Constructor for first move
@@ -60,7 +60,7 @@ public class Pawn extends Piece {
 			// if the move is valid - jump one step
 			if (currentOffset == 8 && !board.getTile(tempPosition).isTileOccupied()) {
 				if (this.getPieceColor().isPawnPromotionTile(tempPosition)) {
-					possibleMoves.add(new PawnPromotion(new PawnMove(board, this, tempPosition)));
+					addPromotions(possibleMoves, new PawnMove(board, this, tempPosition));
 				} else {
 					possibleMoves.add(new PawnMove(board, this, tempPosition));
 				}
@@ -81,7 +81,7 @@ public class Pawn extends Piece {
 					final Piece pieceAtDestination = board.getTile(tempPosition).getStandingPiece();
 					if (this.color != pieceAtDestination.getPieceColor()) {
 						if (this.getPieceColor().isPawnPromotionTile(tempPosition)) {
-							possibleMoves.add(new PawnPromotion(new Move.PawnAttackMove(board, this, tempPosition, pieceAtDestination)));
+							addPromotions(possibleMoves, new Move.PawnAttackMove(board, this, tempPosition, pieceAtDestination));
 						} else {
 							possibleMoves.add(new Move.PawnAttackMove(board, this, tempPosition, pieceAtDestination));
 						}
@@ -102,7 +102,7 @@ public class Pawn extends Piece {
 					final Piece pieceAtDestination = board.getTile(tempPosition).getStandingPiece();
 					if (this.color != pieceAtDestination.getPieceColor()) {
 						if (this.getPieceColor().isPawnPromotionTile(tempPosition)) {
-							possibleMoves.add(new PawnPromotion(new Move.PawnAttackMove(board, this, tempPosition, pieceAtDestination)));
+							addPromotions(possibleMoves, new Move.PawnAttackMove(board, this, tempPosition, pieceAtDestination));
 						} else {
 							possibleMoves.add(new Move.PawnAttackMove(board, this, tempPosition, pieceAtDestination));
 						}
@@ -133,27 +133,36 @@ public class Pawn extends Piece {
 	 */
 	@Override
 	public Pawn movePiece(final Move move) {
-		return new Pawn(move.getPiece().getPieceColor(), move.getDestinationPosition());
+		return new Pawn(move.getPiece().getPieceColor(), move.getDestinationPosition(), false);
 	}
 	
 	/**
-	 * Receives the user's choice according to the text below, and changes the pawn accordingly.
-	 * @return the new piece after the change.
+	 * Adds a promotion to every type that the pawn may become.
+	 * @param possibleMoves are the moves of the pawn.
+	 * @param move is the move to the last row.
 	 */
-	public Piece getPromotionChoice() { 
-		String text = "Insert [1-4] to promote the pawn:\n1 - Queen\n2 - knight\n3 - Rook\n4 - Bishop";
-		int choice = Integer.parseInt(JOptionPane.showInputDialog(text));
-		switch (choice) {
-			case 1:
-				return new Queen(this.getPieceColor(), this.position, false);
-			case 2:
+	private static void addPromotions(final List<Move> possibleMoves, final Move move) {
+		for (final Type promotionType : promotionTypes) {
+			possibleMoves.add(new PawnPromotion(move, promotionType));
+		}
+	}
+	
+	/**
+	 * Returns the piece that this pawn becomes when it is promoted.
+	 * @param promotionType is the type of the new piece.
+	 * @return the new piece, on the position of the pawn.
+	 */
+	public Piece getPromotedPiece(final Type promotionType) {
+		switch (promotionType) {
+			case KNIGHT:
 				return new Knight(this.getPieceColor(), this.position, false);
-			case 3:
+			case ROOK:
 				return new Rook(this.getPieceColor(), this.position, false);
-			case 4:
+			case BISHOP:
 				return new Bishop(this.getPieceColor(), this.position, false);
+			default:
+				return new Queen(this.getPieceColor(), this.position, false);
 		}
-		return new Queen(this.getPieceColor(), this.position, false);
-		};
+	}
 
 }
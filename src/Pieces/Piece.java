@@ -8,8 +8,6 @@ import Board.PlayerColor;
 
 import java.util.Collection;
 
-import javax.swing.text.html.HTMLDocument.HTMLReader.IsindexAction;
-
 import Board.Board;
 import Board.Move;
 
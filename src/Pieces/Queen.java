@@ -106,7 +106,7 @@ public class Queen extends Piece {
 	 */
 	@Override
 	public Queen movePiece(final Move move) {
-		return new Queen(move.getPiece().getPieceColor(), move.getDestinationPosition());
+		return new Queen(move.getPiece().getPieceColor(), move.getDestinationPosition(), false);
 	}
 
 }
@@ -104,7 +104,7 @@ public class Rook extends Piece{
 	 */
 	@Override
 	public Rook movePiece(final Move move) {
-		return new Rook(move.getPiece().getPieceColor(), move.getDestinationPosition());
+		return new Rook(move.getPiece().getPieceColor(), move.getDestinationPosition(), false);
 	}
 
 }
@@ -63,37 +63,31 @@ public class BlackPlayer extends Player {
 	protected Collection<Move> calculateKingCastles(final Collection<Move> currentPlayerMoves,
 													final Collection<Move> opponentPlayerMoves) {
 		final List<Move> kingCastles = new ArrayList<>();
-		if (this.king.isFirstMove() && !this.isInCheck()) {
-			if (!this.board.getTile((short)5).isTileOccupied() && !this.board.getTile((short)6).isTileOccupied()) {
-				final Tile rookTile = this.board.getTile((short)67);
-				if (rookTile.isTileOccupied() && rookTile.getStandingPiece().isFirstMove()) {
-					if (Player.calculateAttacksOnTile((short)5, opponentPlayerMoves).isEmpty() &&
-					    Player.calculateAttacksOnTile((short)6, opponentPlayerMoves).isEmpty() &&
-					    rookTile.getStandingPiece().getPieceType().isRook()) {
-					}
-					kingCastles.add(new KingSideCastleMove(this.board,
-														   this.king,
-														   (short)6,
-														   (Rook) rookTile.getStandingPiece(),
-														   rookTile.getTilePosition(),
-														   (short)5));
-				}
+		if (this.king.isFirstMove() && this.king.getPosition() == 4 && !this.isInCheck()) {
+			final Tile kingSideRookTile = this.board.getTile((short)7);
+			if (!this.board.getTile((short)5).isTileOccupied() &&
+				!this.board.getTile((short)6).isTileOccupied() &&
+				isCastleRook(kingSideRookTile) &&
+				!isAttackedByOpponent((short)5, (short)6)) {
+				kingCastles.add(new KingSideCastleMove(this.board,
+													   this.king,
+													   (short)6,
+													   (Rook) kingSideRookTile.getStandingPiece(),
+													   kingSideRookTile.getTilePosition(),
+													   (short)5));
 			}
+			final Tile queenSideRookTile = this.board.getTile((short)0);
 			if (!this.board.getTile((short)1).isTileOccupied() &&
 				!this.board.getTile((short)2).isTileOccupied() &&
-				!this.board.getTile((short)3).isTileOccupied()) {
-				final Tile rookTile = this.board.getTile((short)0);
-				if (rookTile.isTileOccupied() && rookTile.getStandingPiece().isFirstMove() &&
-					Player.calculateAttacksOnTile((short)2, opponentPlayerMoves).isEmpty() &&
-					Player.calculateAttacksOnTile((short)3, opponentPlayerMoves).isEmpty() &&
-					rookTile.getStandingPiece().getPieceType().isRook()) {
-					kingCastles.add(new QueenSideCastleMove(this.board,
-															this.king,
-															(short)2,
-															(Rook) rookTile.getStandingPiece(),
-															rookTile.getTilePosition(),
-															(short)3));
-				}
+				!this.board.getTile((short)3).isTileOccupied() &&
+				isCastleRook(queenSideRookTile) &&
+				!isAttackedByOpponent((short)2, (short)3)) {
+				kingCastles.add(new QueenSideCastleMove(this.board,
+														this.king,
+														(short)2,
+														(Rook) queenSideRookTile.getStandingPiece(),
+														queenSideRookTile.getTilePosition(),
+														(short)3));
 			}
 		}
 		
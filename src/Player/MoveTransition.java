@@ -33,6 +33,12 @@ public class MoveTransition {
 	 */
 	public Board getTransitionBoard() { return this.transitionBoard; }
 	
+	/**
+	 * Returns this move.
+	 * @return this move.
+	 */
+	public Move getMove() { return this.move; }
+	
 	/**
 	 * Returns this moveStatus.
 	 * @return this moveStatus.
@@ -7,9 +7,11 @@ package Player;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import Board.BitBoards;
 import Board.Board;
 import Board.PlayerColor;
 import Board.Move;
+import Board.Tile;
 import Pieces.King;
 import Pieces.Piece;
 
@@ -33,11 +35,12 @@ public abstract class Player {
 			final Collection<Move> opponentMoves) {
 		this.board = board;
 		this.king = initializeKing();
+		// the castle moves need to know if the king is in check
+		this.isInCheck = !Player.calculateAttacksOnTile(this.king.getPosition(), opponentMoves).isEmpty();
 		List<Move> l = new ArrayList<>();
 		l.addAll(possibleMoves);
-		//l.addAll(calculateKingCastles(possibleMoves, opponentMoves));
+		l.addAll(calculateKingCastles(possibleMoves, opponentMoves));
 		this.possibleMoves = l;
-		this.isInCheck = !Player.calculateAttacksOnTile(this.king.getPosition(), opponentMoves).isEmpty();
 	}
 	
 	/**
@@ -61,6 +64,43 @@ public abstract class Player {
 		return result;
 	}
 	
+	/**
+	 * Checks whether the opponent attacks one of the given positions. The attacks
+	 * are taken from the pieces of the opponent and not from its moves, because a
+	 * pawn has no move to an empty tile that it attacks.
+	 * @param positions are the given positions.
+	 * @return true if one of the positions is attacked, o.w false.
+	 */
+	protected boolean isAttackedByOpponent(final short... positions) {
+		final Collection<Piece> opponentPieces = getColor().isWhite() ? this.board.getBlackPieces() :
+																		 this.board.getWhitePieces();
+		final long occupied = BitBoards.occupancy(this.board.getWhitePieces()) |
+							  BitBoards.occupancy(this.board.getBlackPieces());
+		long attacked = 0;
+		for (final Piece piece : opponentPieces) {
+			attacked |= BitBoards.attacks(piece, occupied);
+		}
+		for (final short position : positions) {
+			if ((attacked & (1L << position)) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Checks whether the given tile has a rook of this player that did not move yet.
+	 * @param tile is the given tile.
+	 * @return true if the rook can castle, o.w false.
+	 */
+	protected boolean isCastleRook(final Tile tile) {
+		if (!tile.isTileOccupied()) {
+			return false;
+		}
+		final Piece piece = tile.getStandingPiece();
+		return piece.getPieceType().isRook() && piece.isFirstMove() && piece.getPieceColor() == getColor();
+	}
+	
 	/**
 	 * Sets the king
 	 * @return the king.
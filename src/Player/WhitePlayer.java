@@ -63,37 +63,31 @@ public class WhitePlayer extends Player {
 	protected Collection<Move> calculateKingCastles(final Collection<Move> currentPlayerMoves,
 													final Collection<Move> opponentPlayerMoves) {
 		final List<Move> kingCastles = new ArrayList<>();
-		if (this.king.isFirstMove() && !this.isInCheck()) {
-			if (!this.board.getTile((short)61).isTileOccupied() && !this.board.getTile((short)62).isTileOccupied()) {
-				final Tile rookTile = this.board.getTile((short)63);
-				if (rookTile.isTileOccupied() && rookTile.getStandingPiece().isFirstMove()) {
-					if (Player.calculateAttacksOnTile((short)61, opponentPlayerMoves).isEmpty() &&
-					    Player.calculateAttacksOnTile((short)62, opponentPlayerMoves).isEmpty() &&
-					    rookTile.getStandingPiece().getPieceType().isRook()) {
-					}
-					kingCastles.add(new KingSideCastleMove(this.board,
-							this.king,
-							(short)62,
-							(Rook)rookTile.getStandingPiece(),
-							rookTile.getTilePosition(),
-							(short) 61));
-				}
+		if (this.king.isFirstMove() && this.king.getPosition() == 60 && !this.isInCheck()) {
+			final Tile kingSideRookTile = this.board.getTile((short)63);
+			if (!this.board.getTile((short)61).isTileOccupied() &&
+				!this.board.getTile((short)62).isTileOccupied() &&
+				isCastleRook(kingSideRookTile) &&
+				!isAttackedByOpponent((short)61, (short)62)) {
+				kingCastles.add(new KingSideCastleMove(this.board,
+													   this.king,
+													   (short)62,
+													   (Rook) kingSideRookTile.getStandingPiece(),
+													   kingSideRookTile.getTilePosition(),
+													   (short)61));
 			}
-			if (!this.board.getTile((short)59).isTileOccupied() &&
+			final Tile queenSideRookTile = this.board.getTile((short)56);
+			if (!this.board.getTile((short)57).isTileOccupied() &&
 				!this.board.getTile((short)58).isTileOccupied() &&
-				!this.board.getTile((short)57).isTileOccupied()) {
-				final Tile rookTile = this.board.getTile((short)60);
-				if (rookTile.isTileOccupied() && rookTile.getStandingPiece().isFirstMove() &&
-					Player.calculateAttacksOnTile((short)58, opponentPlayerMoves).isEmpty() &&
-					Player.calculateAttacksOnTile((short)59, opponentPlayerMoves).isEmpty() &&
-					rookTile.getStandingPiece().getPieceType().isKing()) {
-					kingCastles.add(new QueenSideCastleMove(this.board,
-															this.king,
-															(short)58,
-															(Rook)rookTile.getStandingPiece(),
-															rookTile.getTilePosition(),
-															(short)59));
-				}
+				!this.board.getTile((short)59).isTileOccupied() &&
+				isCastleRook(queenSideRookTile) &&
+				!isAttackedByOpponent((short)58, (short)59)) {
+				kingCastles.add(new QueenSideCastleMove(this.board,
+														this.king,
+														(short)58,
+														(Rook) queenSideRookTile.getStandingPiece(),
+														queenSideRookTile.getTilePosition(),
+														(short)59));
 			}
 		}
 		
@@ -4,15 +4,23 @@
  * @author Omer Shitrit.
  */
 
+import java.io.IOException;
+
 import Board.Board;
 import GUI.BoardGUI;
+import UCI.UciEngine;
 
 /*
  * Creates a chess board and shows it.
  */
 public class RunChessGame {
 
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
+		// the UCI engine runs without a display
+		if (args.length > 0 && args[0].equals("uci")) {
+			UciEngine.main(args);
+			return;
+		}
 		BoardGUI.get().show();
 	}
 
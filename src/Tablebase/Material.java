@@ -0,0 +1,114 @@
+/**
+ * This enum represents the sets of material that have a tablebase: a king and
+ * one piece of the strong side against a lone king of the weak side.
+ */
+
+package Tablebase;
+
+import Pieces.Piece;
+
+/**
+ * Represents the material of a tablebase.
+ * @author Omer Shitrit
+ *
+ */
+public enum Material {
+
+	KQK(Piece.Type.QUEEN) {
+
+		/**
+		 * A queen moves like a rook and like a bishop.
+		 */
+		@Override
+		int[][] getDirections() { return QUEEN_DIRECTIONS; }
+
+		/**
+		 * A queen is never promoted.
+		 */
+		@Override
+		Material[] getPromotions() { return NO_PROMOTIONS; }
+	},
+	KRK(Piece.Type.ROOK) {
+
+		/**
+		 * A rook moves along the rows and the columns.
+		 */
+		@Override
+		int[][] getDirections() { return ROOK_DIRECTIONS; }
+
+		/**
+		 * A rook is never promoted.
+		 */
+		@Override
+		Material[] getPromotions() { return NO_PROMOTIONS; }
+	},
+	KPK(Piece.Type.PAWN) {
+
+		/**
+		 * A pawn does not slide.
+		 */
+		@Override
+		int[][] getDirections() { return NO_DIRECTIONS; }
+
+		/**
+		 * A pawn is promoted to a queen or a rook. A bishop or a knight can never win.
+		 */
+		@Override
+		Material[] getPromotions() { return new Material[] { KQK, KRK }; }
+	};
+
+	// the directions are pairs of a row step and a column step
+	private static final int[][] ROOK_DIRECTIONS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+	private static final int[][] QUEEN_DIRECTIONS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 },
+													  { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } };
+	private static final int[][] NO_DIRECTIONS = {};
+	private static final Material[] NO_PROMOTIONS = {};
+
+	private final Piece.Type pieceType;
+
+	/**
+	 * Constructor
+	 * @param pieceType is the type of the piece of the strong side.
+	 */
+	Material(final Piece.Type pieceType) {
+		this.pieceType = pieceType;
+	}
+
+	/**
+	 * Returns the type of the piece of the strong side.
+	 * @return the type of the piece.
+	 */
+	public Piece.Type getPieceType() { return this.pieceType; }
+
+	/**
+	 * Returns the name of the file of this tablebase.
+	 * @return the name of the file.
+	 */
+	public String getFileName() { return name() + ".tb"; }
+
+	/**
+	 * Returns the material of the given piece type.
+	 * @param pieceType is the type of the piece of the strong side.
+	 * @return the material, or null if there is no tablebase for this piece.
+	 */
+	public static Material of(final Piece.Type pieceType) {
+		for (final Material material : values()) {
+			if (material.pieceType == pieceType) {
+				return material;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the directions that the piece slides in.
+	 * @return the directions, or an empty array if the piece does not slide.
+	 */
+	abstract int[][] getDirections();
+
+	/**
+	 * Returns the materials that the piece can be promoted to.
+	 * @return the materials of the promotions.
+	 */
+	abstract Material[] getPromotions();
+}
@@ -0,0 +1,466 @@
+/**
+ * This class generates the tablebases by retrograde analysis. All the positions
+ * of a material are enumerated by their index, the mates are found, and then
+ * every sweep over the positions finds the positions that are one ply further
+ * from a mate: a position of the strong side is won in n plies if one of its
+ * moves leads to a loss in n-1 plies, and a position of the weak side is lost
+ * if all of its moves lead to wins. The positions that are never solved are draws.
+ * The moves are generated on the squares directly, without boards, and every
+ * sweep is split between threads. A position keeps its value in one short, so
+ * a thread that reads a position while it is solved sees either the old or the
+ * new value, and the new value is never the one the sweep looks for.
+ */
+
+package Tablebase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import Board.Helper;
+
+public class TablebaseGenerator {
+
+	// the values of the positions that are not mates in a number of plies
+	private static final short UNKNOWN = -1;
+	private static final short ILLEGAL = -2;
+	private static final short DRAW = -3;
+	// the results of scanning the moves of the weak side
+	private static final int NO_MOVES = -2;
+	private static final int NOT_ALL_WON = -1;
+
+	private static final int[][] KING_TARGETS = initKingTargets();
+
+	private final int threadCount;
+	private final Map<Material, short[]> values;
+
+	/**
+	 * Constructor
+	 * @param threadCount is the number of threads of every sweep.
+	 */
+	public TablebaseGenerator(final int threadCount) {
+		this.threadCount = threadCount;
+		this.values = new EnumMap<>(Material.class);
+	}
+
+	/**
+	 * Generates the tablebase of the given material and writes it to the given directory.
+	 * @param material is the given material.
+	 * @param directory is the given directory.
+	 * @throws IOException if the file cannot be written.
+	 * @throws InterruptedException if the thread was interrupted.
+	 */
+	public void write(final Material material, final Path directory) throws IOException, InterruptedException {
+		final short[] materialValues = generate(material);
+		final byte[] table = new byte[Tablebases.POSITION_COUNT];
+		for (int index = 0; index < table.length; ++index) {
+			final short value = materialValues[index];
+			if (value == ILLEGAL) {
+				table[index] = Tablebases.pack(Tablebases.ILLEGAL, 0);
+			} else if (value < 0) {
+				table[index] = Tablebases.pack(Tablebases.DRAW, 0);
+			} else if (value % 2 == 1) {
+				// the strong side mates in an odd number of plies
+				table[index] = Tablebases.pack(Tablebases.WIN, (value + 1) / 2);
+			} else {
+				table[index] = Tablebases.pack(Tablebases.LOSS, value / 2);
+			}
+		}
+		Files.createDirectories(directory);
+		Files.write(directory.resolve(material.getFileName()), table);
+	}
+
+	/**
+	 * Returns the values of all the positions of the given material: the number of
+	 * plies to mate, ILLEGAL or DRAW. The materials of the promotions are generated first.
+	 * @param material is the given material.
+	 * @return the values.
+	 * @throws InterruptedException if the thread was interrupted.
+	 */
+	short[] generate(final Material material) throws InterruptedException {
+		short[] materialValues = this.values.get(material);
+		if (materialValues == null) {
+			final short[][] promotionValues = new short[material.getPromotions().length][];
+			for (int i = 0; i < promotionValues.length; ++i) {
+				promotionValues[i] = generate(material.getPromotions()[i]);
+			}
+			materialValues = new Solver(material, promotionValues).solve();
+			this.values.put(material, materialValues);
+		}
+		return materialValues;
+	}
+
+	/**
+	 * Runs a sweep over all the positions, split between the threads.
+	 * @param sweep is the given sweep.
+	 * @return the number of positions that the sweep solved.
+	 * @throws InterruptedException if the thread was interrupted.
+	 */
+	private int runSweep(final Sweep sweep) throws InterruptedException {
+		final ExecutorService executor = Executors.newFixedThreadPool(this.threadCount);
+		try {
+			final List<Callable<Integer>> tasks = new ArrayList<>();
+			final int chunkSize = (Tablebases.POSITION_COUNT + this.threadCount - 1) / this.threadCount;
+			for (int start = 0; start < Tablebases.POSITION_COUNT; start += chunkSize) {
+				final int from = start;
+				final int to = Math.min(Tablebases.POSITION_COUNT, start + chunkSize);
+				tasks.add(new Callable<Integer>() {
+
+					@Override
+					public Integer call() {
+						int solved = 0;
+						for (int index = from; index < to; ++index) {
+							if (sweep.visit(index)) {
+								++solved;
+							}
+						}
+						return solved;
+					}
+				});
+			}
+			int solved = 0;
+			for (final Future<Integer> future : executor.invokeAll(tasks)) {
+				solved += future.get();
+			}
+			return solved;
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Returns the row of the given square, when 0 is the eighth row.
+	 * @param square is the given square.
+	 * @return the row.
+	 */
+	private static int row(final int square) { return square / Helper.NUM_TILES_PER_ROW; }
+
+	/**
+	 * Returns the column of the given square.
+	 * @param square is the given square.
+	 * @return the column.
+	 */
+	private static int column(final int square) { return square % Helper.NUM_TILES_PER_ROW; }
+
+	/**
+	 * Returns true if the given squares touch each other.
+	 * @param first is the first square.
+	 * @param second is the second square.
+	 * @return true or false.
+	 */
+	private static boolean isAdjacent(final int first, final int second) {
+		return first != second && Math.abs(row(first) - row(second)) <= 1 && Math.abs(column(first) - column(second)) <= 1;
+	}
+
+	/**
+	 * Calculates the squares that a king can move to, from every square.
+	 * @return the squares of every square.
+	 */
+	private static int[][] initKingTargets() {
+		final int[][] kingTargets = new int[Helper.NUM_TILES][];
+		for (int square = 0; square < Helper.NUM_TILES; ++square) {
+			final List<Integer> targets = new ArrayList<>();
+			for (int target = 0; target < Helper.NUM_TILES; ++target) {
+				if (isAdjacent(square, target)) {
+					targets.add(target);
+				}
+			}
+			kingTargets[square] = new int[targets.size()];
+			for (int i = 0; i < targets.size(); ++i) {
+				kingTargets[square][i] = targets.get(i);
+			}
+		}
+		return kingTargets;
+	}
+
+	/**
+	 * This interface represents a pass over all the positions.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private interface Sweep {
+
+		/**
+		 * Visits the position of the given index.
+		 * @param index is the given index.
+		 * @return true if the position was solved, o.w false.
+		 */
+		boolean visit(int index);
+	}
+
+	/**
+	 * This class solves the positions of one material.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private class Solver {
+
+		private final Material material;
+		private final boolean isPawn;
+		private final short[][] promotionValues;
+		private final short[] positionValues;
+
+		/**
+		 * Constructor
+		 * @param material is the given material.
+		 * @param promotionValues are the values of the materials of the promotions.
+		 */
+		private Solver(final Material material, final short[][] promotionValues) {
+			this.material = material;
+			this.isPawn = material == Material.KPK;
+			this.promotionValues = promotionValues;
+			this.positionValues = new short[Tablebases.POSITION_COUNT];
+		}
+
+		/**
+		 * Solves all the positions and returns their values.
+		 * @return the values.
+		 * @throws InterruptedException if the thread was interrupted.
+		 */
+		private short[] solve() throws InterruptedException {
+			runSweep(new Sweep() {
+
+				@Override
+				public boolean visit(final int index) {
+					Solver.this.positionValues[index] = initialValue(index);
+					return false;
+				}
+			});
+			// a promotion can lead to a mate that is longer than all the mates of this material
+			int longestPromotion = 0;
+			for (final short[] promotion : this.promotionValues) {
+				for (final short value : promotion) {
+					longestPromotion = Math.max(longestPromotion, value);
+				}
+			}
+			int solved = 1;
+			for (int plies = 1; solved > 0 || plies <= longestPromotion + 1; ++plies) {
+				final int currentPlies = plies;
+				solved = runSweep(new Sweep() {
+
+					@Override
+					public boolean visit(final int index) {
+						if (Solver.this.positionValues[index] != UNKNOWN) {
+							return false;
+						}
+						final short value = solvePosition(index, currentPlies);
+						if (value == UNKNOWN) {
+							return false;
+						}
+						Solver.this.positionValues[index] = value;
+						return true;
+					}
+				});
+			}
+			for (int index = 0; index < this.positionValues.length; ++index) {
+				if (this.positionValues[index] == UNKNOWN) {
+					this.positionValues[index] = DRAW;
+				}
+			}
+			return this.positionValues;
+		}
+
+		/**
+		 * Returns the value of a position before the sweeps: ILLEGAL, a mate in 0 plies,
+		 * a stale mate or UNKNOWN.
+		 * @param index is the index of the position.
+		 * @return the value.
+		 */
+		private short initialValue(final int index) {
+			final int piece = index & 63;
+			final int weakKing = (index >>> 6) & 63;
+			final int strongKing = (index >>> 12) & 63;
+			final int sideToMove = index >>> 18;
+			if (strongKing == weakKing || strongKing == piece || weakKing == piece || isAdjacent(strongKing, weakKing)) {
+				return ILLEGAL;
+			}
+			if (this.isPawn && (row(piece) == 0 || row(piece) == Helper.NUM_TILES_PER_ROW - 1)) {
+				return ILLEGAL;
+			}
+			final boolean isWeakInCheck = isAttacked(weakKing, piece, strongKing);
+			if (sideToMove == Tablebases.STRONG_TO_MOVE) {
+				// the weak king cannot be in check when the strong side moves
+				if (isWeakInCheck) { return ILLEGAL; }
+				return scanStrongMoves(strongKing, weakKing, piece, Integer.MIN_VALUE) == 0 ? DRAW : UNKNOWN;
+			}
+			if (scanWeakMoves(strongKing, weakKing, piece) == NO_MOVES) {
+				return isWeakInCheck ? 0 : DRAW;
+			}
+			return UNKNOWN;
+		}
+
+		/**
+		 * Solves a position in the sweep of the given number of plies.
+		 * @param index is the index of the position.
+		 * @param plies is the number of plies of the sweep.
+		 * @return the number of plies to mate, or UNKNOWN if the position is not solved yet.
+		 */
+		private short solvePosition(final int index, final int plies) {
+			final int piece = index & 63;
+			final int weakKing = (index >>> 6) & 63;
+			final int strongKing = (index >>> 12) & 63;
+			if (index >>> 18 == Tablebases.STRONG_TO_MOVE) {
+				return scanStrongMoves(strongKing, weakKing, piece, plies - 1) < 0 ? (short) plies : UNKNOWN;
+			}
+			final int longestWin = scanWeakMoves(strongKing, weakKing, piece);
+			// a win that was solved in this sweep by another thread waits for the next sweep
+			return longestWin >= 0 && longestWin < plies ? (short) (longestWin + 1) : UNKNOWN;
+		}
+
+		/**
+		 * Scans the moves of the strong side, looking for a move to a loss of the weak side.
+		 * @param strongKing is the square of the strong king.
+		 * @param weakKing is the square of the weak king.
+		 * @param piece is the square of the piece.
+		 * @param lossPlies is the number of plies of the loss that is looked for.
+		 * @return -1 if a move leads to the loss, o.w the number of moves.
+		 */
+		private int scanStrongMoves(final int strongKing, final int weakKing, final int piece, final int lossPlies) {
+			int moveCount = 0;
+			for (final int target : KING_TARGETS[strongKing]) {
+				if (target != piece && !isAdjacent(target, weakKing)) {
+					if (valueAfterStrongMove(target, weakKing, piece) == lossPlies) { return -1; }
+					++moveCount;
+				}
+			}
+			if (this.isPawn) {
+				final int push = piece - Helper.NUM_TILES_PER_ROW;
+				if (push != strongKing && push != weakKing) {
+					if (row(push) == 0) {
+						for (final short[] promotion : this.promotionValues) {
+							if (promotion[Tablebases.index(Tablebases.WEAK_TO_MOVE, strongKing, weakKing, push)] == lossPlies) {
+								return -1;
+							}
+						}
+					} else if (valueAfterStrongMove(strongKing, weakKing, push) == lossPlies) {
+						return -1;
+					}
+					++moveCount;
+					final int jump = push - Helper.NUM_TILES_PER_ROW;
+					if (row(piece) == Helper.NUM_TILES_PER_ROW - 2 && jump != strongKing && jump != weakKing) {
+						if (valueAfterStrongMove(strongKing, weakKing, jump) == lossPlies) { return -1; }
+						++moveCount;
+					}
+				}
+				return moveCount;
+			}
+			for (final int[] direction : this.material.getDirections()) {
+				int currentRow = row(piece) + direction[0];
+				int currentColumn = column(piece) + direction[1];
+				while (currentRow >= 0 && currentRow < Helper.NUM_TILES_PER_ROW &&
+						currentColumn >= 0 && currentColumn < Helper.NUM_TILES_PER_ROW) {
+					final int target = currentRow * Helper.NUM_TILES_PER_ROW + currentColumn;
+					if (target == strongKing || target == weakKing) {
+						break;
+					}
+					if (valueAfterStrongMove(strongKing, weakKing, target) == lossPlies) { return -1; }
+					++moveCount;
+					currentRow += direction[0];
+					currentColumn += direction[1];
+				}
+			}
+			return moveCount;
+		}
+
+		/**
+		 * Returns the value of the position after a move of the strong side.
+		 * @param strongKing is the square of the strong king after the move.
+		 * @param weakKing is the square of the weak king.
+		 * @param piece is the square of the piece after the move.
+		 * @return the value.
+		 */
+		private short valueAfterStrongMove(final int strongKing, final int weakKing, final int piece) {
+			return this.positionValues[Tablebases.index(Tablebases.WEAK_TO_MOVE, strongKing, weakKing, piece)];
+		}
+
+		/**
+		 * Scans the moves of the weak king.
+		 * @param strongKing is the square of the strong king.
+		 * @param weakKing is the square of the weak king.
+		 * @param piece is the square of the piece.
+		 * @return NO_MOVES if the king cannot move, NOT_ALL_WON if a move does not lead to a
+		 * solved win of the strong side, o.w the number of plies of the longest win.
+		 */
+		private int scanWeakMoves(final int strongKing, final int weakKing, final int piece) {
+			int longestWin = NO_MOVES;
+			for (final int target : KING_TARGETS[weakKing]) {
+				if (isAdjacent(target, strongKing) || (target != piece && isAttacked(target, piece, strongKing))) {
+					continue;
+				}
+				// taking the piece leaves two kings, which is a draw
+				if (target == piece) {
+					return NOT_ALL_WON;
+				}
+				final short value = this.positionValues[Tablebases.index(Tablebases.STRONG_TO_MOVE, strongKing, target, piece)];
+				if (value < 0) {
+					return NOT_ALL_WON;
+				}
+				longestWin = Math.max(longestWin, value);
+			}
+			return longestWin;
+		}
+
+		/**
+		 * Checks if the piece attacks the given square. The weak king does not block the
+		 * piece, because it is the king that is attacked or the king that moves.
+		 * @param square is the given square.
+		 * @param piece is the square of the piece.
+		 * @param strongKing is the square of the strong king, which blocks the piece.
+		 * @return true if the square is attacked, o.w false.
+		 */
+		private boolean isAttacked(final int square, final int piece, final int strongKing) {
+			final int rowDistance = row(square) - row(piece);
+			final int columnDistance = column(square) - column(piece);
+			if (this.isPawn) {
+				// the pawn of the strong side goes up, towards row 0
+				return rowDistance == -1 && Math.abs(columnDistance) == 1;
+			}
+			if (square == piece) {
+				return false;
+			}
+			final boolean isStraight = rowDistance == 0 || columnDistance == 0;
+			final boolean isDiagonal = Math.abs(rowDistance) == Math.abs(columnDistance);
+			if (!isStraight && !(isDiagonal && this.material == Material.KQK)) {
+				return false;
+			}
+			final int rowStep = Integer.signum(rowDistance);
+			final int columnStep = Integer.signum(columnDistance);
+			int current = piece + rowStep * Helper.NUM_TILES_PER_ROW + columnStep;
+			while (current != square) {
+				if (current == strongKing) {
+					return false;
+				}
+				current += rowStep * Helper.NUM_TILES_PER_ROW + columnStep;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Generates all the tablebases to the given directory:
+	 * TablebaseGenerator [directory]
+	 * @param args are the arguments.
+	 * @throws Exception if a tablebase cannot be generated.
+	 */
+	public static void main(final String[] args) throws Exception {
+		final Path directory = Paths.get(args.length > 0 ? args[0] : "tablebases");
+		final TablebaseGenerator generator = new TablebaseGenerator(Runtime.getRuntime().availableProcessors());
+		for (final Material material : Material.values()) {
+			final long startTime = System.currentTimeMillis();
+			generator.write(material, directory);
+			System.out.println(material + " " + (System.currentTimeMillis() - startTime) + " ms");
+		}
+	}
+}
@@ -0,0 +1,197 @@
+/**
+ * This class probes the tablebases of my program. A tablebase keeps the result
+ * of every position of its material, so a probe replaces the whole search of
+ * the position. The files are mapped to memory, and every position is one byte
+ * at its index: the result for the player to move in the low 2 bits, and the
+ * distance to mate in full moves in the high 6 bits.
+ * The strong side of a tablebase is always white. A position where black is
+ * the strong side is flipped, so black becomes white and the rows are mirrored.
+ */
+
+package Tablebase;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+
+import AI.EvaluationTerms;
+import Board.Board;
+import Board.Helper;
+import Pieces.Piece;
+
+public class Tablebases {
+
+	public static final int NO_SCORE = Integer.MIN_VALUE;
+	// a proven win, on the scale of the check mate scores of the evaluator and above them
+	public static final int WIN_SCORE = EvaluationTerms.MAX_MATE_SCORE;
+
+	static final int STRONG_TO_MOVE = 0;
+	static final int WEAK_TO_MOVE = 1;
+	static final int POSITION_COUNT = 2 * Helper.NUM_TILES * Helper.NUM_TILES * Helper.NUM_TILES;
+
+	// the results of a position, for the player to move
+	static final int ILLEGAL = 0;
+	static final int DRAW = 1;
+	static final int WIN = 2;
+	static final int LOSS = 3;
+	static final int MAX_MOVES = 63;
+
+	private static final String DEFAULT_DIRECTORY = "tablebases";
+
+	private final Map<Material, MappedByteBuffer> tables;
+
+	/**
+	 * Constructor for tablebases without files.
+	 */
+	private Tablebases() {
+		this.tables = new EnumMap<>(Material.class);
+	}
+
+	/**
+	 * Constructor, which maps the tablebases of the given directory.
+	 * A tablebase without a file is not probed.
+	 * @param directory is the given directory.
+	 * @throws IOException if a file cannot be read.
+	 */
+	public Tablebases(final Path directory) throws IOException {
+		this.tables = new EnumMap<>(Material.class);
+		for (final Material material : Material.values()) {
+			final Path path = directory.resolve(material.getFileName());
+			if (!Files.isRegularFile(path)) {
+				continue;
+			}
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				if (channel.size() != POSITION_COUNT) {
+					throw new IOException("Wrong size of the tablebase: " + path);
+				}
+				this.tables.put(material, channel.map(FileChannel.MapMode.READ_ONLY, 0, POSITION_COUNT));
+			}
+		}
+	}
+
+	/**
+	 * Returns the tablebases of the default directory. They are loaded once, by the first call.
+	 * @return the tablebases.
+	 */
+	public static Tablebases get() { return Holder.INSTANCE; }
+
+	/**
+	 * Returns true if there is a tablebase of the given material.
+	 * @param material is the given material.
+	 * @return true or false.
+	 */
+	public boolean contains(final Material material) { return this.tables.containsKey(material); }
+
+	/**
+	 * Probes the given board. Positive scores are good for white, and a shorter
+	 * mate gets a bigger score.
+	 * @param board is the given board.
+	 * @return the score of the board, or NO_SCORE if the board is not in a tablebase.
+	 */
+	public int probe(final Board board) {
+		if (this.tables.isEmpty() || board.getWhitePieces().size() + board.getBlackPieces().size() != 3) {
+			return NO_SCORE;
+		}
+		final boolean isWhiteStrong = board.getWhitePieces().size() == 2;
+		Piece strongKing = null;
+		Piece weakKing = null;
+		Piece piece = null;
+		for (final Piece current : isWhiteStrong ? board.getWhitePieces() : board.getBlackPieces()) {
+			if (current.getPieceType().isKing()) {
+				strongKing = current;
+			} else {
+				piece = current;
+			}
+		}
+		for (final Piece current : isWhiteStrong ? board.getBlackPieces() : board.getWhitePieces()) {
+			weakKing = current;
+		}
+		final Material material = Material.of(piece.getPieceType());
+		final MappedByteBuffer table = material == null ? null : this.tables.get(material);
+		if (table == null) {
+			return NO_SCORE;
+		}
+		final boolean isStrongToMove = board.currentPlayer().getColor().isWhite() == isWhiteStrong;
+		final int index = index(isStrongToMove ? STRONG_TO_MOVE : WEAK_TO_MOVE,
+								toWhiteSquare(strongKing.getPosition(), isWhiteStrong),
+								toWhiteSquare(weakKing.getPosition(), isWhiteStrong),
+								toWhiteSquare(piece.getPosition(), isWhiteStrong));
+		final int entry = table.get(index) & 0xFF;
+		final int result = entry & 3;
+		final int moves = entry >>> 2;
+		final int score;
+		if (result == WIN) {
+			score = WIN_SCORE - (2 * moves - 1);
+		} else if (result == LOSS) {
+			score = -(WIN_SCORE - 2 * moves);
+		} else if (result == DRAW) {
+			score = 0;
+		} else {
+			return NO_SCORE;
+		}
+		// the score is for the player to move, and it is returned for white
+		return board.currentPlayer().getColor().isWhite() ? score : -score;
+	}
+
+	/**
+	 * Returns the index of a position.
+	 * @param sideToMove is STRONG_TO_MOVE or WEAK_TO_MOVE.
+	 * @param strongKing is the square of the strong king.
+	 * @param weakKing is the square of the weak king.
+	 * @param piece is the square of the piece.
+	 * @return the index.
+	 */
+	static int index(final int sideToMove, final int strongKing, final int weakKing, final int piece) {
+		return ((sideToMove * Helper.NUM_TILES + strongKing) * Helper.NUM_TILES + weakKing) * Helper.NUM_TILES + piece;
+	}
+
+	/**
+	 * Packs a result and a distance to mate to the byte of a position.
+	 * @param result is the result for the player to move.
+	 * @param moves is the distance to mate in full moves.
+	 * @return the byte.
+	 */
+	static byte pack(final int result, final int moves) {
+		return (byte) (Math.min(moves, MAX_MOVES) << 2 | result);
+	}
+
+	/**
+	 * Returns the square of a tablebase, where the strong side is white.
+	 * @param position is the position on the board.
+	 * @param isWhiteStrong is true if white is the strong side.
+	 * @return the square.
+	 */
+	private static int toWhiteSquare(final short position, final boolean isWhiteStrong) {
+		// mirrors the rows: a8 (0) is swapped with a1 (56)
+		return isWhiteStrong ? position : position ^ 56;
+	}
+
+	/**
+	 * This class loads the default tablebases when they are used for the first time.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private static class Holder {
+
+		private static final Tablebases INSTANCE = load();
+
+		/**
+		 * Loads the tablebases of the default directory.
+		 * @return the tablebases, which are empty if they cannot be read.
+		 */
+		private static Tablebases load() {
+			try {
+				return new Tablebases(Paths.get(DEFAULT_DIRECTORY));
+			} catch (IOException e) {
+				e.printStackTrace();
+				return new Tablebases();
+			}
+		}
+	}
+}
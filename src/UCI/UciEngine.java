@@ -0,0 +1,445 @@
+/**
+ * This class runs the engine by the Universal Chess Interface (UCI): it reads
+ * the commands of a graphical interface or a tournament manager from the standard
+ * input, and writes the answers to the standard output. It never loads the
+ * classes of the GUI package, so it runs where there is no display.
+ * The search runs in its own thread with Lazy SMP, so the commands are read while
+ * it searches, and an info line is written for every depth that it completes.
+ */
+
+package UCI;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import AI.EvaluationTerms;
+import AI.LazySMP;
+import AI.SearchHandle;
+import AI.SearchListener;
+import AI.SearchResult;
+import AI.TranspositionTable;
+import Board.Board;
+import Board.Fen;
+import Board.Helper;
+import Board.Move;
+import Pieces.Piece;
+import Player.MoveTransition;
+
+public class UciEngine {
+
+	private static final String NAME = "Chess";
+	private static final String AUTHOR = "Omer Shitrit";
+	private static final int MAX_DEPTH = 64;
+	private static final int MIN_HASH = 1;
+	private static final int MAX_HASH = 1024;
+	private static final int MAX_THREADS = 64;
+	// the moves that the remaining time is divided by, if the interface does not tell
+	private static final int DEFAULT_MOVES_TO_GO = 30;
+	// kept from the remaining time for the communication with the interface
+	private static final long MOVE_OVERHEAD = 50;
+	// the best move when there is no move to send
+	private static final String NULL_MOVE = "0000";
+	// the centipawn scores are kept below the scores of mates
+	private static final int MAX_CENTIPAWNS = EvaluationTerms.mateScore(0) - 1;
+
+	private final BufferedReader input;
+	private final PrintStream output;
+	// the board of the last position command, or null if it could not be set
+	private Board board;
+	private TranspositionTable transpositionTable;
+	private int hashSize;
+	private int threadCount;
+	private Search search;
+
+	/**
+	 * Constructor
+	 * @param input is the input of the commands.
+	 * @param output is the output of the answers.
+	 */
+	public UciEngine(final BufferedReader input, final PrintStream output) {
+		this.input = input;
+		this.output = output;
+		this.board = Board.initStandardBoard();
+		this.hashSize = LazySMP.DEFAULT_TABLE_SIZE;
+		this.transpositionTable = new TranspositionTable(this.hashSize);
+		this.threadCount = 1;
+	}
+
+	/**
+	 * Reads and runs the commands until the quit command or the end of the input.
+	 * @throws IOException if the input cannot be read.
+	 */
+	public void run() throws IOException {
+		String line;
+		while ((line = this.input.readLine()) != null) {
+			final String[] tokens = line.trim().split("\\s+");
+			if (tokens[0].equals("quit")) {
+				break;
+			}
+			try {
+				runCommand(tokens);
+			} catch (RuntimeException e) {
+				send("info string " + e.getMessage());
+			}
+		}
+		stopSearch();
+	}
+
+	/**
+	 * Runs a single command.
+	 * @param tokens are the tokens of the command.
+	 */
+	private void runCommand(final String[] tokens) {
+		switch (tokens[0]) {
+			case "uci":
+				send("id name " + NAME);
+				send("id author " + AUTHOR);
+				send("option name Hash type spin default " + LazySMP.DEFAULT_TABLE_SIZE +
+					 " min " + MIN_HASH + " max " + MAX_HASH);
+				send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+				send("uciok");
+				break;
+			case "isready":
+				send("readyok");
+				break;
+			case "ucinewgame":
+				stopSearch();
+				this.transpositionTable = new TranspositionTable(this.hashSize);
+				this.board = Board.initStandardBoard();
+				break;
+			case "setoption":
+				stopSearch();
+				setOption(tokens);
+				break;
+			case "position":
+				stopSearch();
+				// a position that cannot be set leaves no board, instead of the board before it
+				this.board = null;
+				this.board = parsePosition(tokens);
+				break;
+			case "go":
+				stopSearch();
+				go(tokens);
+				break;
+			case "stop":
+				stopSearch();
+				break;
+			default:
+				send("info string unknown command " + tokens[0]);
+		}
+	}
+
+	/**
+	 * Sets an option: setoption name (Hash | Threads) value N
+	 * @param tokens are the tokens of the command.
+	 */
+	private void setOption(final String[] tokens) {
+		final int nameIndex = indexOf(tokens, "name");
+		final int valueIndex = indexOf(tokens, "value");
+		if (nameIndex < 0 || valueIndex < 0 || valueIndex + 1 >= tokens.length) {
+			return;
+		}
+		final int value = Integer.parseInt(tokens[valueIndex + 1]);
+		if (tokens[nameIndex + 1].equalsIgnoreCase("Hash")) {
+			this.hashSize = Math.max(MIN_HASH, Math.min(MAX_HASH, value));
+			this.transpositionTable = new TranspositionTable(this.hashSize);
+		} else if (tokens[nameIndex + 1].equalsIgnoreCase("Threads")) {
+			this.threadCount = Math.max(1, Math.min(MAX_THREADS, value));
+		}
+	}
+
+	/**
+	 * Creates the board of a position command:
+	 * position (startpos | fen FEN) [moves MOVE...]
+	 * @param tokens are the tokens of the command.
+	 * @return the board.
+	 */
+	private static Board parsePosition(final String[] tokens) {
+		final int movesIndex = indexOf(tokens, "moves");
+		final int end = movesIndex < 0 ? tokens.length : movesIndex;
+		Board board;
+		if (tokens.length > 1 && tokens[1].equals("fen")) {
+			final StringBuilder fen = new StringBuilder();
+			for (int i = 2; i < end; ++i) {
+				fen.append(tokens[i]).append(' ');
+			}
+			board = Fen.parse(fen.toString());
+		} else {
+			board = Board.initStandardBoard();
+		}
+		if (movesIndex >= 0) {
+			for (int i = movesIndex + 1; i < tokens.length; ++i) {
+				final MoveTransition moveTransition = board.currentPlayer().makeMove(parseMove(board, tokens[i]));
+				if (!moveTransition.getMoveStatus().isDone()) {
+					throw new IllegalArgumentException("illegal move " + tokens[i]);
+				}
+				board = moveTransition.getTransitionBoard();
+			}
+		}
+		return board;
+	}
+
+	/**
+	 * Finds the move of the given board by its coordinates, like e2e4 or e7e8q.
+	 * @param board is the given board.
+	 * @param text is the move in coordinates.
+	 * @return the move, or the null move if there is no such move.
+	 */
+	static Move parseMove(final Board board, final String text) {
+		if (text.length() < 4) {
+			return Move.NullMove.getNullMove();
+		}
+		final Short position = Helper.POSITION_TO_COORDINATE.get(text.substring(0, 2));
+		final Short destination = Helper.POSITION_TO_COORDINATE.get(text.substring(2, 4));
+		if (position == null || destination == null) {
+			return Move.NullMove.getNullMove();
+		}
+		Piece.Type promotionType = Piece.Type.QUEEN;
+		if (text.length() > 4) {
+			switch (text.charAt(4)) {
+				case 'n': promotionType = Piece.Type.KNIGHT; break;
+				case 'b': promotionType = Piece.Type.BISHOP; break;
+				case 'r': promotionType = Piece.Type.ROOK; break;
+				default: promotionType = Piece.Type.QUEEN;
+			}
+		}
+		return Move.MoveFactory.createMove(board, position, destination, promotionType);
+	}
+
+	/**
+	 * Writes a move in coordinates, with the letter of the promotion type.
+	 * @param move is the given move.
+	 * @return the move in coordinates.
+	 */
+	static String formatMove(final Move move) {
+		final String coordinates = Helper.getPositionAtCoordinate(move.getCurrentPosition()) +
+								   Helper.getPositionAtCoordinate(move.getDestinationPosition());
+		if (move instanceof Move.PawnPromotion) {
+			return coordinates + ((Move.PawnPromotion) move).getPromotionType().toString().toLowerCase();
+		}
+		return coordinates;
+	}
+
+	/**
+	 * Starts a search:
+	 * go [depth N] [movetime MS] [wtime MS] [btime MS] [winc MS] [binc MS] [movestogo N] [nodes N] [infinite]
+	 * @param tokens are the tokens of the command.
+	 */
+	private void go(final String[] tokens) {
+		if (this.board == null) {
+			send("info string no position to search");
+			send("bestmove " + NULL_MOVE);
+			return;
+		}
+		int depth = MAX_DEPTH;
+		long moveTime = -1;
+		long whiteTime = -1;
+		long blackTime = -1;
+		long whiteIncrement = 0;
+		long blackIncrement = 0;
+		int movesToGo = DEFAULT_MOVES_TO_GO;
+		long nodes = SearchHandle.NO_LIMIT;
+		boolean isInfinite = false;
+		for (int i = 1; i < tokens.length; ++i) {
+			switch (tokens[i]) {
+				case "depth": depth = Integer.parseInt(tokens[++i]); break;
+				case "movetime": moveTime = Long.parseLong(tokens[++i]); break;
+				case "wtime": whiteTime = Long.parseLong(tokens[++i]); break;
+				case "btime": blackTime = Long.parseLong(tokens[++i]); break;
+				case "winc": whiteIncrement = Long.parseLong(tokens[++i]); break;
+				case "binc": blackIncrement = Long.parseLong(tokens[++i]); break;
+				case "movestogo": movesToGo = Math.max(1, Integer.parseInt(tokens[++i])); break;
+				case "nodes": nodes = Long.parseLong(tokens[++i]); break;
+				case "infinite": isInfinite = true; break;
+				default: break;
+			}
+		}
+		final boolean isWhite = this.board.currentPlayer().getColor().isWhite();
+		final long time = isWhite ? whiteTime : blackTime;
+		final long increment = isWhite ? whiteIncrement : blackIncrement;
+		final long startTime = System.currentTimeMillis();
+		final SearchHandle searchHandle = new SearchHandle();
+		searchHandle.setNodeLimit(nodes);
+		if (moveTime >= 0) {
+			searchHandle.setDeadline(startTime + Math.max(1, moveTime - MOVE_OVERHEAD));
+		} else if (time >= 0 && !isInfinite) {
+			final long budget = Math.min(time / movesToGo + increment * 3 / 4, time - MOVE_OVERHEAD);
+			searchHandle.setDeadline(startTime + Math.max(1, budget));
+		}
+		this.search = new Search(this.board, new LazySMP(Math.max(1, depth), this.threadCount, this.transpositionTable),
+				searchHandle, isInfinite);
+		this.search.start();
+	}
+
+	/**
+	 * Stops the running search, and waits until it wrote its best move.
+	 */
+	private void stopSearch() {
+		if (this.search != null) {
+			this.search.stop();
+			this.search = null;
+		}
+	}
+
+	/**
+	 * Writes an info line of a completed depth. The scores of the searches are
+	 * positive for white, and UCI scores are from the side of the player to move.
+	 * @param searchResult is the result of the depth.
+	 * @param isWhite is true if white is to move.
+	 */
+	private void sendInfo(final SearchResult searchResult, final boolean isWhite) {
+		final StringBuilder info = new StringBuilder("info");
+		info.append(" depth ").append(searchResult.getDepth());
+		info.append(" seldepth ").append(searchResult.getSelectiveDepth());
+		info.append(" score ").append(formatScore(isWhite ? searchResult.getScore() : -searchResult.getScore()));
+		info.append(" nodes ").append(searchResult.getNodes());
+		info.append(" nps ").append(searchResult.getNodesPerSecond());
+		info.append(" time ").append(searchResult.getTimeMillis());
+		final List<Move> principalVariation = searchResult.getPrincipalVariation();
+		if (!principalVariation.isEmpty()) {
+			info.append(" pv");
+			for (final Move move : principalVariation) {
+				info.append(' ').append(formatMove(move));
+			}
+		}
+		send(info.toString());
+	}
+
+	/**
+	 * Returns the UCI form of a score of the player to move: "mate" and the moves
+	 * to the mate for a mate that is counted in plies, negative if the player is
+	 * mated, or "cp" and the score in the range of centipawns.
+	 * @param score is the score of the player to move.
+	 * @return the UCI score.
+	 */
+	static String formatScore(final int score) {
+		if (EvaluationTerms.isMateInPlies(score)) {
+			final int plies = EvaluationTerms.MAX_MATE_SCORE - Math.abs(score);
+			return "mate " + (score > 0 ? (plies + 1) / 2 : -(plies / 2));
+		}
+		return "cp " + Math.max(-MAX_CENTIPAWNS, Math.min(MAX_CENTIPAWNS, score));
+	}
+
+	/**
+	 * Writes a line to the interface. The lines of the search thread and of the
+	 * command thread are never mixed.
+	 * @param line is the given line.
+	 */
+	private synchronized void send(final String line) {
+		this.output.println(line);
+		this.output.flush();
+	}
+
+	/**
+	 * Returns the index of a token.
+	 * @param tokens are the tokens.
+	 * @param token is the token to find.
+	 * @return the index, or -1 if there is no such token.
+	 */
+	private static int indexOf(final String[] tokens, final String token) {
+		for (int i = 0; i < tokens.length; ++i) {
+			if (tokens[i].equals(token)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * A search that runs in its own thread and writes its best move when it is done.
+	 * An infinite search writes its best move only after it was stopped.
+	 * @author Omer Shitrit
+	 *
+	 */
+	private class Search implements Runnable, SearchListener {
+
+		private final Board board;
+		private final LazySMP strategy;
+		private final SearchHandle searchHandle;
+		private final boolean isInfinite;
+		private final Thread thread;
+		private volatile boolean isStopped;
+
+		/**
+		 * Constructor
+		 * @param board is the board of the root.
+		 * @param strategy is the search algorithm.
+		 * @param searchHandle is the handle of the search.
+		 * @param isInfinite is true if the search waits for the stop command.
+		 */
+		Search(final Board board, final LazySMP strategy, final SearchHandle searchHandle, final boolean isInfinite) {
+			this.board = board;
+			this.strategy = strategy;
+			this.searchHandle = searchHandle;
+			this.isInfinite = isInfinite;
+			this.thread = new Thread(this, "UCI search");
+		}
+
+		/**
+		 * Starts the search.
+		 */
+		void start() { this.thread.start(); }
+
+		/**
+		 * Stops the search and waits for its thread.
+		 */
+		void stop() {
+			synchronized (this) {
+				this.isStopped = true;
+				notifyAll();
+			}
+			this.searchHandle.cancel();
+			try {
+				this.thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		public void iterationCompleted(final SearchResult searchResult) {
+			sendInfo(searchResult, this.board.currentPlayer().getColor().isWhite());
+		}
+
+		@Override
+		public void run() {
+			final SearchResult searchResult = this.strategy.search(this.board, this.searchHandle, this);
+			if (this.isInfinite) {
+				synchronized (this) {
+					while (!this.isStopped) {
+						try {
+							wait();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+							break;
+						}
+					}
+				}
+			}
+			Move bestMove = searchResult.getBestMove();
+			// stopped before the first depth was done - any legal move is better than none
+			if (bestMove == null) {
+				for (final Move move : this.board.currentPlayer().getPossibleMoves()) {
+					if (this.board.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+						bestMove = move;
+						break;
+					}
+				}
+			}
+			send("bestmove " + (bestMove == null ? NULL_MOVE : formatMove(bestMove)));
+		}
+	}
+
+	/**
+	 * Runs the engine on the standard input and output.
+	 * @param args are the arguments, which are not used.
+	 * @throws IOException if the input cannot be read.
+	 */
+	public static void main(final String[] args) throws IOException {
+		new UciEngine(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)), System.out).run();
+	}
+}